@@ -1,14 +1,15 @@
 package org.springframework.beans;
 
 /**
- * bean属性信息
+ * bean属性信息。属性名称会被驻留，大量bean定义中重复的名称只保留一份；
+ * 字面值可能很大或包含敏感信息，不驻留，由解析配置的读取器在解析时去重
  */
 public class PropertyValue {
     private final String name;
     private final Object value;
 
     public PropertyValue(String name, Object value) {
-        this.name = name;
+        this.name = name.intern();
         this.value = value;
     }
 
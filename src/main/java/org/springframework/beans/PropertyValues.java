@@ -1,55 +1,145 @@
 package org.springframework.beans;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * bean定义的属性值集合。
+ * 属性值保存在紧凑的数组中，属性较多时建立名称索引，避免添加属性时逐个比较名称；
+ * 冻结后不可修改，getPropertyValues直接返回内部数组而不再复制
+ */
 public class PropertyValues {
 
+    private static final PropertyValue[] EMPTY = new PropertyValue[0];
+
+    /**
+     * 属性数量超过该值时建立名称索引
+     */
+    private static final int INDEX_THRESHOLD = 8;
+
+    /**
+     * 存储PropertyValue的数组，前size个元素有效
+     */
+    private PropertyValue[] propertyValues = EMPTY;
+
+    private int size;
+
+    /**
+     * 属性名称到数组下标的索引，属性较少时为null
+     */
+    private Map<String, Integer> index;
+
     /**
-     * 存储PropertyValue的列表
+     * 内部数组是否已经由getPropertyValues返回给调用方，修改前需要先复制
      */
-    private final List<PropertyValue> propertyValueList = new ArrayList<>();
+    private boolean shared;
+
+    private volatile boolean frozen;
 
     /**
      * 添加一个属性值对象
-     * 
+     *
      * @param pv 要添加的PropertyValue对象
+     * @throws IllegalStateException 如果属性值已冻结
      */
     public void addPropertyValue(PropertyValue pv) {
-        for (int i = 0; i < this.propertyValueList.size(); i++) {
-            PropertyValue propertyValue = this.propertyValueList.get(i);
-            if (propertyValue.getName().equals(pv.getName())) {
-                // 如果属性名称相同，则覆盖
-                this.propertyValueList.set(i, pv);
-                return;
-
+        if (this.frozen) {
+            throw new IllegalStateException("Cannot add property '" + pv.getName() + "': property values are frozen");
+        }
+        int i = indexOf(pv.getName());
+        if (i >= 0) {
+            // 如果属性名称相同，则覆盖
+            ensureWritable(this.propertyValues.length);
+            this.propertyValues[i] = pv;
+            return;
+        }
+        if (this.size == this.propertyValues.length) {
+            ensureWritable(Math.max(4, this.size * 2));
+        } else {
+            ensureWritable(this.propertyValues.length);
+        }
+        this.propertyValues[this.size] = pv;
+        if (this.index != null) {
+            this.index.put(pv.getName(), this.size);
+        } else if (this.size == INDEX_THRESHOLD) {
+            this.index = new HashMap<>(INDEX_THRESHOLD * 4);
+            for (int j = 0; j <= this.size; j++) {
+                this.index.put(this.propertyValues[j].getName(), j);
             }
         }
-        this.propertyValueList.add(pv);
+        this.size++;
     }
 
     /**
-     * 获取所有的属性值对象
-     * 
+     * 获取所有的属性值对象，返回的数组在属性值修改之前保持不变，调用方不应修改
+     *
      * @return PropertyValue对象数组
      */
     public PropertyValue[] getPropertyValues() {
-        return this.propertyValueList.toArray(new PropertyValue[0]);
+        if (this.frozen) {
+            return this.propertyValues;
+        }
+        if (this.propertyValues.length != this.size) {
+            this.propertyValues = Arrays.copyOf(this.propertyValues, this.size);
+        }
+        this.shared = true;
+        return this.propertyValues;
     }
 
     /**
      * 根据属性名称查找对应的PropertyValue对象
-     * 
+     *
      * @param propertyName 属性名称
      * @return 如果找到则返回对应的PropertyValue对象，否则返回null
      */
     public PropertyValue getPropertyValue(String propertyName) {
-        for (int i = 0; i < this.propertyValueList.size(); i++) {
-            PropertyValue pv = this.propertyValueList.get(i);
-            if (pv.getName().equals(propertyName)) {
-                return pv;
+        int i = indexOf(propertyName);
+        return i >= 0 ? this.propertyValues[i] : null;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * 冻结属性值，释放多余的数组空间，之后不能再添加属性
+     */
+    public void freeze() {
+        if (this.frozen) {
+            return;
+        }
+        if (this.propertyValues.length != this.size) {
+            this.propertyValues = this.size == 0 ? EMPTY : Arrays.copyOf(this.propertyValues, this.size);
+        }
+        this.frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    private int indexOf(String propertyName) {
+        if (this.index != null) {
+            Integer i = this.index.get(propertyName);
+            return i != null ? i : -1;
+        }
+        for (int i = 0; i < this.size; i++) {
+            if (this.propertyValues[i].getName().equals(propertyName)) {
+                return i;
             }
         }
-        return null;
+        return -1;
+    }
+
+    private void ensureWritable(int capacity) {
+        if (this.shared || capacity != this.propertyValues.length) {
+            this.propertyValues = Arrays.copyOf(this.propertyValues, capacity);
+            this.shared = false;
+        }
     }
 }
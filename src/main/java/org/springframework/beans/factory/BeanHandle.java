@@ -0,0 +1,26 @@
+package org.springframework.beans.factory;
+
+import org.springframework.beans.BeanException;
+
+/**
+ * 按名称或类型解析一次的bean句柄，用于频繁获取同一个bean的热点路径。
+ * 单例的实例在第一次获取后被记住，之后的获取不再经过名称哈希和类型转换
+ *
+ * @param <T> bean类型
+ */
+public interface BeanHandle<T> extends ObjectFactory<T> {
+
+    /**
+     * 返回句柄对应的bean实例
+     *
+     * @return bean实例
+     * @throws BeanException 如果创建失败
+     */
+    @Override
+    T getObject() throws BeanException;
+
+    /**
+     * 返回句柄对应的bean名称
+     */
+    String getBeanName();
+}
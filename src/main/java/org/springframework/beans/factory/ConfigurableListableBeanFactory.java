@@ -6,6 +6,8 @@ import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 提供配置和列举功能的BeanFactory
  */
@@ -28,5 +30,30 @@ public interface ConfigurableListableBeanFactory
      */
     void preInstantiateSingletons() throws BeanException;
 
+    /**
+     * 返回bean的创建结果。异步初始化的单例返回其初始化任务，尚未开始时立即开始；
+     * 其他已创建的单例返回已完成的结果
+     *
+     * @param beanName bean名称
+     * @return 创建结果，bean不是异步初始化的单例且尚未创建时返回null
+     * @throws BeanException 如果找不到BeanDefinition
+     */
+    CompletableFuture<Object> getInitializationFuture(String beanName) throws BeanException;
+
+    /**
+     * 返回preInstantiateSingletons启动的所有异步初始化完成时完成的结果，任一bean创建失败时异常完成
+     */
+    CompletableFuture<Void> getReadyFuture();
+
     void addBeanPostProcessor(BeanPostProcessor beanPostProcessor);
+
+    /**
+     * 冻结所有bean定义，之后的查找使用只读的查找表，不再允许注册新的bean定义和单例
+     */
+    void freezeConfiguration();
+
+    /**
+     * 配置是否已冻结
+     */
+    boolean isConfigurationFrozen();
 }
@@ -1,16 +1,45 @@
 package org.springframework.beans.factory;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.BeanException;
 
 public interface ListableBeanFactory extends BeanFactory {
 
+    /**
+     * 返回唯一匹配指定类型的bean，通过类型索引查找
+     *
+     * @throws BeanException 如果没有或有多个匹配的bean
+     */
+    <T> T getBean(Class<T> requiredType) throws BeanException;
+
     /**
      * 返回指定类型的所有实例
      */
     <T> Map<String, T> getBeansOfType(Class<T> type) throws BeanException;
 
+    /**
+     * 返回指定名称的bean句柄，用于在热点路径上反复获取同一个bean
+     */
+    <T> BeanHandle<T> getBeanHandle(String name, Class<T> requiredType) throws BeanException;
+
+    /**
+     * 返回唯一匹配指定类型的bean句柄
+     */
+    <T> BeanHandle<T> getBeanHandle(Class<T> requiredType) throws BeanException;
+
+    /**
+     * 从池化bean的对象池中借出一个实例，没有可用实例时立即失败
+     */
+    <T> PooledBean<T> borrowBean(String name, Class<T> requiredType) throws BeanException;
+
+    /**
+     * 从池化bean的对象池中借出一个实例，没有可用实例时最多等待指定的时间
+     */
+    <T> PooledBean<T> borrowBean(String name, Class<T> requiredType, long timeout, TimeUnit unit)
+            throws BeanException;
+
     /**
      * 返回所有bean的名称
      */
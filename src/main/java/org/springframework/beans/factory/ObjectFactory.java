@@ -0,0 +1,20 @@
+package org.springframework.beans.factory;
+
+import org.springframework.beans.BeanException;
+
+/**
+ * 定义一个可以返回对象实例的工厂，通常用于延迟创建bean实例
+ *
+ * @param <T> 对象类型
+ */
+@FunctionalInterface
+public interface ObjectFactory<T> {
+
+    /**
+     * 返回对象实例
+     *
+     * @return 对象实例
+     * @throws BeanException 如果创建失败
+     */
+    T getObject() throws BeanException;
+}
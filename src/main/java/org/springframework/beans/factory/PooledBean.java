@@ -0,0 +1,26 @@
+package org.springframework.beans.factory;
+
+/**
+ * 从池化bean的对象池中借出的实例。
+ * 借出期间实例只属于当前持有者，用完后通过close归还，通常配合try-with-resources使用
+ *
+ * @param <T> bean类型
+ */
+public interface PooledBean<T> extends AutoCloseable {
+
+    /**
+     * 返回借出的bean实例，归还后不能再使用
+     */
+    T getObject();
+
+    /**
+     * 返回bean名称
+     */
+    String getBeanName();
+
+    /**
+     * 将实例归还对象池，重复调用无效。对象池已关闭时直接销毁实例
+     */
+    @Override
+    void close();
+}
@@ -1,19 +1,53 @@
 package org.springframework.beans.factory.config;
 
+import org.springframework.beans.BeanException;
 import org.springframework.beans.PropertyValues;
 
+import java.util.function.Supplier;
+
 /**
  * BeanDefinition实例保存bean的信息，包括class类型、方法构造参数、是否为单例等
  */
 public class BeanDefinition {
 
-    private Class<?> beanClass;
+    public static final String SCOPE_SINGLETON = "singleton";
+
+    public static final String SCOPE_PROTOTYPE = "prototype";
+
+    public static final String SCOPE_POOLED = "pooled";
+
+    public static final int DEFAULT_POOL_SIZE = 8;
+
+    // bean类，只提供类名时在第一次使用时解析
+    private volatile Class<?> beanClass;
+    // bean类名，解析bean类前使用
+    private String beanClassName;
+    // 解析bean类使用的类加载器
+    private ClassLoader beanClassLoader;
 
     private PropertyValues propertyValues;
     // 初始化方法名
     private String initMethodName;
     // 销毁方法名 用于在bean销毁时调用
     private String destroyMethodName;
+    // 作用域，默认为单例
+    private String scope = SCOPE_SINGLETON;
+    // 是否延迟初始化，为null时使用bean工厂的默认设置
+    private Boolean lazyInit;
+
+    private boolean asyncInit;
+    // 池化bean的实例数上限
+    private int poolSize = DEFAULT_POOL_SIZE;
+    // 池化bean空闲多久后可以被回收（毫秒），0表示不回收
+    private long poolIdleTimeout;
+    // 创建并注入好属性的bean实例的工厂，通常由构建时生成的代码提供，设置后不再通过反射实例化和注入属性
+    private Supplier<?> instanceSupplier;
+    // 与初始化方法名对应的调用器，设置后不再按名称查找方法
+    private MethodInvoker initMethodInvoker;
+    // 与销毁方法名对应的调用器
+    private MethodInvoker destroyMethodInvoker;
+    // 工厂和实例化策略为这个bean定义缓存的解析结果，类型由使用方决定
+    private volatile Object resolvedCache;
 
     public BeanDefinition(Class<?> beanClass) {
         this(beanClass, null);
@@ -21,15 +55,47 @@ public class BeanDefinition {
 
     public BeanDefinition(Class<?> beanClass, PropertyValues propertyValues) {
         this.beanClass = beanClass;
+        this.beanClassName = beanClass != null ? beanClass.getName() : null;
         this.propertyValues = propertyValues != null ? propertyValues : new PropertyValues();
     }
 
+    /**
+     * 只保存类名，bean类在第一次实例化或按类型查找时才加载
+     *
+     * @param beanClassName bean类的全限定名
+     */
+    public BeanDefinition(String beanClassName) {
+        this(beanClassName, null);
+    }
+
+    /**
+     * @param beanClassName bean类的全限定名
+     * @param classLoader   加载bean类的类加载器，为null时使用当前线程的上下文类加载器
+     */
+    public BeanDefinition(String beanClassName, ClassLoader classLoader) {
+        this.beanClassName = intern(beanClassName);
+        this.beanClassLoader = classLoader != null ? classLoader : defaultClassLoader();
+        this.propertyValues = new PropertyValues();
+    }
+
+    /**
+     * 大量bean定义中重复出现的类名、方法名和作用域只保留一份
+     */
+    private static String intern(String value) {
+        return value != null ? value.intern() : null;
+    }
+
+    private static ClassLoader defaultClassLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return classLoader != null ? classLoader : BeanDefinition.class.getClassLoader();
+    }
+
     public String getInitMethodName() {
         return initMethodName;
     }
 
     public void setInitMethodName(String initMethodName) {
-        this.initMethodName = initMethodName;
+        this.initMethodName = intern(initMethodName);
     }
 
     public String getDestroyMethodName() {
@@ -37,15 +103,63 @@ public class BeanDefinition {
     }
 
     public void setDestroyMethodName(String destroyMethodName) {
-        this.destroyMethodName = destroyMethodName;
+        this.destroyMethodName = intern(destroyMethodName);
     }
 
-    public Class<?> getBeanClass() {
-        return beanClass;
+    /**
+     * 获取bean类，只有类名时在此加载（不执行静态初始化）
+     *
+     * @throws BeanException 如果类不存在
+     */
+    public Class<?> getBeanClass() throws BeanException {
+        Class<?> beanClass = this.beanClass;
+        return beanClass != null || beanClassName == null ? beanClass : resolveBeanClass();
     }
 
     public void setBeanClass(Class<?> beanClass) {
         this.beanClass = beanClass;
+        this.beanClassName = beanClass != null ? beanClass.getName() : null;
+    }
+
+    public String getBeanClassName() {
+        return beanClassName;
+    }
+
+    /**
+     * 加载bean类使用的类加载器
+     */
+    public ClassLoader getBeanClassLoader() {
+        if (beanClassLoader != null) {
+            return beanClassLoader;
+        }
+        return beanClass != null && beanClass.getClassLoader() != null ? beanClass.getClassLoader()
+                : defaultClassLoader();
+    }
+
+    /**
+     * bean类是否已经加载
+     */
+    public boolean hasBeanClass() {
+        return beanClass != null;
+    }
+
+    /**
+     * 按类名加载bean类，可以提前在其他线程中调用。并发调用时类加载器保证得到同一个类
+     *
+     * @return 加载的bean类
+     * @throws BeanException 如果类不存在
+     */
+    public Class<?> resolveBeanClass() throws BeanException {
+        Class<?> beanClass = this.beanClass;
+        if (beanClass == null) {
+            try {
+                beanClass = Class.forName(beanClassName, false, beanClassLoader);
+            } catch (ClassNotFoundException e) {
+                throw new BeanException("Class not found: " + beanClassName, e);
+            }
+            this.beanClass = beanClass;
+        }
+        return beanClass;
     }
 
     public PropertyValues getPropertyValues() {
@@ -55,4 +169,126 @@ public class BeanDefinition {
     public void setPropertyValues(PropertyValues propertyValues) {
         this.propertyValues = propertyValues;
     }
-}
+
+    public String getScope() {
+        return scope;
+    }
+
+    /**
+     * 设置作用域
+     *
+     * @param scope singleton、prototype、pooled或已注册的自定义作用域名称，为空时使用singleton
+     */
+    public void setScope(String scope) {
+        this.scope = scope == null || scope.isEmpty() ? SCOPE_SINGLETON : scope.intern();
+    }
+
+    public boolean isSingleton() {
+        return SCOPE_SINGLETON.equals(scope);
+    }
+
+    public boolean isPrototype() {
+        return SCOPE_PROTOTYPE.equals(scope);
+    }
+
+    public boolean isPooled() {
+        return SCOPE_POOLED.equals(scope);
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * 设置池化bean的实例数上限，在第一次借出前设置
+     */
+    public void setPoolSize(int poolSize) {
+        if (poolSize <= 0) {
+            throw new BeanException("Pool size must be positive: " + poolSize);
+        }
+        this.poolSize = poolSize;
+    }
+
+    public long getPoolIdleTimeout() {
+        return poolIdleTimeout;
+    }
+
+    /**
+     * 设置池化bean空闲多久后可以被回收
+     *
+     * @param poolIdleTimeout 毫秒，0表示不回收
+     */
+    public void setPoolIdleTimeout(long poolIdleTimeout) {
+        this.poolIdleTimeout = Math.max(0, poolIdleTimeout);
+    }
+
+    /**
+     * 是否显式声明为延迟初始化
+     */
+    public boolean isLazyInit() {
+        return Boolean.TRUE.equals(lazyInit);
+    }
+
+    /**
+     * @return 显式声明的延迟初始化设置，未声明时为null
+     */
+    public Boolean getLazyInit() {
+        return lazyInit;
+    }
+
+    /**
+     * 设置延迟初始化，延迟初始化的单例不在容器启动时创建，而是在第一次使用时创建
+     *
+     * @param lazyInit 为null时使用bean工厂的默认设置
+     */
+    public void setLazyInit(Boolean lazyInit) {
+        this.lazyInit = lazyInit;
+    }
+
+    public boolean isAsyncInit() {
+        return asyncInit;
+    }
+
+    /**
+     * 设置异步初始化，容器启动时这样的单例在初始化执行器中创建，不阻塞refresh；
+     * 依赖它的bean在获取它时等待其创建完成
+     */
+    public void setAsyncInit(boolean asyncInit) {
+        this.asyncInit = asyncInit;
+    }
+
+    public Supplier<?> getInstanceSupplier() {
+        return instanceSupplier;
+    }
+
+    public void setInstanceSupplier(Supplier<?> instanceSupplier) {
+        this.instanceSupplier = instanceSupplier;
+    }
+
+    public MethodInvoker getInitMethodInvoker() {
+        return initMethodInvoker;
+    }
+
+    public void setInitMethodInvoker(MethodInvoker initMethodInvoker) {
+        this.initMethodInvoker = initMethodInvoker;
+    }
+
+    public MethodInvoker getDestroyMethodInvoker() {
+        return destroyMethodInvoker;
+    }
+
+    public void setDestroyMethodInvoker(MethodInvoker destroyMethodInvoker) {
+        this.destroyMethodInvoker = destroyMethodInvoker;
+    }
+
+    /**
+     * 获取工厂和实例化策略为这个bean定义缓存的解析结果，bean定义本身不解释其内容
+     */
+    public Object getResolvedCache() {
+        return resolvedCache;
+    }
+
+    public void setResolvedCache(Object resolvedCache) {
+        this.resolvedCache = resolvedCache;
+    }
+}
\ No newline at end of file
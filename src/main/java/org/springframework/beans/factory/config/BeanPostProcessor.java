@@ -26,4 +26,24 @@ public interface BeanPostProcessor {
      */
     Object postProcessAfterInitialization(Object bean, String beanName) throws BeanException;
 
+    /**
+     * 是否处理该类型的bean，工厂按bean类缓存结果，返回false的处理器不会出现在该类bean的处理链中
+     * 
+     * @param beanClass
+     * @return
+     */
+    default boolean supportsBeanType(Class<?> beanClass) {
+        return true;
+    }
+
+    /**
+     * 是否处理该名称的bean，在supportsBeanType之后对每个bean调用
+     * 
+     * @param beanName
+     * @return
+     */
+    default boolean supportsBeanName(String beanName) {
+        return true;
+    }
+
 }
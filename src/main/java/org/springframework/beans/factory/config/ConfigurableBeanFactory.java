@@ -1,11 +1,32 @@
 package org.springframework.beans.factory.config;
 
 import org.springframework.beans.factory.HierarchicalBeanFactory;
+import org.springframework.core.convert.ConversionService;
 
 public interface ConfigurableBeanFactory extends HierarchicalBeanFactory, SingletonBeanRegistry {
 
     void addBeanPostProcessor(BeanPostProcessor beanPostProcessor);
 
+    /**
+     * 注册自定义作用域，同名的作用域会被覆盖
+     *
+     * @param scopeName 作用域名称，不能是singleton、prototype或pooled
+     * @param scope     作用域
+     */
+    void registerScope(String scopeName, Scope scope);
+
+    /**
+     * 返回指定名称的自定义作用域，未注册时返回null
+     */
+    Scope getRegisteredScope(String scopeName);
+
+    /**
+     * 设置注入属性时转换字面值使用的类型转换服务，应在创建bean之前设置
+     */
+    void setConversionService(ConversionService conversionService);
+
+    ConversionService getConversionService();
+
     /**
      * 销毁单例bean实例
      */
@@ -0,0 +1,16 @@
+package org.springframework.beans.factory.config;
+
+/**
+ * 已绑定到某个无参方法的调用器，用于执行初始化方法和销毁方法
+ */
+@FunctionalInterface
+public interface MethodInvoker {
+
+    /**
+     * 在bean上调用绑定的方法
+     *
+     * @param bean bean实例
+     * @throws Exception 如果方法抛出异常
+     */
+    void invoke(Object bean) throws Exception;
+}
@@ -0,0 +1,35 @@
+package org.springframework.beans.factory.config;
+
+import org.springframework.beans.factory.ObjectFactory;
+
+/**
+ * 自定义作用域，由ConfigurableBeanFactory按名称注册。
+ * 作用域决定bean实例的缓存范围，并在作用域结束时执行其中bean的销毁回调
+ */
+public interface Scope {
+
+    /**
+     * 返回当前作用域中指定名称的bean，不存在时通过objectFactory创建并放入作用域
+     *
+     * @param name          bean名称
+     * @param objectFactory 创建bean的工厂
+     * @return bean实例
+     */
+    Object get(String name, ObjectFactory<?> objectFactory);
+
+    /**
+     * 从当前作用域中移除指定名称的bean，同时移除其销毁回调但不执行
+     *
+     * @param name bean名称
+     * @return 被移除的bean实例，不存在时返回null
+     */
+    Object remove(String name);
+
+    /**
+     * 注册bean的销毁回调，在作用域结束时执行
+     *
+     * @param name     bean名称
+     * @param callback 销毁回调
+     */
+    void registerDestructionCallback(String name, Runnable callback);
+}
@@ -1,19 +1,26 @@
 package org.springframework.beans.factory.support;
 
+import net.sf.cglib.proxy.Callback;
+import net.sf.cglib.proxy.LazyLoader;
 import org.springframework.beans.BeanException;
 import org.springframework.beans.PropertyValue;
-import org.springframework.beans.PropertyValues;
 import org.springframework.beans.factory.BeanFactoryAware;
-import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.PooledBean;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.beans.factory.config.BeanReference;
+import org.springframework.beans.factory.config.MethodInvoker;
+import org.springframework.beans.factory.config.Scope;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
 
-import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFactory
         implements AutowireCapableBeanFactory {
@@ -21,18 +28,80 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
     // ʵԣĬʹSimpleInstantiationStrategy
     private InstantiationStrategy instantiationStrategy = new SimpleInstantiationStrategy();
 
+    // ע뼰ʼ/ٷķԣĬʹ÷
+    private BeanAccessorStrategy beanAccessorStrategy = ReflectiveBeanAccessorStrategy.INSTANCE;
+
+    // עǰתֵʹõת
+    private ConversionService conversionService = new DefaultConversionService();
+
+    // δʽlazy-initbeanǷӳٳʼ
+    private boolean defaultLazyInit = false;
+
+    // ӳٳʼbeanĴͬһbeanùһ
+    private final Map<String, Object> lazyResolutionProxies = new ConcurrentHashMap<>();
+
+    // ޷ɴռλ
+    private static final Object NO_LAZY_RESOLUTION_PROXY = new Object();
+
+    // ػbeanĶأһνʱ
+    private final Map<String, BeanPool> beanPools = new ConcurrentHashMap<>();
+
     @Override
     protected Object createBean(String beanName, BeanDefinition beanDefinition) throws BeanException {
+        if (beanDefinition.isPrototype()) {
+            // ԭbeanԤȱ䷽עٻص
+            beforePrototypeCreation(beanName);
+            try {
+                return getCreationRecipe(beanName, beanDefinition).create();
+            } finally {
+                afterPrototypeCreation(beanName);
+            }
+        }
         return doCreateBean(beanName, beanDefinition);
     }
 
+    /**
+     * ȡԭbeanĴ䷽һδ䷽ʧЧʱ
+     *
+     * @param beanName       bean
+     * @param beanDefinition bean
+     * @return ䷽
+     */
+    protected BeanCreationRecipe getCreationRecipe(String beanName, BeanDefinition beanDefinition) {
+        BeanDefinitionCache cache = BeanDefinitionCache.forBeanDefinition(beanDefinition);
+        BeanCreationRecipe recipe = cache.getCreationRecipe();
+        if (recipe == null || !recipe.isValid()) {
+            recipe = new BeanCreationRecipe(this, beanName, beanDefinition);
+            cache.setCreationRecipe(recipe);
+        }
+        return recipe;
+    }
+
+    /**
+     * ䷽нbeanõĽÿδʱ
+     *
+     * @param beanName õbean
+     * @return 
+     */
+    protected ObjectFactory<?> createReferenceResolver(String beanName) {
+        return () -> resolveBeanReference(beanName);
+    }
+
     protected Object doCreateBean(String beanName, BeanDefinition beanDefinition) {
         Object bean = null;
         try {
-            // ʹʵԴbeanʵ
-            bean = createBeanInstance(beanDefinition, beanName);
-            // Ϊbean
-            applyPropertyValues(beanName, bean, beanDefinition);
+            if (beanDefinition.getInstanceSupplier() != null) {
+                // beanṩĹֱӴעԵʵ
+                bean = beanDefinition.getInstanceSupplier().get();
+            } else if (getInstantiationStrategy() instanceof PopulatingInstantiationStrategy) {
+                // ʵڴʵͬʱע
+                bean = createPopulatedBeanInstance(beanDefinition, beanName);
+            } else {
+                // ʹʵԴbeanʵ
+                bean = createBeanInstance(beanDefinition, beanName);
+                // Ϊbean
+                applyPropertyValues(beanName, bean, beanDefinition);
+            }
 
             // ִbeanĳʼBeanPostProcessorǰúͺô
             initializeBean(beanName, bean, beanDefinition);
@@ -41,11 +110,12 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
             throw new BeanException("Instantiation of bean failed", e);
         }
 
-        // עٷbean
-        registerDisposableBeanIfNecessary(beanName, bean, beanDefinition);
+        // עٷbeanػbeanʵɶظ
+        if (!beanDefinition.isPooled()) {
+            registerDisposableBeanIfNecessary(beanName, bean, beanDefinition);
+        }
 
-        // עᵥ
-        registerSingleton(beanName, bean);
+        // DefaultSingletonBeanRegistry#getSingletonڴɺע
         return bean;
     }
 
@@ -57,16 +127,62 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
      * @param beanDefinition
      */
     protected void registerDisposableBeanIfNecessary(String beanName, Object bean, BeanDefinition beanDefinition) {
-        // beanʵDisposableBeanӿڣעٷ
-        if (bean instanceof DisposableBean) {
-            registerDisposableBean(beanName, new DisposableBeanAdapter(bean, beanName, beanDefinition));
+        LifecycleMetadata lifecycleMetadata = getLifecycleMetadata(beanDefinition);
+        // ʵDisposableBeanӿڻԶٷʱֻעһ
+        if (!lifecycleMetadata.requiresDestruction()) {
+            return;
+        }
+        DisposableBeanAdapter adapter = new DisposableBeanAdapter(bean, beanName, lifecycleMetadata);
+        if (beanDefinition.isSingleton()) {
+            registerDisposableBean(beanName, adapter);
+            return;
+        }
+        // Զbeanʱ
+        Scope scope = getRegisteredScope(beanDefinition.getScope());
+        if (scope != null) {
+            scope.registerDestructionCallback(beanName, () -> {
+                try {
+                    adapter.destroy();
+                } catch (Exception e) {
+                    throw new BeansException("Destroy method on bean with name '" + beanName + "' threw an exception",
+                            e);
+                }
+            });
         }
+    }
+
+    /**
+     * ȡbeanԪݣעbean屻޸ʱ½
+     *
+     * @param beanDefinition bean
+     * @return Ԫ
+     */
+    protected LifecycleMetadata getLifecycleMetadata(BeanDefinition beanDefinition) {
+        BeanDefinitionCache cache = BeanDefinitionCache.forBeanDefinition(beanDefinition);
+        LifecycleMetadata lifecycleMetadata = cache.getLifecycleMetadata();
+        if (lifecycleMetadata == null || !lifecycleMetadata.matches(beanDefinition, getBeanAccessorStrategy())) {
+            lifecycleMetadata = LifecycleMetadata.forBeanDefinition(beanDefinition, getBeanAccessorStrategy());
+            cache.setLifecycleMetadata(lifecycleMetadata);
+        }
+        return lifecycleMetadata;
+    }
 
-        // Զٷעٷ
-        String destroyMethodName = beanDefinition.getDestroyMethodName();
-        if (destroyMethodName != null && !destroyMethodName.isEmpty()) {
-            registerDisposableBean(beanName, new DisposableBeanAdapter(bean, beanName, beanDefinition));
+    /**
+     * ȡתֵֵһδתֵ仯ʱת
+     *
+     * @param beanName       bean
+     * @param beanDefinition bean
+     * @return תֵ
+     */
+    protected ConvertedPropertyValues getConvertedPropertyValues(String beanName, BeanDefinition beanDefinition) {
+        BeanDefinitionCache cache = BeanDefinitionCache.forBeanDefinition(beanDefinition);
+        ConvertedPropertyValues convertedPropertyValues = cache.getConvertedPropertyValues();
+        if (convertedPropertyValues == null || !convertedPropertyValues.matches(beanDefinition, conversionService)) {
+            convertedPropertyValues = ConvertedPropertyValues.forBeanDefinition(beanName, beanDefinition,
+                    conversionService, getBeanAccessorStrategy());
+            cache.setConvertedPropertyValues(convertedPropertyValues);
         }
+        return convertedPropertyValues;
     }
 
     /**
@@ -77,23 +193,14 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
      * @return
      */
     protected void applyPropertyValues(String beanName, Object bean, BeanDefinition beanDefinition) {
+        // ֵѰת
+        ConvertedPropertyValues convertedPropertyValues = getConvertedPropertyValues(beanName, beanDefinition);
         try {
-            PropertyValues propertyValues = beanDefinition.getPropertyValues();
-            for (PropertyValue propertyValue : propertyValues.getPropertyValues()) {
-                String name = propertyValue.getName();
-                Object value = propertyValue.getValue();
-
-                if (value instanceof BeanReference) {
-                    // beanAbeanBʵbeanB
-                    // BeanReference
-                    BeanReference beanReference = (BeanReference) value;
-                    // ȡõbeanʵ
-                    value = getBean(beanReference.getBeanName());
-
-                }
-
+            PropertyValue[] propertyValues = convertedPropertyValues.getPropertyValues();
+            for (int i = 0; i < propertyValues.length; i++) {
                 // ʹͨõֵֶ
-                setFieldValue(bean, name, value);
+                setFieldValue(bean, propertyValues[i].getName(),
+                        resolveValueIfNecessary(convertedPropertyValues.getValue(i)));
             }
         } catch (Exception e) {
             throw new BeanException("Error setting property values for bean: " + beanName, e);
@@ -101,156 +208,193 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
     }
 
     /**
-     * ֵֶֶ֧
-     * 
-     * @param bean      Bean
-     * @param fieldName ֶ
-     * @param value     ֵֶ
+     * ֵBeanReferenceΪõbeanʵֵԭ
+     *
+     * @param value ֵ
+     * @return ֵ
      */
-
-    @SuppressWarnings({ "unchecked", "rawtypes" })
-    protected void setFieldValue(Object bean, String fieldName, Object value) {
-        if (bean == null || fieldName == null) {
-            return;
+    protected Object resolveValueIfNecessary(Object value) {
+        if (value instanceof BeanReference) {
+            // beanAbeanBʵbeanB
+            // ȡõbeanʵ
+            return resolveBeanReference(((BeanReference) value).getBeanName());
         }
+        return value;
+    }
 
-        if (bean instanceof Map) {
-            ((Map) bean).put(fieldName, value);
-        } else if (bean instanceof List) {
-            ((List) bean).add(value);
-        } else {
-            try {
-                // ȳsetter
-                String setterMethodName = "set" + fieldName.substring(0, 1).toUpperCase() + fieldName.substring(1);
-
-                try {
-                    Method setter = bean.getClass().getMethod(setterMethodName, value.getClass());
-                    setter.invoke(bean, value);
-                    return;
-                } catch (NoSuchMethodException e) {
-                    // ûҵȫƥsetterԲܵsetter
-                    Method[] methods = bean.getClass().getMethods();
-                    for (Method method : methods) {
-                        if (method.getName().equals(setterMethodName) && method.getParameterCount() == 1) {
-                            // ҵһǱڵsetterת
-                            Class<?> paramType = method.getParameterTypes()[0];
-                            Object convertedValue = convertValueToType(value, paramType);
-                            if (convertedValue != null) {
-                                method.invoke(bean, convertedValue);
-                                return;
-                            }
-                        }
-                    }
+    /**
+     * beanáõbeanӳٳʼδʱӳٽ
+     * ڵһηʱŴĿbean
+     *
+     * @param beanName õbean
+     * @return beanʵӳٽ
+     */
+    public Object resolveBeanReference(String beanName) throws BeanException {
+        if (!containsSingleton(beanName) && containsBeanDefinition(beanName)) {
+            BeanDefinition beanDefinition = getBeanDefinition(beanName);
+            // ֻеôԭbeanÿöʵ
+            if (isLazyInit(beanDefinition) && beanDefinition.isSingleton()) {
+                Object proxy = lazyResolutionProxies.get(beanName);
+                if (proxy == null) {
+                    proxy = lazyResolutionProxies.computeIfAbsent(beanName,
+                            name -> createLazyResolutionProxy(name, beanDefinition));
                 }
-
-                // ûҵʵsetterֱֶ
-                java.lang.reflect.Field field = bean.getClass().getDeclaredField(fieldName);
-                field.setAccessible(true);
-
-                // Խת
-                Object convertedValue = convertValueToType(value, field.getType());
-                if (convertedValue != null) {
-                    field.set(bean, convertedValue);
-                } else {
-                    // תʧֵܵΪnullֱãܻ׳쳣
-                    if (value != null) {
-                        field.set(bean, value);
-                    }
+                if (proxy != NO_LAZY_RESOLUTION_PROXY) {
+                    return proxy;
                 }
-            } catch (Exception e) {
-                throw new BeanException("Error setting property " + fieldName, e);
             }
         }
+        return getBean(beanName);
     }
 
     /**
-     * ֵתΪĿ
-     * 
-     * @param value      Ҫתֵ
-     * @param targetType Ŀ
-     * @return תֵ޷ת򷵻null
+     * ͨCGLIBbeanΪзίиһεʱȡĿbean
+     * ͨ޲ιִһbeanĹеĸúͿӦŵʼС
+     * beanΪfinalû޲ιʱ޷ɴֱעĿbean
      */
-    private Object convertValueToType(Object value, Class<?> targetType) {
-        if (value == null) {
-            return null;
+    private Object createLazyResolutionProxy(String beanName, BeanDefinition beanDefinition) {
+        LazyLoader targetLoader = () -> getBean(beanName);
+        try {
+            return new CglibSubclassingInstantiationStrategy(new Callback[] { targetLoader }, null)
+                    .instantiate(beanDefinition, beanName, this);
+        } catch (BeansException e) {
+            return NO_LAZY_RESOLUTION_PROXY;
         }
+    }
 
-        // ֵѾĿֱͣӷ
-        if (targetType.isInstance(value)) {
-            return value;
-        }
+    /**
+     * жbeanǷӳٳʼbeanδʽʱʹĬ
+     */
+    public boolean isLazyInit(BeanDefinition beanDefinition) {
+        Boolean lazyInit = beanDefinition.getLazyInit();
+        return lazyInit != null ? lazyInit : defaultLazyInit;
+    }
 
-        // String͵ת
-        if (value instanceof String) {
-            String strValue = (String) value;
-
-            if (targetType == int.class || targetType == Integer.class) {
-                return Integer.parseInt(strValue);
-            } else if (targetType == long.class || targetType == Long.class) {
-                return Long.parseLong(strValue);
-            } else if (targetType == double.class || targetType == Double.class) {
-                return Double.parseDouble(strValue);
-            } else if (targetType == float.class || targetType == Float.class) {
-                return Float.parseFloat(strValue);
-            } else if (targetType == boolean.class || targetType == Boolean.class) {
-                return Boolean.parseBoolean(strValue);
-            } else if (targetType == short.class || targetType == Short.class) {
-                return Short.parseShort(strValue);
-            } else if (targetType == byte.class || targetType == Byte.class) {
-                return Byte.parseByte(strValue);
-            } else if (targetType == char.class || targetType == Character.class && strValue.length() == 1) {
-                return strValue.charAt(0);
+    public boolean isDefaultLazyInit() {
+        return defaultLazyInit;
+    }
+
+    /**
+     * δʽlazy-initbeanǷӳٳʼ
+     */
+    public void setDefaultLazyInit(boolean defaultLazyInit) {
+        this.defaultLazyInit = defaultLazyInit;
+    }
+
+    /**
+     * ӳػbeanĶнһʵûпʵʱʧ
+     */
+    public <T> PooledBean<T> borrowBean(String name, Class<T> requiredType) throws BeanException {
+        return borrowBean(name, requiredType, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * ӳػbeanĶнһʵûпʵʱȴָʱ
+     *
+     * @param name         bean
+     * @param requiredType Ҫbean
+     * @param timeout      ȴʱ䣬Ϊ0ʱȴ
+     * @param unit         ʱ䵥λ
+     * @return ʵҪ黹
+     * @throws BeanException beanǳػbeanʧܻȴʱ
+     */
+    public <T> PooledBean<T> borrowBean(String name, Class<T> requiredType, long timeout, TimeUnit unit)
+            throws BeanException {
+        BeanPool pool = beanPools.get(name);
+        if (pool == null) {
+            BeanDefinition beanDefinition = getBeanDefinition(name);
+            if (!beanDefinition.isPooled()) {
+                throw new BeanException("Bean '" + name + "' is not pooled");
             }
+            pool = beanPools.computeIfAbsent(name, key -> new BeanPool(this, key, beanDefinition));
         }
+        return pool.borrow(requiredType, timeout, unit);
+    }
 
-        // ת߼ԸҪ
+    /**
+     * жпгʱʵҪɵ÷ڵ
+     *
+     * @return յʵ
+     */
+    public int evictIdlePooledBeans() {
+        int evicted = 0;
+        for (BeanPool pool : beanPools.values()) {
+            evicted += pool.evictIdle();
+        }
+        return evicted;
+    }
 
-        return null; // ޷ת
+    @Override
+    public void destroySingletons() {
+        try {
+            super.destroySingletons();
+        } finally {
+            lazyResolutionProxies.clear();
+            // رնزٿʵеʵڹ黹ʱ
+            for (BeanPool pool : beanPools.values()) {
+                pool.close();
+            }
+            beanPools.clear();
+        }
     }
 
     /**
-     * Һʵsetter
+     * ʹPopulatingInstantiationStrategyעԵbeanʵ޷ʱ淽ʽʵע
+     *
+     * @param beanDefinition bean
+     * @param beanName       bean
+     * @return beanʵ
      */
-    @SuppressWarnings("unused")
-    private Method findSetterMethod(Class<?> beanClass, String setterMethodName, Object value) {
-        // ֱӲҾȷƥsetter
-        if (value != null) {
-            try {
-                return beanClass.getMethod(setterMethodName, value.getClass());
-            } catch (NoSuchMethodException e) {
-                // ܵķ
+    protected Object createPopulatedBeanInstance(BeanDefinition beanDefinition, String beanName) {
+        ConvertedPropertyValues convertedPropertyValues = getConvertedPropertyValues(beanName, beanDefinition);
+        PropertyValue[] propertyValues = convertedPropertyValues.getPropertyValues();
+        Object[] resolvedValues = new Object[propertyValues.length];
+        try {
+            for (int i = 0; i < propertyValues.length; i++) {
+                resolvedValues[i] = resolveValueIfNecessary(convertedPropertyValues.getValue(i));
             }
+        } catch (Exception e) {
+            throw new BeanException("Error resolving property values for bean: " + beanName, e);
         }
 
-        // пܵsetter
-        Method[] methods = beanClass.getMethods();
-        for (Method method : methods) {
-            if (method.getName().equals(setterMethodName) && method.getParameterCount() == 1) {
-                Class<?> paramType = method.getParameterTypes()[0];
-                // ͼ
-                if (value == null || paramType.isInstance(value)) {
-                    return method;
-                }
+        Object bean = ((PopulatingInstantiationStrategy) getInstantiationStrategy()).instantiate(beanDefinition,
+                beanName, this, propertyValues, resolvedValues);
+        if (bean == null) {
+            bean = createBeanInstance(beanDefinition, beanName);
+            for (int i = 0; i < propertyValues.length; i++) {
+                setFieldValue(bean, propertyValues[i].getName(), resolvedValues[i]);
             }
         }
-
-        return null;
+        return bean;
     }
 
     /**
+     * ֵֶֶ֧͡
+     * setterֶμת໺CachedIntrospectionResultsУֻڵһעʱ
      * 
-     * ֶΣ֧ϲҼ̳в
+     * @param bean      Bean
+     * @param fieldName ֶ
+     * @param value     ֵֶ
      */
-    private java.lang.reflect.Field findField(Class<?> beanClass, String fieldName) {
-        Class<?> searchType = beanClass;
-        while (searchType != null && searchType != Object.class) {
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    protected void setFieldValue(Object bean, String fieldName, Object value) {
+        if (bean == null || fieldName == null) {
+            return;
+        }
+
+        if (bean instanceof Map) {
+            ((Map) bean).put(fieldName, value);
+        } else if (bean instanceof List) {
+            ((List) bean).add(value);
+        } else {
             try {
-                return searchType.getDeclaredField(fieldName);
-            } catch (NoSuchFieldException e) {
-                searchType = searchType.getSuperclass();
+                CachedIntrospectionResults.forClass(bean.getClass(), getBeanAccessorStrategy())
+                        .getPropertyInjector(fieldName).inject(bean, value);
+            } catch (Exception e) {
+                throw new BeanException("Error setting property " + fieldName, e);
             }
         }
-        return null;
     }
 
     /**
@@ -264,7 +408,7 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
      */
     protected Object initializeBean(String beanName, Object bean, BeanDefinition beanDefinition) throws Exception {
 
-        if (bean instanceof BeanFactoryAware) {
+        if (getLifecycleMetadata(beanDefinition).isBeanFactoryAware()) {
             // beanʵBeanFactoryAwareӿڣBeanFactory
             ((BeanFactoryAware) bean).setBeanFactory(this);
         }
@@ -294,11 +438,25 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
      */
     @Override
     public Object applyBeanPostProcessorsBeforeInitialization(Object bean, String beanName) throws BeanException {
+        return applyBeanPostProcessorsBeforeInitialization(getBeanPostProcessorChain(bean.getClass()), bean, beanName);
+    }
+
+    /**
+     * ʹøĴִBeanPostProcessorǰô
+     */
+    protected Object applyBeanPostProcessorsBeforeInitialization(BeanPostProcessorEntry[] chain, Object bean,
+            String beanName) throws BeanException {
 
         Object result = bean;
 
-        for (BeanPostProcessor processor : getBeanPostProcessors()) {
+        for (BeanPostProcessorEntry entry : chain) {
+            BeanPostProcessor processor = entry.getProcessor();
+            if (!processor.supportsBeanName(beanName)) {
+                continue;
+            }
+            long start = System.nanoTime();
             Object current = processor.postProcessBeforeInitialization(result, beanName);
+            entry.recordElapsed(System.nanoTime() - start);
             if (current == null) {
                 return result;
             }
@@ -317,11 +475,25 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
      */
     @Override
     public Object applyBeanPostProcessorsAfterInitialization(Object bean, String beanName) throws BeanException {
+        return applyBeanPostProcessorsAfterInitialization(getBeanPostProcessorChain(bean.getClass()), bean, beanName);
+    }
+
+    /**
+     * ʹøĴִBeanPostProcessorĺô
+     */
+    protected Object applyBeanPostProcessorsAfterInitialization(BeanPostProcessorEntry[] chain, Object bean,
+            String beanName) throws BeanException {
 
         Object result = bean;
 
-        for (BeanPostProcessor processor : getBeanPostProcessors()) {
+        for (BeanPostProcessorEntry entry : chain) {
+            BeanPostProcessor processor = entry.getProcessor();
+            if (!processor.supportsBeanName(beanName)) {
+                continue;
+            }
+            long start = System.nanoTime();
             Object current = processor.postProcessAfterInitialization(result, beanName);
+            entry.recordElapsed(System.nanoTime() - start);
             if (current == null) {
                 return result;
             }
@@ -340,20 +512,18 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
      * @throws BeanException if an error occurs during initialization
      */
     protected void invokeInitMethods(String beanName, Object bean, BeanDefinition beanDefinition) throws Exception {
-        if (bean instanceof InitializingBean) {
+        LifecycleMetadata lifecycleMetadata = getLifecycleMetadata(beanDefinition);
+        // ǰôܷذװbeanʵʱʵʶж
+        boolean initializingBean = bean.getClass() == lifecycleMetadata.getBeanClass()
+                ? lifecycleMetadata.isInitializingBean() : bean instanceof InitializingBean;
+        if (initializingBean) {
             // beanʵInitializingBeanӿڣafterPropertiesSet
             ((InitializingBean) bean).afterPropertiesSet();
         }
-        String initMethodName = beanDefinition.getInitMethodName();
-        if (initMethodName != null && !initMethodName.isEmpty()) {
-            // Զĳʼʹ÷
-            Method initMethod = beanDefinition.getBeanClass().getMethod(initMethodName);
-            // 鷽Ƿ
-            if (initMethod == null) {
-                throw new BeanException("No such init method: " + initMethodName + " for bean: " + beanName);
-            }
+        MethodInvoker initMethod = lifecycleMetadata.getInitMethod();
+        if (initMethod != null) {
+            // Զĳʼֱӵעʱ󶨵ĵ
             initMethod.invoke(bean);
-
         }
     }
 
@@ -374,4 +544,27 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
     public void setInstantiationStrategy(InstantiationStrategy instantiationStrategy) {
         this.instantiationStrategy = instantiationStrategy;
     }
-}
\ No newline at end of file
+
+    public BeanAccessorStrategy getBeanAccessorStrategy() {
+        return beanAccessorStrategy;
+    }
+
+    /**
+     * ע뼰ʼ/ٷķԣMethodHandleBeanAccessorStrategy.INSTANCE
+     *
+     * @param beanAccessorStrategy 
+     */
+    public void setBeanAccessorStrategy(BeanAccessorStrategy beanAccessorStrategy) {
+        this.beanAccessorStrategy = beanAccessorStrategy;
+    }
+
+    @Override
+    public ConversionService getConversionService() {
+        return conversionService;
+    }
+
+    @Override
+    public void setConversionService(ConversionService conversionService) {
+        this.conversionService = conversionService;
+    }
+}
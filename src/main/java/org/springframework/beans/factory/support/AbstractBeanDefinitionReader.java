@@ -1,9 +1,16 @@
 package org.springframework.beans.factory.support;
 
 import org.springframework.beans.BeanException;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.ResourceLoader;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
 public abstract class AbstractBeanDefinitionReader implements BeanDefinitionReader {
 
     // BeanDefinitionRegistry is an interface
@@ -12,6 +19,12 @@ public abstract class AbstractBeanDefinitionReader implements BeanDefinitionRead
     // ResourceLoader is an interface
     private ResourceLoader resourceLoader;
 
+    // 并行解析多个配置文件使用的执行器，为null时依次解析
+    private Executor parsingExecutor;
+
+    // 提前加载bean类使用的执行器，为null时bean类在第一次使用时加载
+    private Executor classPreloadExecutor;
+
     protected AbstractBeanDefinitionReader(BeanDefinitionRegistry registry) {
         this(registry, new DefaultResourceLoader());
     }
@@ -28,9 +41,93 @@ public abstract class AbstractBeanDefinitionReader implements BeanDefinitionRead
 
     @Override
     public void loadBeanDefinitions(String[] locations) throws BeanException {
+        Executor executor = this.parsingExecutor;
+        if (executor == null || locations.length < 2) {
+            for (String location : locations) {
+                loadBeanDefinitions(location);
+            }
+            return;
+        }
+        // 每个文件在工作线程中读取、解析并加载类，结果先放入各自的缓冲区
+        List<CompletableFuture<SimpleBeanDefinitionRegistry>> parsed = new ArrayList<>(locations.length);
         for (String location : locations) {
-            loadBeanDefinitions(location);
+            parsed.add(CompletableFuture.supplyAsync(() -> {
+                SimpleBeanDefinitionRegistry buffer = new SimpleBeanDefinitionRegistry();
+                createLocationReader(buffer).loadBeanDefinitions(location);
+                return buffer;
+            }, executor));
+        }
+        // 按配置文件的顺序合并，重名检测和出错时的结果与依次解析一致
+        for (CompletableFuture<SimpleBeanDefinitionRegistry> future : parsed) {
+            SimpleBeanDefinitionRegistry buffer;
+            try {
+                buffer = future.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new BeanException("Failed to load bean definitions", cause);
+            }
+            for (String beanName : buffer.getBeanDefinitionNames()) {
+                BeanDefinition beanDefinition = buffer.getBeanDefinition(beanName);
+                if (getRegistry().containsBeanDefinition(beanName)) {
+                    throw new BeanException("Duplicate bean definition found for bean name: " + beanName);
+                }
+                getRegistry().registerBeanDefinition(beanName, beanDefinition);
+            }
+        }
+    }
+
+    /**
+     * 创建把bean定义注册到给定缓冲区的读取器，用于并行解析，配置与当前读取器相同
+     *
+     * @param registry 缓冲区
+     * @return 读取器
+     */
+    protected abstract BeanDefinitionReader createLocationReader(BeanDefinitionRegistry registry);
+
+    /**
+     * 设置并行解析多个配置文件使用的执行器
+     *
+     * @param parsingExecutor 执行器，为null时依次解析
+     */
+    public void setParsingExecutor(Executor parsingExecutor) {
+        this.parsingExecutor = parsingExecutor;
+    }
+
+    public Executor getParsingExecutor() {
+        return parsingExecutor;
+    }
+
+    /**
+     * 设置提前加载bean类的执行器，解析过程中把每个bean类的加载提交到执行器，与后续解析同时进行
+     *
+     * @param classPreloadExecutor 执行器，为null时bean类在第一次实例化或按类型查找时加载
+     */
+    public void setClassPreloadExecutor(Executor classPreloadExecutor) {
+        this.classPreloadExecutor = classPreloadExecutor;
+    }
+
+    public Executor getClassPreloadExecutor() {
+        return classPreloadExecutor;
+    }
+
+    /**
+     * 在执行器中提前加载bean类，没有设置执行器或类已加载时不做任何事
+     */
+    protected void preloadBeanClass(BeanDefinition beanDefinition) {
+        Executor executor = this.classPreloadExecutor;
+        if (executor == null || beanDefinition.hasBeanClass() || beanDefinition.getBeanClassName() == null) {
+            return;
         }
+        executor.execute(() -> {
+            try {
+                beanDefinition.resolveBeanClass();
+            } catch (BeanException e) {
+                // 类不存在的错误在第一次使用bean时报告
+            }
+        });
     }
 
     public void setResourceLoader(ResourceLoader resourceLoader) {
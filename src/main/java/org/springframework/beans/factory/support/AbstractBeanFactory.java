@@ -1,16 +1,46 @@
 package org.springframework.beans.factory.support;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.springframework.beans.BeanException;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.beans.factory.config.Scope;
 
 public abstract class AbstractBeanFactory extends DefaultSingletonBeanRegistry implements ConfigurableBeanFactory {
 
-    private final List<BeanPostProcessor> beanPostProcessors = new ArrayList<>();
+    // 创建bean时会并发读取，注册通常只发生在refresh阶段
+    private final List<BeanPostProcessor> beanPostProcessors = new CopyOnWriteArrayList<>();
+
+    // 按bean类缓存的处理链，只包含supportsBeanType返回true的处理器，注册处理器时清空
+    private final Map<Class<?>, BeanPostProcessorChain> beanPostProcessorChains = new ConcurrentHashMap<>();
+
+    // 处理器列表的版本，注册处理器时递增，用于判断按旧处理器列表生成的缓存是否失效
+    private final AtomicInteger beanPostProcessorVersion = new AtomicInteger();
+
+    // 每个处理器的调用耗时统计
+    private final Map<BeanPostProcessor, BeanPostProcessorEntry> beanPostProcessorEntries = new ConcurrentHashMap<>();
+
+    // 自定义作用域，默认注册thread和scoped两个作用域
+    private final Map<String, Scope> scopes = new ConcurrentHashMap<>();
+
+    // 当前线程正在创建的原型bean，按进入顺序排列，用于发现原型bean之间的循环依赖
+    private final ThreadLocal<Set<String>> prototypesCurrentlyInCreation = new ThreadLocal<>();
+
+    public AbstractBeanFactory() {
+        registerScope(ThreadScope.SCOPE_NAME, new ThreadScope());
+        registerScope(TaskScope.SCOPE_NAME, new TaskScope());
+    }
 
     @Override
     public Object getBean(String name) {
@@ -20,7 +50,23 @@ public abstract class AbstractBeanFactory extends DefaultSingletonBeanRegistry i
         }
 
         BeanDefinition beanDefinition = getBeanDefinition(name);
-        return createBean(name, beanDefinition);
+        if (beanDefinition.isPrototype()) {
+            // 原型bean每次获取都创建新实例
+            return createBean(name, beanDefinition);
+        }
+        if (beanDefinition.isPooled()) {
+            throw new BeanException("Bean '" + name + "' is pooled: borrow instances through borrowBean");
+        }
+        if (!beanDefinition.isSingleton()) {
+            String scopeName = beanDefinition.getScope();
+            Scope scope = this.scopes.get(scopeName);
+            if (scope == null) {
+                throw new BeanException("No Scope registered for scope name '" + scopeName + "'");
+            }
+            return scope.get(name, () -> createBean(name, beanDefinition));
+        }
+        // 按beanName互斥创建，保证单例只被创建一次
+        return getSingleton(name, () -> createBean(name, beanDefinition));
     }
 
     @Override
@@ -32,15 +78,145 @@ public abstract class AbstractBeanFactory extends DefaultSingletonBeanRegistry i
 
     protected abstract BeanDefinition getBeanDefinition(String beanName) throws BeanException;
 
+    protected abstract boolean containsBeanDefinition(String beanName);
+
     @Override
     public void addBeanPostProcessor(BeanPostProcessor beanPostProcessor) {
-        // 有则覆盖
-        this.beanPostProcessors.remove(beanPostProcessor);
-        this.beanPostProcessors.add(beanPostProcessor);
+        synchronized (this.beanPostProcessors) {
+            // 有则覆盖
+            this.beanPostProcessors.remove(beanPostProcessor);
+            this.beanPostProcessors.add(beanPostProcessor);
+            // 先修改列表再递增版本，读到新版本的线程一定能看到新的处理器
+            this.beanPostProcessorVersion.incrementAndGet();
+            this.beanPostProcessorChains.clear();
+        }
+    }
+
+    @Override
+    public void registerScope(String scopeName, Scope scope) {
+        if (BeanDefinition.SCOPE_SINGLETON.equals(scopeName) || BeanDefinition.SCOPE_PROTOTYPE.equals(scopeName)
+                || BeanDefinition.SCOPE_POOLED.equals(scopeName)) {
+            throw new BeanException("Cannot replace built-in scope '" + scopeName + "'");
+        }
+        this.scopes.put(scopeName, scope);
+    }
+
+    @Override
+    public Scope getRegisteredScope(String scopeName) {
+        return this.scopes.get(scopeName);
+    }
+
+    /**
+     * 标记当前线程开始创建原型bean
+     *
+     * @param beanName bean名称
+     * @throws BeanException 如果当前线程已在创建该原型bean，即原型bean之间存在循环依赖
+     */
+    protected void beforePrototypeCreation(String beanName) {
+        Set<String> inCreation = this.prototypesCurrentlyInCreation.get();
+        if (inCreation == null) {
+            inCreation = new LinkedHashSet<>();
+            this.prototypesCurrentlyInCreation.set(inCreation);
+        }
+        if (!inCreation.add(beanName)) {
+            throw new BeanException("Requested prototype bean '" + beanName
+                    + "' is currently in creation: circular reference " + String.join(" -> ", inCreation) + " -> "
+                    + beanName);
+        }
+    }
+
+    /**
+     * 标记当前线程结束创建原型bean，与beforePrototypeCreation成对调用
+     */
+    protected void afterPrototypeCreation(String beanName) {
+        Set<String> inCreation = this.prototypesCurrentlyInCreation.get();
+        if (inCreation != null) {
+            inCreation.remove(beanName);
+            if (inCreation.isEmpty()) {
+                this.prototypesCurrentlyInCreation.remove();
+            }
+        }
+    }
+
+    protected int getBeanPostProcessorVersion() {
+        return this.beanPostProcessorVersion.get();
     }
 
     public List<BeanPostProcessor> getBeanPostProcessors() {
         return this.beanPostProcessors;
     }
 
+    /**
+     * 获取适用于该类bean的处理链，没有处理器关心该类型时返回空数组
+     */
+    protected BeanPostProcessorEntry[] getBeanPostProcessorChain(Class<?> beanClass) {
+        // 先读取版本再读取处理器列表，并发注册时生成的处理链只会被标记为旧版本，下次使用时重新生成
+        int version = this.beanPostProcessorVersion.get();
+        BeanPostProcessorChain chain = this.beanPostProcessorChains.get(beanClass);
+        if (chain == null || chain.version != version) {
+            List<BeanPostProcessorEntry> entries = new ArrayList<>();
+            for (BeanPostProcessor processor : this.beanPostProcessors) {
+                if (processor.supportsBeanType(beanClass)) {
+                    entries.add(this.beanPostProcessorEntries.computeIfAbsent(processor, BeanPostProcessorEntry::new));
+                }
+            }
+            chain = new BeanPostProcessorChain(version, entries.toArray(new BeanPostProcessorEntry[0]));
+            this.beanPostProcessorChains.put(beanClass, chain);
+        }
+        return chain.entries;
+    }
+
+    /**
+     * 返回每个BeanPostProcessor累计的处理耗时（纳秒），按注册顺序排列
+     */
+    public Map<BeanPostProcessor, Long> getBeanPostProcessorTimings() {
+        Map<BeanPostProcessor, Long> timings = new LinkedHashMap<>();
+        for (BeanPostProcessor processor : this.beanPostProcessors) {
+            BeanPostProcessorEntry entry = this.beanPostProcessorEntries.get(processor);
+            timings.put(processor, entry != null ? entry.getElapsedNanos() : 0L);
+        }
+        return timings;
+    }
+
+    /**
+     * 按某个版本的处理器列表生成的处理链
+     */
+    private static final class BeanPostProcessorChain {
+
+        final int version;
+
+        final BeanPostProcessorEntry[] entries;
+
+        BeanPostProcessorChain(int version, BeanPostProcessorEntry[] entries) {
+            this.version = version;
+            this.entries = entries;
+        }
+    }
+
+    /**
+     * 处理链中的一个处理器及其耗时统计
+     */
+    protected static final class BeanPostProcessorEntry {
+
+        private final BeanPostProcessor processor;
+
+        private final LongAdder elapsedNanos = new LongAdder();
+
+        BeanPostProcessorEntry(BeanPostProcessor processor) {
+            this.processor = processor;
+        }
+
+        public BeanPostProcessor getProcessor() {
+            return processor;
+        }
+
+        public void recordElapsed(long nanos) {
+            this.elapsedNanos.add(nanos);
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos.sum();
+        }
+    }
+
 }
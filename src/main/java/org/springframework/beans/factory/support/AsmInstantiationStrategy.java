@@ -0,0 +1,310 @@
+package org.springframework.beans.factory.support;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 使用ASM为每个bean类生成实例化器的策略。
+ * 生成的类直接通过new创建实例，并用invokevirtual调用setter注入所有属性，创建bean的开销与手写的工厂代码相当。
+ * 生成的类以隐藏类的形式定义在bean类所在的包中；bean类、setter或属性值无法由生成的代码处理时
+ * （例如需要直接设置字段），退回到SimpleInstantiationStrategy和常规的属性注入
+ */
+public class AsmInstantiationStrategy implements PopulatingInstantiationStrategy, Opcodes {
+
+    private static final String INSTANTIATOR_SUFFIX = "$$BeanInstantiator";
+
+    private static final String INSTANTIATOR_INTERNAL_NAME = Type.getInternalName(BeanInstantiator.class);
+
+    private static final String INSTANTIATE_DESCRIPTOR = Type.getMethodDescriptor(Type.getType(Object.class),
+            Type.getType(Object[].class));
+
+    private final InstantiationStrategy fallback = new SimpleInstantiationStrategy();
+
+    // 按bean类和setter列表缓存生成的实例化器，无法生成时缓存空值
+    private final ClassValue<Map<List<Method>, Optional<BeanInstantiator>>> instantiators = new ClassValue<Map<List<Method>, Optional<BeanInstantiator>>>() {
+        @Override
+        protected Map<List<Method>, Optional<BeanInstantiator>> computeValue(Class<?> beanClass) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    @Override
+    public Object instantiate(BeanDefinition beanDefinition, String beanName, BeanFactory owner) throws BeansException {
+        BeanInstantiator instantiator = getInstantiator(beanDefinition.getBeanClass(), new Method[0]);
+        if (instantiator == null) {
+            return this.fallback.instantiate(beanDefinition, beanName, owner);
+        }
+        return instantiator.instantiate(new Object[0]);
+    }
+
+    @Override
+    public Object instantiate(BeanDefinition beanDefinition, String beanName, BeanFactory owner,
+            PropertyValue[] propertyValues, Object[] resolvedValues) throws BeansException {
+        // 计划保存在bean定义的缓存中，随bean定义一起被替换或回收
+        BeanDefinitionCache cache = BeanDefinitionCache.forBeanDefinition(beanDefinition);
+        InstantiationPlan plan = cache.getInstantiationPlan();
+        if (plan == null || !plan.matches(beanDefinition.getBeanClass(), propertyValues, resolvedValues)) {
+            plan = createPlan(beanDefinition.getBeanClass(), propertyValues, resolvedValues);
+            cache.setInstantiationPlan(plan);
+        }
+        if (plan.instantiator == null) {
+            return null;
+        }
+        Function<Object, Object>[] converters = plan.converters;
+        Object[] arguments = new Object[resolvedValues.length];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = converters[i] != null ? converters[i].apply(resolvedValues[i]) : resolvedValues[i];
+        }
+        try {
+            return plan.instantiator.instantiate(arguments);
+        } catch (RuntimeException | Error e) {
+            throw new BeansException("Failed to instantiate [" + plan.beanClass.getName() + "]", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private InstantiationPlan createPlan(Class<?> beanClass, PropertyValue[] propertyValues, Object[] resolvedValues) {
+        Class<?>[] valueTypes = new Class<?>[resolvedValues.length];
+        Method[] setters = new Method[resolvedValues.length];
+        Function<Object, Object>[] converters = (Function<Object, Object>[]) new Function<?, ?>[resolvedValues.length];
+        CachedIntrospectionResults results = CachedIntrospectionResults.forClass(beanClass);
+        for (int i = 0; i < resolvedValues.length; i++) {
+            valueTypes[i] = resolvedValues[i] != null ? resolvedValues[i].getClass() : null;
+            Method setter = results.getPropertyInjector(propertyValues[i].getName()).resolveSetter(valueTypes[i]);
+            if (setter == null || !isAccessibleFrom(setter.getParameterTypes()[0], beanClass)) {
+                // 需要直接设置字段或参数类型不可访问，无法生成
+                return new InstantiationPlan(beanClass, propertyValues, valueTypes, converters, null);
+            }
+            Class<?> paramType = setter.getParameterTypes()[0];
+            setters[i] = setter;
+            converters[i] = CachedIntrospectionResults.isAssignable(paramType, valueTypes[i]) ? null
+                    : CachedIntrospectionResults.findConverter(valueTypes[i], paramType);
+        }
+        return new InstantiationPlan(beanClass, propertyValues, valueTypes, converters,
+                getInstantiator(beanClass, setters));
+    }
+
+    /**
+     * 获取bean类与setter列表对应的实例化器，必要时生成
+     *
+     * @return 实例化器，如果无法生成则返回null
+     */
+    private BeanInstantiator getInstantiator(Class<?> beanClass, Method[] setters) {
+        Map<List<Method>, Optional<BeanInstantiator>> cache = this.instantiators.get(beanClass);
+        List<Method> key = Arrays.asList(setters);
+        Optional<BeanInstantiator> instantiator = cache.get(key);
+        if (instantiator == null) {
+            instantiator = cache.computeIfAbsent(key,
+                    k -> Optional.ofNullable(generateInstantiator(beanClass, setters)));
+        }
+        return instantiator.orElse(null);
+    }
+
+    private BeanInstantiator generateInstantiator(Class<?> beanClass, Method[] setters) {
+        if (!isInstantiable(beanClass)) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(beanClass, MethodHandles.lookup());
+            MethodHandles.Lookup instantiatorLookup = lookup.defineHiddenClass(generateBytecode(beanClass, setters),
+                    true);
+            return (BeanInstantiator) instantiatorLookup
+                    .findConstructor(instantiatorLookup.lookupClass(), MethodType.methodType(void.class)).invoke();
+        } catch (Throwable e) {
+            // bean类所在的模块或类加载器不允许定义隐藏类，使用常规方式
+            return null;
+        }
+    }
+
+    /**
+     * 生成如下形式的类：
+     * 
+     * <pre>
+     * public Object instantiate(Object[] values) {
+     *     Bean bean = new Bean();
+     *     bean.setFoo((Foo) values[0]);
+     *     bean.setCount(((Integer) values[1]).intValue());
+     *     return bean;
+     * }
+     * </pre>
+     */
+    private static byte[] generateBytecode(Class<?> beanClass, Method[] setters) {
+        String beanInternalName = Type.getInternalName(beanClass);
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, beanInternalName + INSTANTIATOR_SUFFIX, null,
+                "java/lang/Object", new String[] { INSTANTIATOR_INTERNAL_NAME });
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "instantiate", INSTANTIATE_DESCRIPTOR, null, null);
+        mv.visitCode();
+        mv.visitTypeInsn(NEW, beanInternalName);
+        mv.visitInsn(DUP);
+        mv.visitMethodInsn(INVOKESPECIAL, beanInternalName, "<init>", "()V", false);
+        mv.visitVarInsn(ASTORE, 2);
+        for (int i = 0; i < setters.length; i++) {
+            Method setter = setters[i];
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitLdcInsn(i);
+            mv.visitInsn(AALOAD);
+            castOrUnbox(mv, Type.getType(setter.getParameterTypes()[0]));
+            mv.visitMethodInsn(INVOKEVIRTUAL, beanInternalName, setter.getName(), Type.getMethodDescriptor(setter),
+                    false);
+            // 丢弃链式setter的返回值
+            int returnSize = Type.getReturnType(setter).getSize();
+            if (returnSize == 1) {
+                mv.visitInsn(POP);
+            } else if (returnSize == 2) {
+                mv.visitInsn(POP2);
+            }
+        }
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static void castOrUnbox(MethodVisitor mv, Type type) {
+        switch (type.getSort()) {
+            case Type.BOOLEAN:
+                unbox(mv, "java/lang/Boolean", "booleanValue", type);
+                break;
+            case Type.CHAR:
+                unbox(mv, "java/lang/Character", "charValue", type);
+                break;
+            case Type.BYTE:
+                unbox(mv, "java/lang/Byte", "byteValue", type);
+                break;
+            case Type.SHORT:
+                unbox(mv, "java/lang/Short", "shortValue", type);
+                break;
+            case Type.INT:
+                unbox(mv, "java/lang/Integer", "intValue", type);
+                break;
+            case Type.FLOAT:
+                unbox(mv, "java/lang/Float", "floatValue", type);
+                break;
+            case Type.LONG:
+                unbox(mv, "java/lang/Long", "longValue", type);
+                break;
+            case Type.DOUBLE:
+                unbox(mv, "java/lang/Double", "doubleValue", type);
+                break;
+            default:
+                if (!"java/lang/Object".equals(type.getInternalName())) {
+                    mv.visitTypeInsn(CHECKCAST, type.getInternalName());
+                }
+        }
+    }
+
+    private static void unbox(MethodVisitor mv, String wrapper, String method, Type primitiveType) {
+        mv.visitTypeInsn(CHECKCAST, wrapper);
+        mv.visitMethodInsn(INVOKEVIRTUAL, wrapper, method, "()" + primitiveType.getDescriptor(), false);
+    }
+
+    /**
+     * 判断bean类能否由生成的代码直接new出来
+     */
+    private static boolean isInstantiable(Class<?> beanClass) {
+        int modifiers = beanClass.getModifiers();
+        if (beanClass.isInterface() || beanClass.isArray() || beanClass.isPrimitive() || beanClass.isHidden()
+                || Modifier.isAbstract(modifiers) || beanClass.getClassLoader() == null) {
+            return false;
+        }
+        // Map和List类型的bean需要按工厂的规则注入属性
+        if (Map.class.isAssignableFrom(beanClass) || List.class.isAssignableFrom(beanClass)) {
+            return false;
+        }
+        for (Constructor<?> constructor : beanClass.getDeclaredConstructors()) {
+            if (constructor.getParameterCount() == 0) {
+                return !Modifier.isPrivate(constructor.getModifiers());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 判断类型能否被生成在beanClass所在包中的代码访问
+     */
+    private static boolean isAccessibleFrom(Class<?> type, Class<?> beanClass) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive() || Modifier.isPublic(type.getModifiers()) && (type.getDeclaringClass() == null
+                || isAccessibleFrom(type.getDeclaringClass(), beanClass))) {
+            return true;
+        }
+        return type.getPackageName().equals(beanClass.getPackageName())
+                && type.getClassLoader() == beanClass.getClassLoader();
+    }
+
+    /**
+     * 某个bean定义的实例化计划：每个属性使用的setter、值的类型及转换器，保存在bean定义中
+     */
+    public static final class InstantiationPlan {
+
+        private final Class<?> beanClass;
+
+        private final PropertyValue[] propertyValues;
+
+        private final Class<?>[] valueTypes;
+
+        private final Function<Object, Object>[] converters;
+
+        // 为null表示无法生成
+        private final BeanInstantiator instantiator;
+
+        InstantiationPlan(Class<?> beanClass, PropertyValue[] propertyValues, Class<?>[] valueTypes,
+                Function<Object, Object>[] converters, BeanInstantiator instantiator) {
+            this.beanClass = beanClass;
+            this.propertyValues = propertyValues;
+            this.valueTypes = valueTypes;
+            this.converters = converters;
+            this.instantiator = instantiator;
+        }
+
+        /**
+         * 判断计划是否仍然适用：bean类、属性及值的类型都没有变化
+         */
+        boolean matches(Class<?> beanClass, PropertyValue[] propertyValues, Object[] resolvedValues) {
+            if (this.beanClass != beanClass || this.propertyValues.length != propertyValues.length) {
+                return false;
+            }
+            for (int i = 0; i < propertyValues.length; i++) {
+                Object value = resolvedValues[i];
+                if (this.propertyValues[i] != propertyValues[i]
+                        || this.valueTypes[i] != (value != null ? value.getClass() : null)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.springframework.beans.factory.support;
+
+import org.springframework.beans.factory.config.MethodInvoker;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * bean访问器的生成策略，将setter、字段以及初始化/销毁方法绑定为可直接调用的访问器。
+ * 生成的访问器按类缓存在CachedIntrospectionResults中，策略本身应当是无状态的，并在多个工厂之间复用同一个实例
+ */
+public interface BeanAccessorStrategy {
+
+    /**
+     * 为setter生成属性写入器
+     *
+     * @param setter 只有一个参数的setter方法
+     * @return 属性写入器
+     */
+    PropertyWriter createSetterWriter(Method setter);
+
+    /**
+     * 为字段生成属性写入器
+     *
+     * @param field 已设置为可访问的字段
+     * @return 属性写入器
+     */
+    PropertyWriter createFieldWriter(Field field);
+
+    /**
+     * 为无参方法生成调用器
+     *
+     * @param method 无参方法
+     * @return 方法调用器
+     */
+    MethodInvoker createMethodInvoker(Method method);
+}
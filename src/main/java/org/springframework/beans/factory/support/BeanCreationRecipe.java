@@ -0,0 +1,186 @@
+package org.springframework.beans.factory.support;
+
+import org.springframework.beans.BeanException;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanReference;
+import org.springframework.beans.factory.config.MethodInvoker;
+import org.springframework.beans.factory.support.AbstractBeanFactory.BeanPostProcessorEntry;
+import org.springframework.beans.factory.support.CachedIntrospectionResults.PropertyInjector;
+import org.springframework.core.convert.ConversionService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 预先编译好的bean创建步骤：实例化、属性注入、Aware回调、BeanPostProcessor处理链和初始化方法。
+ * 字面属性值在生成时已转换为属性类型。
+ * 原型bean第一次创建时生成并保存在bean定义中，之后每次创建直接按步骤执行，
+ * 不再查找bean定义、拼接名称或访问缓存映射。
+ * 注册BeanPostProcessor或更换实例化、访问器策略、类型转换服务后失效并重新生成；
+ * bean定义的属性在第一次创建后被修改时需要重新注册bean定义
+ */
+public final class BeanCreationRecipe {
+
+    private final AbstractAutowireCapableBeanFactory beanFactory;
+
+    private final String beanName;
+
+    private final BeanDefinition beanDefinition;
+
+    // 生成时的处理器版本和策略，用于判断是否失效
+    private final int beanPostProcessorVersion;
+
+    private final InstantiationStrategy instantiationStrategy;
+
+    private final BeanAccessorStrategy accessorStrategy;
+
+    private final LifecycleMetadata lifecycleMetadata;
+
+    private final Supplier<?> instanceSupplier;
+
+    private final ConversionService conversionService;
+
+    private final PropertyValue[] propertyValues;
+
+    // 已按属性类型转换好的字面值，可变的值每次创建时重新转换
+    private final ConvertedPropertyValues convertedPropertyValues;
+
+    // 与propertyValues一一对应，引用其他bean的属性为解析器，其他属性为null
+    private final ObjectFactory<?>[] referenceResolvers;
+
+    // 与propertyValues一一对应的注入器，bean为Map或List时为null，交由工厂处理
+    private final PropertyInjector[] injectors;
+
+    private final BeanPostProcessorEntry[] beanPostProcessorChain;
+
+    BeanCreationRecipe(AbstractAutowireCapableBeanFactory beanFactory, String beanName,
+            BeanDefinition beanDefinition) {
+        this.beanFactory = beanFactory;
+        this.beanName = beanName;
+        this.beanDefinition = beanDefinition;
+        this.beanPostProcessorVersion = beanFactory.getBeanPostProcessorVersion();
+        this.instantiationStrategy = beanFactory.getInstantiationStrategy();
+        this.accessorStrategy = beanFactory.getBeanAccessorStrategy();
+        this.lifecycleMetadata = beanFactory.getLifecycleMetadata(beanDefinition);
+        this.instanceSupplier = beanDefinition.getInstanceSupplier();
+
+        Class<?> beanClass = beanDefinition.getBeanClass();
+        this.conversionService = beanFactory.getConversionService();
+        ConvertedPropertyValues convertedPropertyValues = beanFactory.getConvertedPropertyValues(beanName,
+                beanDefinition);
+        this.propertyValues = convertedPropertyValues.getPropertyValues();
+        this.convertedPropertyValues = convertedPropertyValues;
+        this.referenceResolvers = new ObjectFactory<?>[propertyValues.length];
+        for (int i = 0; i < propertyValues.length; i++) {
+            Object value = propertyValues[i].getValue();
+            if (value instanceof BeanReference) {
+                referenceResolvers[i] = beanFactory
+                        .createReferenceResolver(((BeanReference) value).getBeanName());
+            }
+        }
+        if (Map.class.isAssignableFrom(beanClass) || List.class.isAssignableFrom(beanClass)) {
+            this.injectors = null;
+        } else {
+            CachedIntrospectionResults results = CachedIntrospectionResults.forClass(beanClass, accessorStrategy);
+            this.injectors = new PropertyInjector[propertyValues.length];
+            for (int i = 0; i < propertyValues.length; i++) {
+                injectors[i] = results.getPropertyInjector(propertyValues[i].getName());
+            }
+        }
+        this.beanPostProcessorChain = beanFactory.getBeanPostProcessorChain(beanClass);
+    }
+
+    /**
+     * 配方是否仍与工厂的配置和bean定义一致
+     */
+    boolean isValid() {
+        return beanPostProcessorVersion == beanFactory.getBeanPostProcessorVersion()
+                && instantiationStrategy == beanFactory.getInstantiationStrategy()
+                && accessorStrategy == beanFactory.getBeanAccessorStrategy()
+                && instanceSupplier == beanDefinition.getInstanceSupplier()
+                && conversionService == beanFactory.getConversionService()
+                && lifecycleMetadata.matches(beanDefinition, accessorStrategy);
+    }
+
+    /**
+     * 按配方创建一个新的bean实例
+     *
+     * @return bean实例
+     * @throws BeanException 如果创建失败
+     */
+    public Object create() throws BeanException {
+        Object bean;
+        try {
+            if (instanceSupplier != null) {
+                bean = instanceSupplier.get();
+            } else {
+                bean = instantiate(resolveValues());
+            }
+            initialize(bean);
+        } catch (Exception e) {
+            throw new BeanException("Instantiation of bean failed", e);
+        }
+        return bean;
+    }
+
+    private Object[] resolveValues() {
+        Object[] resolvedValues = new Object[propertyValues.length];
+        for (int i = 0; i < resolvedValues.length; i++) {
+            ObjectFactory<?> resolver = referenceResolvers[i];
+            resolvedValues[i] = resolver != null ? resolver.getObject() : convertedPropertyValues.getValue(i);
+        }
+        return resolvedValues;
+    }
+
+    private Object instantiate(Object[] values) throws Exception {
+        if (instantiationStrategy instanceof PopulatingInstantiationStrategy) {
+            Object bean = ((PopulatingInstantiationStrategy) instantiationStrategy).instantiate(beanDefinition,
+                    beanName, beanFactory, propertyValues, values);
+            if (bean != null) {
+                return bean;
+            }
+        }
+        Object bean = instantiationStrategy.instantiate(beanDefinition, beanName, beanFactory);
+        for (int i = 0; i < values.length; i++) {
+            if (injectors != null) {
+                injectors[i].inject(bean, values[i]);
+            } else {
+                beanFactory.setFieldValue(bean, propertyValues[i].getName(), values[i]);
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * 与AbstractAutowireCapableBeanFactory#initializeBean的步骤一致
+     */
+    private void initialize(Object bean) throws Exception {
+        if (lifecycleMetadata.isBeanFactoryAware()) {
+            ((BeanFactoryAware) bean).setBeanFactory(beanFactory);
+        }
+        Object wrappedBean = beanFactory.applyBeanPostProcessorsBeforeInitialization(beanPostProcessorChain, bean,
+                beanName);
+        try {
+            // 前置处理器可能返回包装对象或代理，此时按实际对象判断
+            if (wrappedBean == bean ? lifecycleMetadata.isInitializingBean() : wrappedBean instanceof InitializingBean) {
+                ((InitializingBean) wrappedBean).afterPropertiesSet();
+            }
+            MethodInvoker initMethod = lifecycleMetadata.getInitMethod();
+            if (initMethod != null) {
+                initMethod.invoke(wrappedBean);
+            }
+        } catch (Throwable e) {
+            throw new BeanException("Invocation of init method failed for bean '" + beanName + "'", e);
+        }
+        beanFactory.applyBeanPostProcessorsAfterInitialization(beanPostProcessorChain, bean, beanName);
+    }
+
+    public String getBeanName() {
+        return beanName;
+    }
+}
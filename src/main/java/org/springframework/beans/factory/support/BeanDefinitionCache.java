@@ -0,0 +1,75 @@
+package org.springframework.beans.factory.support;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+
+/**
+ * 工厂和实例化策略按bean定义缓存的解析结果，保存在bean定义的缓存槽中，随bean定义一起被替换或回收。
+ * 各项结果在使用前自行检查是否仍与bean定义一致，失效时重新生成
+ */
+public final class BeanDefinitionCache {
+
+    // 注册时解析的生命周期元数据
+    private volatile LifecycleMetadata lifecycleMetadata;
+    // 原型bean第一次创建时生成的创建配方
+    private volatile BeanCreationRecipe creationRecipe;
+    // 第一次创建时转换为属性类型的字面属性值
+    private volatile ConvertedPropertyValues convertedPropertyValues;
+    // AsmInstantiationStrategy第一次创建时生成的实例化计划
+    private volatile AsmInstantiationStrategy.InstantiationPlan instantiationPlan;
+
+    private BeanDefinitionCache() {
+    }
+
+    /**
+     * 获取bean定义的缓存，没有时创建
+     *
+     * @param beanDefinition bean定义
+     * @return 缓存
+     */
+    public static BeanDefinitionCache forBeanDefinition(BeanDefinition beanDefinition) {
+        Object cache = beanDefinition.getResolvedCache();
+        if (cache instanceof BeanDefinitionCache) {
+            return (BeanDefinitionCache) cache;
+        }
+        synchronized (beanDefinition) {
+            cache = beanDefinition.getResolvedCache();
+            if (!(cache instanceof BeanDefinitionCache)) {
+                cache = new BeanDefinitionCache();
+                beanDefinition.setResolvedCache(cache);
+            }
+            return (BeanDefinitionCache) cache;
+        }
+    }
+
+    public LifecycleMetadata getLifecycleMetadata() {
+        return lifecycleMetadata;
+    }
+
+    public void setLifecycleMetadata(LifecycleMetadata lifecycleMetadata) {
+        this.lifecycleMetadata = lifecycleMetadata;
+    }
+
+    public BeanCreationRecipe getCreationRecipe() {
+        return creationRecipe;
+    }
+
+    public void setCreationRecipe(BeanCreationRecipe creationRecipe) {
+        this.creationRecipe = creationRecipe;
+    }
+
+    public ConvertedPropertyValues getConvertedPropertyValues() {
+        return convertedPropertyValues;
+    }
+
+    public void setConvertedPropertyValues(ConvertedPropertyValues convertedPropertyValues) {
+        this.convertedPropertyValues = convertedPropertyValues;
+    }
+
+    public AsmInstantiationStrategy.InstantiationPlan getInstantiationPlan() {
+        return instantiationPlan;
+    }
+
+    public void setInstantiationPlan(AsmInstantiationStrategy.InstantiationPlan instantiationPlan) {
+        this.instantiationPlan = instantiationPlan;
+    }
+}
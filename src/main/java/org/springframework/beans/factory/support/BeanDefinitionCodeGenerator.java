@@ -0,0 +1,524 @@
+package org.springframework.beans.factory.support;
+
+import org.springframework.beans.BeanException;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanReference;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 构建时根据XML配置生成BeanDefinitionRegistrar的Java源码。
+ * 生成的代码用类字面量注册bean定义，并通过直接的new和setter调用创建、注入bean，
+ * 运行时不需要dom4j、Class.forName和反射注入。
+ * 无法直接生成代码的bean（非public的类、构造器或setter，只能通过字段注入的属性等）
+ * 仍然注册为普通的bean定义，由bean工厂按原来的方式创建
+ */
+public class BeanDefinitionCodeGenerator {
+
+    // 单个嵌套类中生成的语句数上限，避免超过方法字节码和常量池的限制
+    private static final int MAX_STATEMENTS_PER_CHUNK = 2000;
+
+    private final BeanDefinitionRegistry registry;
+
+    public BeanDefinitionCodeGenerator(BeanDefinitionRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * 构建时入口
+     *
+     * @param args 输出目录、生成类的全限定名，以及一个或多个配置文件位置
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            throw new IllegalArgumentException(
+                    "Usage: BeanDefinitionCodeGenerator <outputDir> <generatedClassName> <location>...");
+        }
+        SimpleBeanDefinitionRegistry registry = new SimpleBeanDefinitionRegistry();
+        XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(registry, new DefaultResourceLoader());
+        for (int i = 2; i < args.length; i++) {
+            reader.loadBeanDefinitions(args[i]);
+        }
+        new BeanDefinitionCodeGenerator(registry).writeTo(Paths.get(args[0]), args[1]);
+    }
+
+    /**
+     * 生成源码并写入输出目录下与包名对应的位置
+     *
+     * @return 生成的源文件
+     */
+    public Path writeTo(Path outputDir, String className) throws IOException {
+        int lastDot = className.lastIndexOf('.');
+        Path file = outputDir.resolve(className.replace('.', '/') + ".java");
+        if (lastDot > 0) {
+            Files.createDirectories(file.getParent());
+        } else {
+            Files.createDirectories(outputDir);
+        }
+        Files.write(file, generate(className).getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    /**
+     * 生成实现BeanDefinitionRegistrar的类的源码
+     *
+     * @param className 生成类的全限定名
+     * @return Java源码，非ASCII字符都已转义
+     * @throws BeanException 如果初始化或销毁方法不存在，或属性值无法转换
+     */
+    public String generate(String className) throws BeanException {
+        int lastDot = className.lastIndexOf('.');
+        String packageName = lastDot > 0 ? className.substring(0, lastDot) : null;
+        String simpleName = className.substring(lastDot + 1);
+
+        // 按注册顺序划分到多个嵌套类中
+        List<List<BeanCode>> chunks = new ArrayList<>();
+        List<BeanCode> current = new ArrayList<>();
+        int statements = 0;
+        for (String beanName : registry.getBeanDefinitionNames()) {
+            BeanCode bean = new BeanCode(beanName, registry.getBeanDefinition(beanName));
+            if (!current.isEmpty() && statements + bean.statementCount() > MAX_STATEMENTS_PER_CHUNK) {
+                chunks.add(current);
+                current = new ArrayList<>();
+                statements = 0;
+            }
+            current.add(bean);
+            statements += bean.statementCount();
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+
+        StringBuilder out = new StringBuilder();
+        if (packageName != null) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+        out.append("/**\n * Generated by ").append(BeanDefinitionCodeGenerator.class.getName())
+                .append(", do not edit.\n */\n");
+        out.append("public final class ").append(simpleName)
+                .append(" implements org.springframework.beans.factory.support.BeanDefinitionRegistrar {\n\n");
+        out.append("    @Override\n");
+        out.append("    public void registerBeanDefinitions(")
+                .append("org.springframework.beans.factory.support.DefaultListableBeanFactory beanFactory) {\n");
+        for (int i = 0; i < chunks.size(); i++) {
+            out.append("        Chunk").append(i).append(".register(beanFactory);\n");
+        }
+        out.append("    }\n");
+
+        // 所有bean共用一个实例工厂类和一个生命周期调用器类，按编号分派
+        out.append("\n    private static final class Instance implements java.util.function.Supplier<Object> {\n\n");
+        out.append("        private final int chunk;\n\n        private final int index;\n\n");
+        out.append("        private final org.springframework.beans.factory.support.DefaultListableBeanFactory beanFactory;\n\n");
+        out.append("        Instance(int chunk, int index, ")
+                .append("org.springframework.beans.factory.support.DefaultListableBeanFactory beanFactory) {\n");
+        out.append("            this.chunk = chunk;\n            this.index = index;\n");
+        out.append("            this.beanFactory = beanFactory;\n        }\n\n");
+        out.append("        @Override\n        public Object get() {\n            switch (chunk) {\n");
+        for (int i = 0; i < chunks.size(); i++) {
+            out.append("            case ").append(i).append(":\n                return Chunk").append(i)
+                    .append(".create(index, beanFactory);\n");
+        }
+        out.append("            default:\n                throw new IllegalStateException(\"Unknown chunk \" + chunk);\n");
+        out.append("            }\n        }\n    }\n");
+
+        out.append("\n    private static final class Lifecycle implements ")
+                .append("org.springframework.beans.factory.config.MethodInvoker {\n\n");
+        out.append("        private final int chunk;\n\n        private final int index;\n\n");
+        out.append("        Lifecycle(int chunk, int index) {\n            this.chunk = chunk;\n");
+        out.append("            this.index = index;\n        }\n\n");
+        out.append("        @Override\n        public void invoke(Object bean) throws Exception {\n");
+        out.append("            switch (chunk) {\n");
+        for (int i = 0; i < chunks.size(); i++) {
+            out.append("            case ").append(i).append(":\n                Chunk").append(i)
+                    .append(".invoke(index, bean);\n                return;\n");
+        }
+        out.append("            default:\n                throw new IllegalStateException(\"Unknown chunk \" + chunk);\n");
+        out.append("            }\n        }\n    }\n");
+
+        for (int i = 0; i < chunks.size(); i++) {
+            writeChunk(out, i, chunks.get(i));
+        }
+        out.append("}\n");
+        return escapeNonAscii(out.toString());
+    }
+
+    private void writeChunk(StringBuilder out, int chunkIndex, List<BeanCode> beans) {
+        out.append("\n    private static final class Chunk").append(chunkIndex).append(" {\n\n");
+
+        out.append("        static void register(")
+                .append("org.springframework.beans.factory.support.DefaultListableBeanFactory beanFactory) {\n");
+        out.append("            org.springframework.beans.factory.config.BeanDefinition beanDefinition;\n");
+        for (int i = 0; i < beans.size(); i++) {
+            beans.get(i).writeRegistration(out, chunkIndex, i);
+        }
+        out.append("        }\n\n");
+
+        out.append("        static Object create(int index, ")
+                .append("org.springframework.beans.factory.support.DefaultListableBeanFactory beanFactory) {\n");
+        out.append("            switch (index) {\n");
+        for (int i = 0; i < beans.size(); i++) {
+            beans.get(i).writeInstantiation(out, i);
+        }
+        out.append("            default:\n                throw new IllegalStateException(\"Unknown bean \" + index);\n");
+        out.append("            }\n        }\n\n");
+
+        // 初始化方法编号为2*index，销毁方法为2*index+1
+        out.append("        static void invoke(int index, Object bean) throws Exception {\n");
+        out.append("            switch (index) {\n");
+        for (int i = 0; i < beans.size(); i++) {
+            beans.get(i).writeLifecycle(out, i);
+        }
+        out.append("            default:\n                throw new IllegalStateException(\"Unknown method \" + index);\n");
+        out.append("            }\n        }\n");
+
+        out.append("    }\n");
+    }
+
+    /**
+     * 单个bean的生成信息
+     */
+    private final class BeanCode {
+
+        private final String beanName;
+
+        private final BeanDefinition beanDefinition;
+
+        private final Class<?> beanClass;
+
+        // 每个属性对应的setter，全部可以生成直接调用时不为null
+        private final Method[] setters;
+
+        private final Method initMethod;
+
+        private final Method destroyMethod;
+
+        BeanCode(String beanName, BeanDefinition beanDefinition) {
+            this.beanName = beanName;
+            this.beanDefinition = beanDefinition;
+            this.beanClass = beanDefinition.getBeanClass();
+            this.setters = resolveSetters();
+            this.initMethod = resolveLifecycleMethod(beanDefinition.getInitMethodName(), "init");
+            this.destroyMethod = resolveLifecycleMethod(beanDefinition.getDestroyMethodName(), "destroy");
+        }
+
+        private Method[] resolveSetters() {
+            if (!isAccessible(beanClass) || beanClass.isInterface() || Modifier.isAbstract(beanClass.getModifiers())
+                    || !hasPublicNoArgConstructor(beanClass)) {
+                return null;
+            }
+            PropertyValue[] propertyValues = beanDefinition.getPropertyValues().getPropertyValues();
+            Method[] result = new Method[propertyValues.length];
+            CachedIntrospectionResults results = CachedIntrospectionResults.forClass(beanClass);
+            for (int i = 0; i < propertyValues.length; i++) {
+                Class<?> valueType = valueType(propertyValues[i].getValue());
+                if (valueType == void.class) {
+                    return null;
+                }
+                Method setter = results.getPropertyInjector(propertyValues[i].getName()).resolveSetter(valueType);
+                if (setter == null || !Modifier.isPublic(setter.getDeclaringClass().getModifiers())
+                        || !isAccessible(setter.getParameterTypes()[0])) {
+                    return null;
+                }
+                result[i] = setter;
+            }
+            return result;
+        }
+
+        /**
+         * 运行时属性值的类型，引用的bean不在当前配置中时返回void.class
+         */
+        private Class<?> valueType(Object value) {
+            if (value instanceof BeanReference) {
+                String refName = ((BeanReference) value).getBeanName();
+                return registry.containsBeanDefinition(refName) ? registry.getBeanDefinition(refName).getBeanClass()
+                        : void.class;
+            }
+            return value != null ? value.getClass() : null;
+        }
+
+        private Method resolveLifecycleMethod(String methodName, String kind) {
+            if (methodName == null || methodName.isEmpty()) {
+                return null;
+            }
+            for (Method method : beanClass.getMethods()) {
+                if (method.getName().equals(methodName) && method.getParameterCount() == 0) {
+                    return Modifier.isPublic(method.getDeclaringClass().getModifiers()) ? method : null;
+                }
+            }
+            throw new BeanException("Could not find an " + kind + " method named '" + methodName
+                    + "' on bean class [" + beanClass.getName() + "]");
+        }
+
+        boolean isGenerated() {
+            return setters != null;
+        }
+
+        int statementCount() {
+            return 4 + beanDefinition.getPropertyValues().getPropertyValues().length;
+        }
+
+        void writeRegistration(StringBuilder out, int chunkIndex, int index) {
+            if (isGenerated()) {
+                out.append("            beanDefinition = new org.springframework.beans.factory.config.BeanDefinition(")
+                        .append(typeName(beanClass)).append(".class);\n");
+                out.append("            beanDefinition.setInstanceSupplier(new Instance(").append(chunkIndex)
+                        .append(", ").append(index).append(", beanFactory));\n");
+            } else {
+                out.append("            beanDefinition = new org.springframework.beans.factory.config.BeanDefinition(")
+                        .append(classExpression(beanClass)).append(");\n");
+                for (PropertyValue pv : beanDefinition.getPropertyValues().getPropertyValues()) {
+                    out.append("            beanDefinition.getPropertyValues().addPropertyValue(")
+                            .append("new org.springframework.beans.PropertyValue(").append(stringLiteral(pv.getName()))
+                            .append(", ");
+                    if (pv.getValue() instanceof BeanReference) {
+                        out.append("new org.springframework.beans.factory.config.BeanReference(")
+                                .append(stringLiteral(((BeanReference) pv.getValue()).getBeanName())).append(")");
+                    } else if (pv.getValue() == null) {
+                        out.append("null");
+                    } else {
+                        out.append(stringLiteral((String) pv.getValue()));
+                    }
+                    out.append("));\n");
+                }
+            }
+            String initMethodName = beanDefinition.getInitMethodName();
+            if (initMethodName != null && !initMethodName.isEmpty()) {
+                out.append("            beanDefinition.setInitMethodName(").append(stringLiteral(initMethodName))
+                        .append(");\n");
+                if (isGenerated() && initMethod != null) {
+                    out.append("            beanDefinition.setInitMethodInvoker(new Lifecycle(").append(chunkIndex)
+                            .append(", ").append(index * 2).append("));\n");
+                }
+            }
+            String destroyMethodName = beanDefinition.getDestroyMethodName();
+            if (destroyMethodName != null && !destroyMethodName.isEmpty()) {
+                out.append("            beanDefinition.setDestroyMethodName(").append(stringLiteral(destroyMethodName))
+                        .append(");\n");
+                if (isGenerated() && destroyMethod != null) {
+                    out.append("            beanDefinition.setDestroyMethodInvoker(new Lifecycle(").append(chunkIndex)
+                            .append(", ").append(index * 2 + 1).append("));\n");
+                }
+            }
+            if (!beanDefinition.isSingleton()) {
+                out.append("            beanDefinition.setScope(").append(stringLiteral(beanDefinition.getScope()))
+                        .append(");\n");
+            }
+            if (beanDefinition.isPooled()) {
+                out.append("            beanDefinition.setPoolSize(").append(beanDefinition.getPoolSize())
+                        .append(");\n");
+                out.append("            beanDefinition.setPoolIdleTimeout(").append(beanDefinition.getPoolIdleTimeout())
+                        .append("L);\n");
+            }
+            if (beanDefinition.getLazyInit() != null) {
+                out.append("            beanDefinition.setLazyInit(Boolean.").append(beanDefinition.isLazyInit() ? "TRUE" : "FALSE")
+                        .append(");\n");
+            }
+            if (beanDefinition.isAsyncInit()) {
+                out.append("            beanDefinition.setAsyncInit(true);\n");
+            }
+            out.append("            beanFactory.registerBeanDefinition(").append(stringLiteral(beanName))
+                    .append(", beanDefinition);\n");
+        }
+
+        void writeInstantiation(StringBuilder out, int index) {
+            if (!isGenerated()) {
+                return;
+            }
+            String type = typeName(beanClass);
+            out.append("            case ").append(index).append(": {\n");
+            out.append("                ").append(type).append(" bean = new ").append(type).append("();\n");
+            PropertyValue[] propertyValues = beanDefinition.getPropertyValues().getPropertyValues();
+            for (int i = 0; i < propertyValues.length; i++) {
+                Class<?> paramType = setters[i].getParameterTypes()[0];
+                out.append("                bean.").append(setters[i].getName()).append("(")
+                        .append(valueExpression(propertyValues[i], paramType)).append(");\n");
+            }
+            out.append("                return bean;\n            }\n");
+        }
+
+        void writeLifecycle(StringBuilder out, int index) {
+            if (!isGenerated()) {
+                return;
+            }
+            String type = typeName(beanClass);
+            if (initMethod != null) {
+                out.append("            case ").append(index * 2).append(":\n");
+                out.append("                ((").append(type).append(") bean).").append(initMethod.getName())
+                        .append("();\n                return;\n");
+            }
+            if (destroyMethod != null) {
+                out.append("            case ").append(index * 2 + 1).append(":\n");
+                out.append("                ((").append(type).append(") bean).").append(destroyMethod.getName())
+                        .append("();\n                return;\n");
+            }
+        }
+
+        private String valueExpression(PropertyValue propertyValue, Class<?> paramType) {
+            Object value = propertyValue.getValue();
+            if (value instanceof BeanReference) {
+                // 引用延迟初始化的bean时注入延迟解析代理
+                return "(" + typeName(paramType) + ") beanFactory.resolveBeanReference("
+                        + stringLiteral(((BeanReference) value).getBeanName()) + ")";
+            }
+            if (value == null) {
+                return "(" + typeName(paramType) + ") null";
+            }
+            if (paramType.isAssignableFrom(String.class)) {
+                return stringLiteral((String) value);
+            }
+            // 构建时完成转换，转换失败说明配置有误
+            Function<Object, Object> converter = CachedIntrospectionResults.findConverter(String.class, paramType);
+            if (converter == null) {
+                throw new BeanException("No converter found for property '" + propertyValue.getName()
+                        + "' of bean '" + beanName + "' to " + paramType.getName());
+            }
+            Object converted;
+            try {
+                converted = converter.apply(value);
+            } catch (RuntimeException e) {
+                throw new BeanException("Failed to convert value of property '" + propertyValue.getName()
+                        + "' of bean '" + beanName + "' to " + paramType.getName(), e);
+            }
+            if (converted == null) {
+                return "(" + typeName(paramType) + ") null";
+            }
+            if (converted instanceof Enum) {
+                return typeName(((Enum<?>) converted).getDeclaringClass()) + "." + ((Enum<?>) converted).name();
+            }
+            if (paramType.isPrimitive() || isPrimitiveWrapper(converted)) {
+                return primitiveLiteral(converted);
+            }
+            // 无法写成字面量的值在运行时由bean工厂的转换服务转换
+            return "beanFactory.getConversionService().convert(" + stringLiteral((String) value) + ", "
+                    + typeName(paramType) + ".class)";
+        }
+    }
+
+    private static boolean hasPublicNoArgConstructor(Class<?> type) {
+        try {
+            return Modifier.isPublic(type.getConstructor().getModifiers());
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 生成的类位于其他包中，只能直接引用public的顶层类或public静态嵌套类
+     */
+    private static boolean isAccessible(Class<?> type) {
+        if (type.isPrimitive()) {
+            return true;
+        }
+        if (type.isArray()) {
+            return isAccessible(type.getComponentType());
+        }
+        if (!Modifier.isPublic(type.getModifiers()) || type.getCanonicalName() == null) {
+            return false;
+        }
+        return type.getEnclosingClass() == null || isAccessible(type.getEnclosingClass());
+    }
+
+    private static String typeName(Class<?> type) {
+        return type.getCanonicalName();
+    }
+
+    private static String classExpression(Class<?> type) {
+        if (isAccessible(type)) {
+            return typeName(type) + ".class";
+        }
+        // 无法用类字面量引用的类型只能在运行时加载
+        return "org.springframework.beans.factory.support.BeanDefinitionCodeGenerator.loadClass("
+                + stringLiteral(type.getName()) + ")";
+    }
+
+    /**
+     * 供生成的代码加载无法通过类字面量引用的bean类
+     */
+    public static Class<?> loadClass(String className) {
+        try {
+            return Class.forName(className, false, Thread.currentThread().getContextClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new BeanException("Cannot find class [" + className + "]", e);
+        }
+    }
+
+    private static boolean isPrimitiveWrapper(Object value) {
+        return value instanceof Integer || value instanceof Boolean || value instanceof Long || value instanceof Short
+                || value instanceof Byte || value instanceof Character || value instanceof Double
+                || value instanceof Float;
+    }
+
+    private static String primitiveLiteral(Object value) {
+        if (value instanceof Integer || value instanceof Boolean) {
+            return value.toString();
+        } else if (value instanceof Long) {
+            return value + "L";
+        } else if (value instanceof Short) {
+            return "(short) " + value;
+        } else if (value instanceof Byte) {
+            return "(byte) " + value;
+        } else if (value instanceof Character) {
+            return "'" + escape((Character) value) + "'";
+        } else if (value instanceof Double) {
+            double d = (Double) value;
+            return Double.isFinite(d) ? Double.toString(d)
+                    : "Double.longBitsToDouble(0x" + Long.toHexString(Double.doubleToRawLongBits(d)) + "L)";
+        } else if (value instanceof Float) {
+            float f = (Float) value;
+            return Float.isFinite(f) ? f + "F"
+                    : "Float.intBitsToFloat(0x" + Integer.toHexString(Float.floatToRawIntBits(f)) + ")";
+        }
+        throw new IllegalArgumentException("Unsupported literal type " + value.getClass().getName());
+    }
+
+    private static String stringLiteral(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            sb.append(escape(value.charAt(i)));
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String escape(char c) {
+        switch (c) {
+        case '"':
+            return "\\\"";
+        case '\'':
+            return "\\'";
+        case '\\':
+            return "\\\\";
+        case '\n':
+            return "\\n";
+        case '\r':
+            return "\\r";
+        case '\t':
+            return "\\t";
+        default:
+            return c < 0x20 || c > 0x7e ? String.format("\\u%04x", (int) c) : String.valueOf(c);
+        }
+    }
+
+    /**
+     * 生成的源码只包含ASCII字符，与构建使用的源码编码无关
+     */
+    private static String escapeNonAscii(String source) {
+        StringBuilder sb = new StringBuilder(source.length());
+        for (int i = 0; i < source.length(); i++) {
+            char c = source.charAt(i);
+            sb.append(c > 0x7e ? String.format("\\u%04x", (int) c) : String.valueOf(c));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,14 @@
+package org.springframework.beans.factory.support;
+
+/**
+ * 以代码方式注册bean定义，例如由BeanDefinitionCodeGenerator在构建时根据XML配置生成的类
+ */
+public interface BeanDefinitionRegistrar {
+
+    /**
+     * 向bean工厂注册bean定义
+     *
+     * @param beanFactory 接收bean定义的工厂，生成的实例工厂也通过它获取引用的bean
+     */
+    void registerBeanDefinitions(DefaultListableBeanFactory beanFactory);
+}
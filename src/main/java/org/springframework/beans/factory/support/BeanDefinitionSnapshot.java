@@ -0,0 +1,343 @@
+package org.springframework.beans.factory.support;
+
+import org.springframework.beans.BeanException;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanReference;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 已解析bean定义的二进制快照，按配置文件位置保存，并以文件内容的SHA-256作为键。
+ * 配置文件内容未变化时直接从快照还原bean定义，跳过XML解析；
+ * 属性值只支持字符串和BeanReference，与XML配置能表达的值一致
+ */
+public class BeanDefinitionSnapshot {
+
+    private static final int MAGIC = 0x4D534244;
+
+    private static final int VERSION = 5;
+
+    private static final byte NULL_VALUE = 0;
+
+    private static final byte STRING_VALUE = 1;
+
+    private static final byte REFERENCE_VALUE = 2;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private volatile boolean modified;
+
+    /**
+     * 从文件读取快照，文件不存在或格式不兼容时返回空快照
+     *
+     * @param path 快照文件
+     * @return 快照
+     */
+    public static BeanDefinitionSnapshot read(Path path) {
+        BeanDefinitionSnapshot snapshot = new BeanDefinitionSnapshot();
+        // 快照中相同的属性字面值只保留一份
+        Map<String, String> literalValues = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return snapshot;
+            }
+            int entryCount = in.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                String location = in.readUTF();
+                byte[] contentHash = new byte[in.readUnsignedByte()];
+                in.readFully(contentHash);
+                int beanCount = in.readInt();
+                List<StoredBeanDefinition> beanDefinitions = new ArrayList<>(beanCount);
+                for (int j = 0; j < beanCount; j++) {
+                    beanDefinitions.add(StoredBeanDefinition.read(in, literalValues));
+                }
+                snapshot.entries.put(location, new Entry(contentHash, beanDefinitions));
+            }
+        } catch (NoSuchFileException e) {
+            // 第一次启动，没有快照
+        } catch (IOException | RuntimeException e) {
+            // 快照损坏时丢弃，重新解析配置文件
+            snapshot.entries.clear();
+            snapshot.modified = true;
+        }
+        return snapshot;
+    }
+
+    /**
+     * 把快照写入文件，先写临时文件再替换，避免留下不完整的快照
+     *
+     * @param path 快照文件
+     */
+    public void write(Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(entries.size());
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeByte(entry.getValue().contentHash.length);
+                    out.write(entry.getValue().contentHash);
+                    out.writeInt(entry.getValue().beanDefinitions.size());
+                    for (StoredBeanDefinition beanDefinition : entry.getValue().beanDefinitions) {
+                        beanDefinition.write(out);
+                    }
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        modified = false;
+    }
+
+    /**
+     * 计算配置文件内容的哈希值
+     */
+    public static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 如果快照中该位置的内容哈希一致，把保存的bean定义还原到registry中
+     *
+     * @param location    配置文件位置
+     * @param contentHash 配置文件内容的哈希值
+     * @param registry    接收bean定义的注册表
+     * @param classLoader 加载bean类的类加载器
+     * @return 是否命中快照
+     */
+    public boolean restore(String location, byte[] contentHash, BeanDefinitionRegistry registry,
+            ClassLoader classLoader) {
+        Entry entry = entries.get(location);
+        if (entry == null || !Arrays.equals(entry.contentHash, contentHash)) {
+            return false;
+        }
+        for (StoredBeanDefinition stored : entry.beanDefinitions) {
+            registry.registerBeanDefinition(stored.beanName, stored.toBeanDefinition(classLoader));
+        }
+        return true;
+    }
+
+    /**
+     * 保存某个配置文件解析出的bean定义
+     *
+     * @param location    配置文件位置
+     * @param contentHash 配置文件内容的哈希值
+     * @param registry    只包含该配置文件bean定义的注册表
+     * @return 是否保存成功，bean定义包含无法序列化的属性值时不保存
+     */
+    public boolean store(String location, byte[] contentHash, BeanDefinitionRegistry registry) {
+        List<StoredBeanDefinition> beanDefinitions = new ArrayList<>();
+        for (String beanName : registry.getBeanDefinitionNames()) {
+            StoredBeanDefinition stored = StoredBeanDefinition.from(beanName, registry.getBeanDefinition(beanName));
+            if (stored == null) {
+                entries.remove(location);
+                return false;
+            }
+            beanDefinitions.add(stored);
+        }
+        entries.put(location, new Entry(contentHash.clone(), beanDefinitions));
+        modified = true;
+        return true;
+    }
+
+    /**
+     * 只保留给定位置的快照，去掉不再使用的配置文件
+     */
+    public void retainLocations(Collection<String> locations) {
+        if (entries.keySet().retainAll(locations)) {
+            modified = true;
+        }
+    }
+
+    public boolean containsLocation(String location) {
+        return entries.containsKey(location);
+    }
+
+    /**
+     * 自读取或上次写入后是否有变化
+     */
+    public boolean isModified() {
+        return modified;
+    }
+
+    private static final class Entry {
+
+        private final byte[] contentHash;
+
+        private final List<StoredBeanDefinition> beanDefinitions;
+
+        Entry(byte[] contentHash, List<StoredBeanDefinition> beanDefinitions) {
+            this.contentHash = contentHash;
+            this.beanDefinitions = beanDefinitions;
+        }
+    }
+
+    /**
+     * 以类名保存的bean定义
+     */
+    private static final class StoredBeanDefinition {
+
+        private final String beanName;
+
+        private final String className;
+
+        private final String initMethodName;
+
+        private final String destroyMethodName;
+
+        private final String scope;
+
+        private final Boolean lazyInit;
+
+        private final boolean asyncInit;
+
+        private final int poolSize;
+
+        private final long poolIdleTimeout;
+
+        private final PropertyValue[] propertyValues;
+
+        StoredBeanDefinition(String beanName, String className, String initMethodName, String destroyMethodName,
+                String scope, Boolean lazyInit, boolean asyncInit, int poolSize, long poolIdleTimeout,
+                PropertyValue[] propertyValues) {
+            this.beanName = beanName;
+            this.className = className;
+            this.initMethodName = initMethodName;
+            this.destroyMethodName = destroyMethodName;
+            this.scope = scope;
+            this.lazyInit = lazyInit;
+            this.asyncInit = asyncInit;
+            this.poolSize = poolSize;
+            this.poolIdleTimeout = poolIdleTimeout;
+            this.propertyValues = propertyValues;
+        }
+
+        static StoredBeanDefinition from(String beanName, BeanDefinition beanDefinition) {
+            PropertyValue[] propertyValues = beanDefinition.getPropertyValues().getPropertyValues();
+            for (PropertyValue propertyValue : propertyValues) {
+                Object value = propertyValue.getValue();
+                if (value != null && !(value instanceof String) && !(value instanceof BeanReference)) {
+                    return null;
+                }
+            }
+            return new StoredBeanDefinition(beanName, beanDefinition.getBeanClassName(),
+                    beanDefinition.getInitMethodName(), beanDefinition.getDestroyMethodName(),
+                    beanDefinition.getScope(), beanDefinition.getLazyInit(), beanDefinition.isAsyncInit(),
+                    beanDefinition.getPoolSize(), beanDefinition.getPoolIdleTimeout(), propertyValues);
+        }
+
+        BeanDefinition toBeanDefinition(ClassLoader classLoader) {
+            // 与解析XML时一样只保存类名，bean类在第一次使用时加载
+            BeanDefinition beanDefinition = new BeanDefinition(className, classLoader);
+            beanDefinition.setInitMethodName(initMethodName);
+            beanDefinition.setDestroyMethodName(destroyMethodName);
+            beanDefinition.setScope(scope);
+            beanDefinition.setLazyInit(lazyInit);
+            beanDefinition.setAsyncInit(asyncInit);
+            beanDefinition.setPoolSize(poolSize);
+            beanDefinition.setPoolIdleTimeout(poolIdleTimeout);
+            for (PropertyValue propertyValue : propertyValues) {
+                beanDefinition.getPropertyValues().addPropertyValue(propertyValue);
+            }
+            return beanDefinition;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeUTF(beanName);
+            out.writeUTF(className);
+            writeNullable(out, initMethodName);
+            writeNullable(out, destroyMethodName);
+            out.writeUTF(scope);
+            // 0表示未声明，1表示false，2表示true
+            out.writeByte(lazyInit == null ? 0 : lazyInit ? 2 : 1);
+            out.writeBoolean(asyncInit);
+            out.writeInt(poolSize);
+            out.writeLong(poolIdleTimeout);
+            out.writeInt(propertyValues.length);
+            for (PropertyValue propertyValue : propertyValues) {
+                out.writeUTF(propertyValue.getName());
+                Object value = propertyValue.getValue();
+                if (value == null) {
+                    out.writeByte(NULL_VALUE);
+                } else if (value instanceof BeanReference) {
+                    out.writeByte(REFERENCE_VALUE);
+                    out.writeUTF(((BeanReference) value).getBeanName());
+                } else {
+                    out.writeByte(STRING_VALUE);
+                    out.writeUTF((String) value);
+                }
+            }
+        }
+
+        static StoredBeanDefinition read(DataInputStream in, Map<String, String> literalValues) throws IOException {
+            String beanName = in.readUTF();
+            String className = in.readUTF();
+            String initMethodName = readNullable(in);
+            String destroyMethodName = readNullable(in);
+            String scope = in.readUTF();
+            byte lazyInitFlag = in.readByte();
+            Boolean lazyInit = lazyInitFlag == 0 ? null : lazyInitFlag == 2;
+            boolean asyncInit = in.readBoolean();
+            int poolSize = in.readInt();
+            long poolIdleTimeout = in.readLong();
+            PropertyValue[] propertyValues = new PropertyValue[in.readInt()];
+            for (int i = 0; i < propertyValues.length; i++) {
+                String name = in.readUTF();
+                byte type = in.readByte();
+                Object value;
+                if (type == NULL_VALUE) {
+                    value = null;
+                } else if (type == REFERENCE_VALUE) {
+                    value = new BeanReference(in.readUTF());
+                } else if (type == STRING_VALUE) {
+                    value = literalValues.computeIfAbsent(in.readUTF(), literal -> literal);
+                } else {
+                    throw new BeanException("Unknown property value type " + type + " in bean definition snapshot");
+                }
+                propertyValues[i] = new PropertyValue(name, value);
+            }
+            return new StoredBeanDefinition(beanName, className, initMethodName, destroyMethodName, scope, lazyInit,
+                    asyncInit, poolSize, poolIdleTimeout, propertyValues);
+        }
+
+        private static void writeNullable(DataOutputStream out, String value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeUTF(value);
+            }
+        }
+
+        private static String readNullable(DataInputStream in) throws IOException {
+            return in.readBoolean() ? in.readUTF() : null;
+        }
+    }
+}
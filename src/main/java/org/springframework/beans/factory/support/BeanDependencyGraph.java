@@ -0,0 +1,74 @@
+package org.springframework.beans.factory.support;
+
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanReference;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 根据BeanDefinition中的BeanReference属性构建的bean依赖图（有向图，边从bean指向它依赖的bean）
+ */
+public class BeanDependencyGraph {
+
+    private final Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+
+    /**
+     * 为注册表中的所有BeanDefinition构建依赖图
+     *
+     * @param registry BeanDefinition注册表
+     * @return 依赖图
+     */
+    public static BeanDependencyGraph build(BeanDefinitionRegistry registry) {
+        BeanDependencyGraph graph = new BeanDependencyGraph();
+        for (String beanName : registry.getBeanDefinitionNames()) {
+            graph.addBean(beanName, registry.getBeanDefinition(beanName));
+        }
+        return graph;
+    }
+
+    /**
+     * 将一个bean及其通过BeanReference声明的依赖加入依赖图
+     *
+     * @param beanName       bean名称
+     * @param beanDefinition bean定义
+     */
+    public void addBean(String beanName, BeanDefinition beanDefinition) {
+        Set<String> dependsOn = new LinkedHashSet<>();
+        for (PropertyValue propertyValue : beanDefinition.getPropertyValues().getPropertyValues()) {
+            if (propertyValue.getValue() instanceof BeanReference) {
+                dependsOn.add(((BeanReference) propertyValue.getValue()).getBeanName());
+            }
+        }
+        this.dependencies.put(beanName, dependsOn);
+    }
+
+    /**
+     * 返回图中所有bean的名称，顺序与加入顺序一致
+     */
+    public Set<String> getBeanNames() {
+        return Collections.unmodifiableSet(this.dependencies.keySet());
+    }
+
+    /**
+     * 返回指定bean直接依赖的bean名称，依赖的bean不一定在图中
+     *
+     * @param beanName bean名称
+     * @return 依赖的bean名称
+     */
+    public Set<String> getDependencies(String beanName) {
+        Set<String> dependsOn = this.dependencies.get(beanName);
+        return dependsOn != null ? Collections.unmodifiableSet(dependsOn) : Collections.emptySet();
+    }
+
+    /**
+     * 判断bean是否在依赖图中
+     */
+    public boolean containsBean(String beanName) {
+        return this.dependencies.containsKey(beanName);
+    }
+}
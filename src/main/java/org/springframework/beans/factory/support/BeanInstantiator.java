@@ -0,0 +1,15 @@
+package org.springframework.beans.factory.support;
+
+/**
+ * 由AsmInstantiationStrategy为每个bean类生成的实例化器，直接通过new创建实例并调用setter注入属性
+ */
+public interface BeanInstantiator {
+
+    /**
+     * 创建bean实例并注入属性
+     *
+     * @param propertyValues 已转换为setter参数类型的属性值，顺序与生成时的setter一致
+     * @return bean实例
+     */
+    Object instantiate(Object[] propertyValues);
+}
@@ -0,0 +1,276 @@
+package org.springframework.beans.factory.support;
+
+import org.springframework.beans.BeanException;
+import org.springframework.beans.factory.PooledBean;
+import org.springframework.beans.factory.config.BeanDefinition;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 池化bean的有界对象池。
+ * 空闲实例保存在AtomicReferenceArray的槽位中，借出和归还都通过CAS完成，不使用锁；
+ * 实例数达到上限后借出方自旋等待其他持有者归还，超时后失败。
+ * 实例通过工厂的doCreateBean按完整的生命周期创建，被回收或对象池关闭时通过DisposableBeanAdapter执行销毁方法
+ */
+public final class BeanPool {
+
+    // 自旋多少次后改为短暂休眠
+    private static final int SPINS_BEFORE_PARK = 64;
+
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final AbstractAutowireCapableBeanFactory beanFactory;
+
+    private final String beanName;
+
+    private final BeanDefinition beanDefinition;
+
+    // 空闲实例，长度即实例数上限；实例总数不超过槽位数，归还时总能找到空槽位
+    private final AtomicReferenceArray<PooledInstance> idleInstances;
+
+    // 已创建且未销毁的实例数，包括空闲和借出的实例
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final long idleTimeoutNanos;
+
+    private volatile boolean closed;
+
+    BeanPool(AbstractAutowireCapableBeanFactory beanFactory, String beanName, BeanDefinition beanDefinition) {
+        this.beanFactory = beanFactory;
+        this.beanName = beanName;
+        this.beanDefinition = beanDefinition;
+        this.idleInstances = new AtomicReferenceArray<>(beanDefinition.getPoolSize());
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(beanDefinition.getPoolIdleTimeout());
+    }
+
+    /**
+     * 借出一个实例：优先复用空闲实例，没有空闲实例且未达到上限时创建新实例，否则等待其他持有者归还
+     *
+     * @param requiredType 要求的bean类型
+     * @param timeout      等待的最长时间，为0时不等待
+     * @param unit         时间单位
+     * @return 借出的实例
+     * @throws BeanException 如果对象池已关闭、创建失败或等待超时
+     */
+    public <T> PooledBean<T> borrow(Class<T> requiredType, long timeout, TimeUnit unit) throws BeanException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int start = ThreadLocalRandom.current().nextInt(idleInstances.length());
+        for (int spins = 0;; spins++) {
+            if (closed) {
+                throw new BeanException("Pool of bean '" + beanName + "' has been closed");
+            }
+            PooledInstance instance = pollIdle(start);
+            if (instance == null) {
+                instance = tryCreate();
+            }
+            if (instance != null) {
+                if (!requiredType.isInstance(instance.bean)) {
+                    release(instance);
+                    throw new BeanException("Bean named '" + beanName + "' is expected to be of type '"
+                            + requiredType.getName() + "' but was actually of type '"
+                            + instance.bean.getClass().getName() + "'");
+                }
+                return new Lease<>(instance, requiredType.cast(instance.bean));
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new BeanException("Timed out waiting for pooled bean '" + beanName + "': all "
+                        + idleInstances.length() + " instances are in use");
+            }
+            if (spins < SPINS_BEFORE_PARK) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(Math.min(remaining, PARK_NANOS));
+            }
+        }
+    }
+
+    private PooledInstance pollIdle(int start) {
+        int length = idleInstances.length();
+        for (int i = 0; i < length; i++) {
+            int index = (start + i) % length;
+            PooledInstance instance = idleInstances.get(index);
+            if (instance != null && idleInstances.compareAndSet(index, instance, null)) {
+                return instance;
+            }
+        }
+        return null;
+    }
+
+    private PooledInstance tryCreate() {
+        int current;
+        do {
+            current = size.get();
+            if (current >= idleInstances.length()) {
+                return null;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        try {
+            return new PooledInstance(beanFactory.doCreateBean(beanName, beanDefinition));
+        } catch (RuntimeException e) {
+            size.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void release(PooledInstance instance) {
+        if (closed) {
+            discard(instance);
+            return;
+        }
+        instance.idleSince = System.nanoTime();
+        offer(instance);
+        // 归还与关闭并发时，关闭方可能已经清空过槽位
+        if (closed) {
+            destroyIdle(Long.MIN_VALUE);
+        }
+    }
+
+    private void offer(PooledInstance instance) {
+        int length = idleInstances.length();
+        for (int i = ThreadLocalRandom.current().nextInt(length);; i = (i + 1) % length) {
+            if (idleInstances.get(i) == null && idleInstances.compareAndSet(i, null, instance)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 销毁空闲时间超过bean定义中设置的空闲超时的实例，未设置空闲超时时不做任何处理。
+     * 对象池不会自行回收，需要由调用方按需定期调用
+     *
+     * @return 被回收的实例数
+     */
+    public int evictIdle() {
+        if (idleTimeoutNanos == 0) {
+            return 0;
+        }
+        return destroyIdle(System.nanoTime() - idleTimeoutNanos);
+    }
+
+    /**
+     * 关闭对象池并销毁所有空闲实例，借出中的实例在归还时销毁
+     */
+    public void close() {
+        closed = true;
+        destroyIdle(Long.MIN_VALUE);
+    }
+
+    // 销毁在idleBefore之前开始空闲的实例，Long.MIN_VALUE表示全部销毁
+    private int destroyIdle(long idleBefore) {
+        int evicted = 0;
+        boolean reoffered = false;
+        BeansException failure = null;
+        for (int i = 0; i < idleInstances.length(); i++) {
+            PooledInstance instance = idleInstances.get(i);
+            if (instance == null || (idleBefore != Long.MIN_VALUE && instance.idleSince - idleBefore > 0)) {
+                continue;
+            }
+            if (idleInstances.compareAndSet(i, instance, null)) {
+                // 检查之后实例可能被借出并归还到同一个槽位，以取出后的归还时间为准，未过期的放回
+                if (idleBefore != Long.MIN_VALUE && instance.idleSince - idleBefore > 0) {
+                    offer(instance);
+                    reoffered = true;
+                    continue;
+                }
+                evicted++;
+                try {
+                    discard(instance);
+                } catch (BeansException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        // 放回与关闭并发时，与归还一样由放回方销毁
+        if (reoffered && closed) {
+            evicted += destroyIdle(Long.MIN_VALUE);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return evicted;
+    }
+
+    private void discard(PooledInstance instance) {
+        size.decrementAndGet();
+        LifecycleMetadata lifecycleMetadata = beanFactory.getLifecycleMetadata(beanDefinition);
+        if (lifecycleMetadata.requiresDestruction()) {
+            try {
+                new DisposableBeanAdapter(instance.bean, beanName, lifecycleMetadata).destroy();
+            } catch (Exception e) {
+                throw new BeansException("Destroy method on bean with name '" + beanName + "' threw an exception", e);
+            }
+        }
+    }
+
+    /**
+     * 已创建且未销毁的实例数
+     */
+    public int size() {
+        return size.get();
+    }
+
+    public String getBeanName() {
+        return beanName;
+    }
+
+    private static final class PooledInstance {
+
+        private final Object bean;
+
+        // 最近一次归还的时间
+        private volatile long idleSince;
+
+        PooledInstance(Object bean) {
+            this.bean = bean;
+        }
+    }
+
+    private final class Lease<T> implements PooledBean<T> {
+
+        private final PooledInstance instance;
+
+        private final T bean;
+
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        Lease(PooledInstance instance, T bean) {
+            this.instance = instance;
+            this.bean = bean;
+        }
+
+        @Override
+        public T getObject() {
+            if (returned.get()) {
+                throw new BeanException("Pooled bean '" + beanName + "' has already been returned");
+            }
+            return bean;
+        }
+
+        @Override
+        public String getBeanName() {
+            return beanName;
+        }
+
+        @Override
+        public void close() {
+            if (returned.compareAndSet(false, true)) {
+                release(instance);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "PooledBean[" + beanName + "]";
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package org.springframework.beans.factory.support;
+
+import org.springframework.beans.BeanException;
+import org.springframework.beans.factory.config.MethodInvoker;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 按类缓存的属性注入元数据。
+ * 每个属性的setter/字段以及值的类型转换器只在第一次注入时解析一次，之后的注入直接调用缓存的访问器，
+ * 不再拼接setter名称、扫描方法列表，也不依赖异常做流程控制。
+ * 访问器由BeanAccessorStrategy生成，同一个类在不同策略下分别缓存。
+ */
+public final class CachedIntrospectionResults {
+
+    private static final ClassValue<Map<BeanAccessorStrategy, CachedIntrospectionResults>> CACHE = new ClassValue<Map<BeanAccessorStrategy, CachedIntrospectionResults>>() {
+        @Override
+        protected Map<BeanAccessorStrategy, CachedIntrospectionResults> computeValue(Class<?> beanClass) {
+            return new ConcurrentHashMap<>(2);
+        }
+    };
+
+    private final Class<?> beanClass;
+
+    private final BeanAccessorStrategy accessorStrategy;
+
+    private final Map<String, PropertyInjector> propertyInjectors = new ConcurrentHashMap<>();
+
+    // 无参方法的调用器，不存在的方法以NO_SUCH_METHOD占位
+    private final Map<String, MethodInvoker> methodInvokers = new ConcurrentHashMap<>();
+
+    private static final MethodInvoker NO_SUCH_METHOD = bean -> {
+        throw new IllegalStateException("No such method");
+    };
+
+    private CachedIntrospectionResults(Class<?> beanClass, BeanAccessorStrategy accessorStrategy) {
+        this.beanClass = beanClass;
+        this.accessorStrategy = accessorStrategy;
+    }
+
+    /**
+     * 获取指定类使用反射访问器的注入元数据
+     *
+     * @param beanClass bean的类型
+     * @return 该类的注入元数据
+     */
+    public static CachedIntrospectionResults forClass(Class<?> beanClass) {
+        return forClass(beanClass, ReflectiveBeanAccessorStrategy.INSTANCE);
+    }
+
+    /**
+     * 获取指定类在给定访问器策略下的注入元数据
+     *
+     * @param beanClass        bean的类型
+     * @param accessorStrategy 访问器策略
+     * @return 该类的注入元数据
+     */
+    public static CachedIntrospectionResults forClass(Class<?> beanClass, BeanAccessorStrategy accessorStrategy) {
+        Map<BeanAccessorStrategy, CachedIntrospectionResults> results = CACHE.get(beanClass);
+        CachedIntrospectionResults result = results.get(accessorStrategy);
+        if (result == null) {
+            result = results.computeIfAbsent(accessorStrategy,
+                    strategy -> new CachedIntrospectionResults(beanClass, strategy));
+        }
+        return result;
+    }
+
+    public Class<?> getBeanClass() {
+        return beanClass;
+    }
+
+    /**
+     * 获取指定属性的注入器
+     *
+     * @param propertyName 属性名
+     * @return 属性注入器
+     */
+    public PropertyInjector getPropertyInjector(String propertyName) {
+        PropertyInjector injector = this.propertyInjectors.get(propertyName);
+        if (injector == null) {
+            injector = this.propertyInjectors.computeIfAbsent(propertyName,
+                    name -> new PropertyInjector(this.beanClass, name, this.accessorStrategy));
+        }
+        return injector;
+    }
+
+    /**
+     * 获取指定名称的public无参方法的调用器，用于执行初始化方法和销毁方法
+     *
+     * @param methodName 方法名
+     * @return 方法调用器，如果不存在该方法则返回null
+     */
+    public MethodInvoker getMethodInvoker(String methodName) {
+        MethodInvoker invoker = this.methodInvokers.get(methodName);
+        if (invoker == null) {
+            invoker = this.methodInvokers.computeIfAbsent(methodName, this::createMethodInvoker);
+        }
+        return invoker != NO_SUCH_METHOD ? invoker : null;
+    }
+
+    private MethodInvoker createMethodInvoker(String methodName) {
+        for (Method method : this.beanClass.getMethods()) {
+            if (method.getName().equals(methodName) && method.getParameterCount() == 0) {
+                method.trySetAccessible();
+                return this.accessorStrategy.createMethodInvoker(method);
+            }
+        }
+        return NO_SUCH_METHOD;
+    }
+
+    /**
+     * 单个属性的注入器，按值的类型缓存解析出的setter/字段及类型转换器
+     */
+    public static final class PropertyInjector {
+
+        private final Class<?> beanClass;
+
+        private final String propertyName;
+
+        private final BeanAccessorStrategy accessorStrategy;
+
+        // 名称匹配且只有一个参数的public setter
+        private final Method[] setters;
+
+        // 同名字段，支持向上查找继承层次，不存在或无法访问时为null
+        private final Field field;
+
+        // 上一次使用的注入方式，属性值的类型通常不变
+        private volatile Injection lastInjection;
+
+        private final Map<Class<?>, Injection> injections = new ConcurrentHashMap<>();
+
+        PropertyInjector(Class<?> beanClass, String propertyName, BeanAccessorStrategy accessorStrategy) {
+            this.beanClass = beanClass;
+            this.propertyName = propertyName;
+            this.accessorStrategy = accessorStrategy;
+            this.setters = findSetters(beanClass, propertyName);
+            this.field = findField(beanClass, propertyName);
+        }
+
+        public String getPropertyName() {
+            return propertyName;
+        }
+
+        /**
+         * 属性的声明类型：唯一setter的参数类型，没有setter时为字段类型
+         *
+         * @return 属性类型，存在多个重载的setter或属性不存在时返回null
+         */
+        public Class<?> getPropertyType() {
+            if (this.setters.length == 1) {
+                return this.setters[0].getParameterTypes()[0];
+            }
+            if (this.setters.length == 0 && this.field != null) {
+                return this.field.getType();
+            }
+            return null;
+        }
+
+        /**
+         * 将值注入到bean中
+         *
+         * @param bean  bean实例
+         * @param value 属性值
+         * @throws Exception 如果setter或字段赋值失败
+         */
+        public void inject(Object bean, Object value) throws Exception {
+            Class<?> valueType = value != null ? value.getClass() : null;
+            Injection injection = this.lastInjection;
+            if (injection == null || injection.valueType != valueType) {
+                injection = resolveInjection(valueType);
+                this.lastInjection = injection;
+            }
+            injection.apply(bean, value);
+        }
+
+        private Injection resolveInjection(Class<?> valueType) {
+            // ConcurrentHashMap不支持null键，null值使用void.class占位
+            Class<?> key = valueType != null ? valueType : void.class;
+            Injection injection = this.injections.get(key);
+            if (injection == null) {
+                injection = this.injections.computeIfAbsent(key, k -> createInjection(valueType));
+            }
+            return injection;
+        }
+
+        private Injection createInjection(Class<?> valueType) {
+            Method setter = resolveSetter(valueType);
+            if (setter != null) {
+                Class<?> paramType = setter.getParameterTypes()[0];
+                Function<Object, Object> converter = isAssignable(paramType, valueType) ? null
+                        : findConverter(valueType, paramType);
+                return new Injection(valueType, this.accessorStrategy.createSetterWriter(setter), converter);
+            }
+            // 没有合适的setter时直接设置字段
+            if (this.field != null) {
+                if (isAssignable(this.field.getType(), valueType)) {
+                    return new Injection(valueType, this.accessorStrategy.createFieldWriter(this.field), null);
+                }
+                Function<Object, Object> converter = findConverter(valueType, this.field.getType());
+                if (converter != null) {
+                    return new Injection(valueType, this.accessorStrategy.createFieldWriter(this.field), converter);
+                }
+            }
+            throw new BeanException("No writable property '" + this.propertyName + "' of type "
+                    + (valueType != null ? valueType.getName() : "null") + " on " + this.beanClass.getName());
+        }
+
+        /**
+         * 查找适用于给定值类型的setter：优先参数类型完全一致的，其次参数类型兼容的，最后是值可以转换为参数类型的
+         *
+         * @param valueType 值的类型，null表示值为null
+         * @return setter，如果没有合适的setter则返回null
+         */
+        Method resolveSetter(Class<?> valueType) {
+            for (Method setter : this.setters) {
+                if (setter.getParameterTypes()[0] == valueType) {
+                    return setter;
+                }
+            }
+            for (Method setter : this.setters) {
+                if (isAssignable(setter.getParameterTypes()[0], valueType)) {
+                    return setter;
+                }
+            }
+            for (Method setter : this.setters) {
+                if (findConverter(valueType, setter.getParameterTypes()[0]) != null) {
+                    return setter;
+                }
+            }
+            return null;
+        }
+
+        private static Method[] findSetters(Class<?> beanClass, String propertyName) {
+            if (propertyName.isEmpty()) {
+                return new Method[0];
+            }
+            String setterMethodName = "set" + Character.toUpperCase(propertyName.charAt(0)) + propertyName.substring(1);
+            List<Method> setters = new ArrayList<>();
+            for (Method method : beanClass.getMethods()) {
+                if (method.getName().equals(setterMethodName) && method.getParameterCount() == 1
+                        && !Modifier.isStatic(method.getModifiers())) {
+                    // 非public类上的public方法需要设置可访问
+                    method.trySetAccessible();
+                    setters.add(method);
+                }
+            }
+            return setters.toArray(new Method[0]);
+        }
+
+        private static Field findField(Class<?> beanClass, String fieldName) {
+            Class<?> searchType = beanClass;
+            while (searchType != null && searchType != Object.class) {
+                for (Field candidate : searchType.getDeclaredFields()) {
+                    if (candidate.getName().equals(fieldName) && !Modifier.isStatic(candidate.getModifiers())) {
+                        return candidate.trySetAccessible() ? candidate : null;
+                    }
+                }
+                searchType = searchType.getSuperclass();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 针对某一种值类型解析好的注入方式
+     */
+    private static final class Injection {
+
+        private final Class<?> valueType;
+
+        private final PropertyWriter writer;
+
+        private final Function<Object, Object> converter;
+
+        Injection(Class<?> valueType, PropertyWriter writer, Function<Object, Object> converter) {
+            this.valueType = valueType;
+            this.writer = writer;
+            this.converter = converter;
+        }
+
+        void apply(Object bean, Object value) throws Exception {
+            this.writer.write(bean, this.converter != null ? this.converter.apply(value) : value);
+        }
+    }
+
+    /**
+     * 判断值的类型能否直接赋给目标类型，基本类型按包装类型判断，null只能赋给非基本类型
+     */
+    static boolean isAssignable(Class<?> targetType, Class<?> valueType) {
+        if (valueType == null) {
+            return !targetType.isPrimitive();
+        }
+        return wrap(targetType).isAssignableFrom(valueType);
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) {
+            return Integer.class;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == double.class) {
+            return Double.class;
+        } else if (type == float.class) {
+            return Float.class;
+        } else if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == short.class) {
+            return Short.class;
+        } else if (type == byte.class) {
+            return Byte.class;
+        } else if (type == char.class) {
+            return Character.class;
+        }
+        return Void.class;
+    }
+
+    /**
+     * 查找将值从源类型转换为目标类型的转换器，使用共享的DefaultConversionService。
+     * bean工厂配置的ConversionService在注入前已经完成字面值的转换，这里只处理其余的值
+     *
+     * @param sourceType 值的类型，null表示值为null
+     * @param targetType 目标类型
+     * @return 转换器，如果无法转换则返回null
+     */
+    static Function<Object, Object> findConverter(Class<?> sourceType, Class<?> targetType) {
+        if (sourceType == null) {
+            return null;
+        }
+        Converter<Object, Object> converter = DefaultConversionService.getSharedInstance().getConverter(sourceType,
+                targetType);
+        return converter != null ? converter::convert : null;
+    }
+}
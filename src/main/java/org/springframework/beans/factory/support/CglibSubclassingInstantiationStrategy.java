@@ -1,16 +1,198 @@
 package org.springframework.beans.factory.support;
 
+import net.sf.cglib.proxy.Callback;
+import net.sf.cglib.proxy.CallbackFilter;
+import net.sf.cglib.proxy.Dispatcher;
 import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.FixedValue;
+import net.sf.cglib.proxy.InvocationHandler;
+import net.sf.cglib.proxy.LazyLoader;
+import net.sf.cglib.proxy.MethodInterceptor;
 import net.sf.cglib.proxy.NoOp;
+import net.sf.cglib.proxy.ProxyRefDispatcher;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.config.BeanDefinition;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ͨCGLIBʵbeanĲԡ
+ * ɵఴbeanͻصϻ棬֮ʵֱӵûĹپEnhancer
+ */
 public class CglibSubclassingInstantiationStrategy implements InstantiationStrategy {
+
+    // ɵвʵ乲ظռԪռ
+    private static final ClassValue<Map<CallbackKey, SubclassFactory>> subclassFactories = new ClassValue<Map<CallbackKey, SubclassFactory>>() {
+        @Override
+        protected Map<CallbackKey, SubclassFactory> computeValue(Class<?> beanClass) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final Class<?>[] CALLBACK_TYPES = { NoOp.class, MethodInterceptor.class,
+            InvocationHandler.class, LazyLoader.class, Dispatcher.class, ProxyRefDispatcher.class, FixedValue.class };
+
+    private static final AtomicLong generatedClassCount = new AtomicLong();
+
+    private static final AtomicLong cachedInstantiationCount = new AtomicLong();
+
+    private final Callback[] callbacks;
+
+    private final CallbackFilter callbackFilter;
+
+    private final CallbackKey callbackKey;
+
+    public CglibSubclassingInstantiationStrategy() {
+        this(new Callback[] { NoOp.INSTANCE }, null);
+    }
+
+    /**
+     * @param callbacks      ɵʹõĻصһʱṩcallbackFilter
+     * @param callbackFilter ΪѡصĹΪһ֣ҪȷʵequalshashCode
+     */
+    public CglibSubclassingInstantiationStrategy(Callback[] callbacks, CallbackFilter callbackFilter) {
+        if (callbacks == null || callbacks.length == 0) {
+            throw new IllegalArgumentException("At least one callback is required");
+        }
+        if (callbacks.length > 1 && callbackFilter == null) {
+            throw new IllegalArgumentException("Multiple callbacks require a CallbackFilter");
+        }
+        this.callbacks = callbacks.clone();
+        this.callbackFilter = callbackFilter;
+        Class<?>[] callbackTypes = new Class<?>[callbacks.length];
+        for (int i = 0; i < callbacks.length; i++) {
+            callbackTypes[i] = determineCallbackType(callbacks[i]);
+        }
+        this.callbackKey = new CallbackKey(Arrays.asList(callbackTypes), callbackFilter);
+    }
+
     @Override
     public Object instantiate(BeanDefinition beanDefinition, String beanName, BeanFactory owner) throws BeansException {
+        Class<?> beanClass = beanDefinition.getBeanClass();
+        Map<CallbackKey, SubclassFactory> factories = subclassFactories.get(beanClass);
+        SubclassFactory factory = factories.get(this.callbackKey);
+        if (factory == null) {
+            factory = factories.computeIfAbsent(this.callbackKey, key -> generateSubclass(beanClass));
+        } else {
+            cachedInstantiationCount.incrementAndGet();
+        }
+        try {
+            return factory.newInstance(this.callbacks);
+        } catch (Throwable e) {
+            throw new BeansException("Failed to instantiate [" + beanClass.getName() + "]", e);
+        }
+    }
+
+    /**
+     * ɵֻصʵֵCGLIBӿڣͬʵĻصԹͬһ
+     */
+    private static Class<?> determineCallbackType(Callback callback) {
+        for (Class<?> callbackType : CALLBACK_TYPES) {
+            if (callbackType.isInstance(callback)) {
+                return callbackType;
+            }
+        }
+        throw new IllegalArgumentException("Unknown callback type " + callback.getClass().getName());
+    }
+
+    private SubclassFactory generateSubclass(Class<?> beanClass) {
         Enhancer enhancer = new Enhancer();
-        enhancer.setSuperclass(beanDefinition.getBeanClass());
-        enhancer.setCallback(NoOp.INSTANCE); // УṩһյĻصʵ
-        return enhancer.create();
+        enhancer.setSuperclass(beanClass);
+        enhancer.setCallbackTypes(this.callbackKey.callbackTypes.toArray(new Class<?>[0]));
+        if (this.callbackFilter != null) {
+            enhancer.setCallbackFilter(this.callbackFilter);
+        }
+        try {
+            Class<?> subclass = enhancer.createClass();
+            generatedClassCount.incrementAndGet();
+            return new SubclassFactory(subclass);
+        } catch (Exception e) {
+            throw new BeansException("Failed to generate CGLIB subclass of [" + beanClass.getName() + "]", e);
+        }
+    }
+
+    /**
+     * ͨEnhancerɵ
+     */
+    public static long getGeneratedClassCount() {
+        return generatedClassCount.get();
+    }
+
+    /**
+     * ѻɵʵ
+     */
+    public static long getCachedInstantiationCount() {
+        return cachedInstantiationCount.get();
+    }
+
+    /**
+     * ༰乹صͨCGLIB$SET_THREAD_CALLBACKSڹڼ󶨵ʵ
+     */
+    private static final class SubclassFactory {
+
+        private final MethodHandle constructor;
+
+        private final MethodHandle threadCallbacksSetter;
+
+        SubclassFactory(Class<?> subclass) throws ReflectiveOperationException {
+            Constructor<?> declaredConstructor = subclass.getDeclaredConstructor();
+            declaredConstructor.setAccessible(true);
+            Method setter = subclass.getDeclaredMethod("CGLIB$SET_THREAD_CALLBACKS", Callback[].class);
+            setter.setAccessible(true);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            this.constructor = lookup.unreflectConstructor(declaredConstructor)
+                    .asType(MethodType.methodType(Object.class));
+            this.threadCallbacksSetter = lookup.unreflect(setter);
+        }
+
+        Object newInstance(Callback[] callbacks) throws Throwable {
+            this.threadCallbacksSetter.invokeExact(callbacks);
+            try {
+                return (Object) this.constructor.invokeExact();
+            } finally {
+                this.threadCallbacksSetter.invokeExact((Callback[]) null);
+            }
+        }
+    }
+
+    private static final class CallbackKey {
+
+        private final List<Class<?>> callbackTypes;
+
+        private final CallbackFilter callbackFilter;
+
+        CallbackKey(List<Class<?>> callbackTypes, CallbackFilter callbackFilter) {
+            this.callbackTypes = callbackTypes;
+            this.callbackFilter = callbackFilter;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof CallbackKey)) {
+                return false;
+            }
+            CallbackKey that = (CallbackKey) other;
+            return this.callbackTypes.equals(that.callbackTypes)
+                    && (this.callbackFilter == null ? that.callbackFilter == null
+                            : this.callbackFilter.equals(that.callbackFilter));
+        }
+
+        @Override
+        public int hashCode() {
+            return this.callbackTypes.hashCode() * 31
+                    + (this.callbackFilter != null ? this.callbackFilter.hashCode() : 0);
+        }
     }
 }
@@ -0,0 +1,147 @@
+package org.springframework.beans.factory.support;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 不加载类、直接用ASM读取class文件的类型信息：父类、接口和公共无参方法名。
+ * bean类加载之前用于按类型匹配bean定义和校验生命周期方法名。结果按类名缓存，
+ * 同一个工厂中同名的类视为同一个类
+ */
+class ClassFileMetadataReader {
+
+    private static final String OBJECT_CLASS_NAME = Object.class.getName();
+
+    // 读取过的class文件，class文件不存在或无法读取时为空
+    private final Map<String, Optional<ClassFileMetadata>> metadataCache = new ConcurrentHashMap<>();
+
+    // 类的父类和接口的名称闭包
+    private final Map<String, Set<String>> typeNameClosures = new ConcurrentHashMap<>();
+
+    /**
+     * 返回类本身及其所有父类和接口的名称
+     *
+     * @return 类型名称闭包，某个class文件无法读取时为null
+     */
+    public Set<String> getTypeNameClosure(String className, ClassLoader classLoader) {
+        Set<String> closure = typeNameClosures.get(className);
+        if (closure == null) {
+            Set<String> collected = new LinkedHashSet<>();
+            if (!collectTypeNames(className, classLoader, collected)) {
+                return null;
+            }
+            closure = Collections.unmodifiableSet(collected);
+            typeNameClosures.put(className, closure);
+        }
+        return closure;
+    }
+
+    /**
+     * 判断类或其父类、接口中是否有指定名称的公共无参方法，与Class#getMethods的查找范围一致
+     *
+     * @return 是否存在，某个class文件无法读取时为null
+     */
+    public Boolean hasPublicNoArgMethod(String className, ClassLoader classLoader, String methodName) {
+        Set<String> typeNames = getTypeNameClosure(className, classLoader);
+        if (typeNames == null) {
+            return null;
+        }
+        for (String typeName : typeNames) {
+            if (read(typeName, classLoader).publicNoArgMethods.contains(methodName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean collectTypeNames(String className, ClassLoader classLoader, Set<String> typeNames) {
+        if (!typeNames.add(className) || OBJECT_CLASS_NAME.equals(className)) {
+            return true;
+        }
+        ClassFileMetadata metadata = read(className, classLoader);
+        if (metadata == null) {
+            return false;
+        }
+        if (metadata.superClassName != null && !collectTypeNames(metadata.superClassName, classLoader, typeNames)) {
+            return false;
+        }
+        for (String interfaceName : metadata.interfaceNames) {
+            if (!collectTypeNames(interfaceName, classLoader, typeNames)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ClassFileMetadata read(String className, ClassLoader classLoader) {
+        return metadataCache.computeIfAbsent(className, name -> Optional.ofNullable(load(name, classLoader)))
+                .orElse(null);
+    }
+
+    private static ClassFileMetadata load(String className, ClassLoader classLoader) {
+        if (classLoader == null) {
+            return null;
+        }
+        try (InputStream input = classLoader.getResourceAsStream(className.replace('.', '/') + ".class")) {
+            if (input == null) {
+                return null;
+            }
+            ClassFileMetadata metadata = new ClassFileMetadata();
+            new ClassReader(input).accept(metadata, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG
+                    | ClassReader.SKIP_FRAMES);
+            return metadata;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static class ClassFileMetadata extends ClassVisitor {
+
+        private String superClassName;
+
+        private final List<String> interfaceNames = new ArrayList<>();
+
+        private final Set<String> publicNoArgMethods = new HashSet<>();
+
+        ClassFileMetadata() {
+            super(Opcodes.ASM9);
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName,
+                String[] interfaces) {
+            // 接口的父类在class文件中记录为Object，Class#getMethods不包含Object的方法
+            if (superName != null && (access & Opcodes.ACC_INTERFACE) == 0) {
+                this.superClassName = superName.replace('/', '.');
+            }
+            if (interfaces != null) {
+                for (String interfaceName : interfaces) {
+                    this.interfaceNames.add(interfaceName.replace('/', '.'));
+                }
+            }
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                String[] exceptions) {
+            if ((access & Opcodes.ACC_PUBLIC) != 0 && descriptor.startsWith("()")) {
+                this.publicNoArgMethods.add(name);
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.springframework.beans.factory.support;
+
+import org.springframework.beans.BeanException;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanReference;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.converter.Converter;
+
+import org.springframework.utils.DataSize;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * bean定义中字面属性值预先转换为属性类型后的结果。
+ * 字面值在第一次创建bean时按属性的声明类型转换一次并保存在bean定义中，之后的创建直接使用转换后的值，
+ * 不再重复解析字符串。只有不可变的转换结果（字符串、基本类型包装类、枚举、Duration、DataSize等）会被共享，
+ * 数组、集合及其他类型只保存转换器，每次注入时重新转换，避免不同实例共享同一个可变对象。
+ * bean引用、null以及属性类型不确定（如存在重载的setter）的值保持原样，在注入时按值的实际类型处理
+ */
+public final class ConvertedPropertyValues {
+
+    private static final Set<Class<?>> IMMUTABLE_TYPES = Set.of(String.class, Boolean.class, Character.class,
+            Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class, BigInteger.class,
+            BigDecimal.class, Class.class, Duration.class, DataSize.class);
+
+    private final String beanName;
+
+    private final PropertyValue[] propertyValues;
+
+    // 与propertyValues一一对应，需要每次转换的属性保存原值
+    private final Object[] values;
+
+    // 与propertyValues一一对应，需要每次注入时转换的属性为转换器，其他属性为null
+    private final Converter<Object, Object>[] converters;
+
+    private final ConversionService conversionService;
+
+    private final Class<?> beanClass;
+
+    private ConvertedPropertyValues(String beanName, PropertyValue[] propertyValues, Object[] values,
+            Converter<Object, Object>[] converters, ConversionService conversionService, Class<?> beanClass) {
+        this.beanName = beanName;
+        this.propertyValues = propertyValues;
+        this.values = values;
+        this.converters = converters;
+        this.conversionService = conversionService;
+        this.beanClass = beanClass;
+    }
+
+    /**
+     * 转换bean定义中的字面属性值
+     *
+     * @param beanName          bean名称，用于错误信息
+     * @param beanDefinition    bean定义
+     * @param conversionService 类型转换服务
+     * @param accessorStrategy  解析属性类型使用的访问器策略
+     * @return 转换结果
+     * @throws BeanException 如果字面值无法转换为属性类型
+     */
+    public static ConvertedPropertyValues forBeanDefinition(String beanName, BeanDefinition beanDefinition,
+            ConversionService conversionService, BeanAccessorStrategy accessorStrategy) {
+        Class<?> beanClass = beanDefinition.getBeanClass();
+        PropertyValue[] propertyValues = beanDefinition.getPropertyValues().getPropertyValues();
+        Object[] values = new Object[propertyValues.length];
+        @SuppressWarnings("unchecked")
+        Converter<Object, Object>[] converters = new Converter[propertyValues.length];
+        // Map和List类型的bean直接保存属性值，不需要转换
+        boolean convertible = !Map.class.isAssignableFrom(beanClass) && !List.class.isAssignableFrom(beanClass);
+        CachedIntrospectionResults results = convertible
+                ? CachedIntrospectionResults.forClass(beanClass, accessorStrategy)
+                : null;
+        for (int i = 0; i < propertyValues.length; i++) {
+            Object value = propertyValues[i].getValue();
+            values[i] = value;
+            if (results == null || value == null || value instanceof BeanReference) {
+                continue;
+            }
+            Class<?> propertyType = results.getPropertyInjector(propertyValues[i].getName()).getPropertyType();
+            if (propertyType == null) {
+                continue;
+            }
+            // 没有合适的转换器时保持原值，由注入时报告
+            Converter<Object, Object> converter = conversionService.getConverter(value.getClass(), propertyType);
+            if (converter == null) {
+                continue;
+            }
+            if (isImmutable(propertyType)) {
+                values[i] = convert(beanName, propertyValues[i], converter, value);
+            } else {
+                converters[i] = converter;
+            }
+        }
+        return new ConvertedPropertyValues(beanName, propertyValues, values, converters, conversionService,
+                beanClass);
+    }
+
+    private static boolean isImmutable(Class<?> type) {
+        return type.isPrimitive() || type.isEnum() || IMMUTABLE_TYPES.contains(type);
+    }
+
+    private static Object convert(String beanName, PropertyValue propertyValue, Converter<Object, Object> converter,
+            Object value) {
+        try {
+            return converter.convert(value);
+        } catch (RuntimeException e) {
+            throw new BeanException("Failed to convert value of property '" + propertyValue.getName()
+                    + "' of bean '" + beanName + "'", e);
+        }
+    }
+
+    /**
+     * 转换结果是否仍与bean定义和转换服务一致
+     */
+    public boolean matches(BeanDefinition beanDefinition, ConversionService conversionService) {
+        if (this.conversionService != conversionService || this.beanClass != beanDefinition.getBeanClass()) {
+            return false;
+        }
+        PropertyValue[] current = beanDefinition.getPropertyValues().getPropertyValues();
+        if (current == this.propertyValues) {
+            return true;
+        }
+        if (current.length != this.propertyValues.length) {
+            return false;
+        }
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] != this.propertyValues[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public PropertyValue[] getPropertyValues() {
+        return propertyValues;
+    }
+
+    /**
+     * 返回转换后的属性值。不可变的值直接返回共享的转换结果，其他值每次调用时重新转换
+     *
+     * @param index 属性在getPropertyValues中的下标
+     * @return 属性值
+     * @throws BeanException 如果字面值无法转换为属性类型
+     */
+    public Object getValue(int index) {
+        Converter<Object, Object> converter = converters[index];
+        return converter != null ? convert(beanName, propertyValues[index], converter, values[index]) : values[index];
+    }
+}
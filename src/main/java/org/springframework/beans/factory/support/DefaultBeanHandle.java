@@ -0,0 +1,102 @@
+package org.springframework.beans.factory.support;
+
+import org.springframework.beans.BeanException;
+import org.springframework.beans.factory.BeanHandle;
+import org.springframework.beans.factory.config.BeanDefinition;
+
+/**
+ * DefaultListableBeanFactory发放的bean句柄。
+ * 配置冻结后句柄记录bean在FrozenBeanTable中的槽位，未命中记忆的实例时按槽位读取单例；
+ * 原型bean记录其bean定义，每次直接按创建配方创建；单例被销毁时由工厂清除记忆的实例
+ */
+final class DefaultBeanHandle<T> implements BeanHandle<T> {
+
+    private static final int UNRESOLVED_SLOT = -1;
+
+    private final DefaultListableBeanFactory beanFactory;
+
+    private final String beanName;
+
+    private final Class<T> requiredType;
+
+    private volatile int slot = UNRESOLVED_SLOT;
+
+    private volatile T instance;
+
+    // 目标为原型bean时记录其bean定义，每次直接按创建配方创建
+    private volatile BeanDefinition prototypeDefinition;
+
+    DefaultBeanHandle(DefaultListableBeanFactory beanFactory, String beanName, Class<T> requiredType) {
+        this.beanFactory = beanFactory;
+        this.beanName = beanName;
+        this.requiredType = requiredType;
+    }
+
+    @Override
+    public T getObject() throws BeanException {
+        T bean = this.instance;
+        if (bean != null) {
+            return bean;
+        }
+        BeanDefinition beanDefinition = this.prototypeDefinition;
+        if (beanDefinition != null) {
+            return checkType(this.beanFactory.createBean(this.beanName, beanDefinition));
+        }
+        return resolve();
+    }
+
+    private T resolve() {
+        Object bean = null;
+        FrozenBeanTable table = this.beanFactory.getFrozenBeanTable();
+        if (table != null) {
+            int index = this.slot;
+            if (index == UNRESOLVED_SLOT) {
+                index = table.indexOf(this.beanName);
+                this.slot = index;
+            }
+            if (index >= 0) {
+                bean = table.getSingleton(index);
+            }
+        }
+        if (bean == null) {
+            bean = this.beanFactory.getBean(this.beanName);
+        }
+        T typedBean = checkType(bean);
+        if (this.beanFactory.containsSingleton(this.beanName)) {
+            this.instance = typedBean;
+        } else if (this.beanFactory.containsBeanDefinition(this.beanName)) {
+            BeanDefinition beanDefinition = this.beanFactory.getBeanDefinition(this.beanName);
+            if (beanDefinition.isPrototype()) {
+                this.prototypeDefinition = beanDefinition;
+            }
+        }
+        return typedBean;
+    }
+
+    private T checkType(Object bean) {
+        if (!this.requiredType.isInstance(bean)) {
+            throw new BeanException("Bean named '" + this.beanName + "' is expected to be of type '"
+                    + this.requiredType.getName() + "' but was actually of type '" + bean.getClass().getName() + "'");
+        }
+        return this.requiredType.cast(bean);
+    }
+
+    /**
+     * 单例被销毁或配置变化时清除记忆的实例和槽位
+     */
+    void reset() {
+        this.instance = null;
+        this.prototypeDefinition = null;
+        this.slot = UNRESOLVED_SLOT;
+    }
+
+    @Override
+    public String getBeanName() {
+        return beanName;
+    }
+
+    @Override
+    public String toString() {
+        return "BeanHandle[" + beanName + "]";
+    }
+}
@@ -1,20 +1,84 @@
 package org.springframework.beans.factory.support;
 
 import org.springframework.beans.BeanException;
+import org.springframework.beans.factory.BeanHandle;
 import org.springframework.beans.factory.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.utils.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFactory
         implements ConfigurableListableBeanFactory, BeanDefinitionRegistry {
 
-    private final Map<String, BeanDefinition> beanDefinitionMap = new HashMap<>();
+    private final Map<String, BeanDefinition> beanDefinitionMap = new ConcurrentHashMap<>();
+
+    // 类型到bean名称的索引，覆盖bean类的所有父类和接口，按类型查找时只需访问匹配的bean
+    private final Map<Class<?>, Set<String>> beanNamesByType = new ConcurrentHashMap<>();
+
+    // bean类尚未加载的bean按类型名称建立的索引，由class文件中的父类和接口得到，不需要加载bean类
+    private final Map<String, Set<String>> beanNamesByTypeName = new ConcurrentHashMap<>();
+
+    // bean类尚未加载、还没有加入类型索引的bean名称
+    private final Set<String> unresolvedBeanNames = ConcurrentHashMap.newKeySet();
+
+    private final ClassFileMetadataReader classFileMetadataReader = new ClassFileMetadataReader();
+
+    // bean类的父类和接口闭包
+    private static final ClassValue<Set<Class<?>>> typeClosures = new ClassValue<Set<Class<?>>>() {
+        @Override
+        protected Set<Class<?>> computeValue(Class<?> type) {
+            Set<Class<?>> closure = new LinkedHashSet<>();
+            collectTypeClosure(type, closure);
+            return Collections.unmodifiableSet(closure);
+        }
+    };
+
+    // 冻结配置后的只读查找表，未冻结时为null
+    private volatile FrozenBeanTable frozenBeanTable;
+
+    // 已发放的bean句柄，按名称和类型复用
+    private final Map<String, Map<Class<?>, DefaultBeanHandle<?>>> beanHandles = new ConcurrentHashMap<>();
+
+    // 并行预实例化单例使用的执行器，为null时在当前线程中依次实例化
+    private Executor preInstantiationExecutor;
+
+    // 未设置异步初始化执行器时，每个异步初始化的bean在新的虚拟线程中创建
+    private static final Executor VIRTUAL_THREAD_EXECUTOR = task -> Thread.ofVirtual().name("async-init").start(task);
+
+    // 异步初始化单例使用的执行器
+    private Executor asyncInitExecutor;
+
+    // 异步初始化中或已完成的单例，key为bean名称
+    private final Map<String, CompletableFuture<Object>> asyncInitializations = new ConcurrentHashMap<>();
+
+    // 所有异步初始化的单例创建完成时完成
+    private volatile CompletableFuture<Void> readyFuture = CompletableFuture.completedFuture(null);
 
     @Override
     public BeanDefinition getBeanDefinition(String beanName) throws BeanException {
+        FrozenBeanTable table = this.frozenBeanTable;
+        if (table != null) {
+            int index = table.indexOf(beanName);
+            if (index >= 0 && table.getBeanDefinition(index) != null) {
+                return table.getBeanDefinition(index);
+            }
+        }
         BeanDefinition beanDefinition = beanDefinitionMap.get(beanName);
         if (beanDefinition == null) {
             throw new BeanException("No bean named '" + beanName + "' is defined");
@@ -24,7 +88,239 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
     @Override
     public void registerBeanDefinition(String beanName, BeanDefinition beanDefinition) {
-        beanDefinitionMap.put(beanName, beanDefinition);
+        if (this.frozenBeanTable != null) {
+            throw new BeanException("Cannot register bean definition '" + beanName + "': configuration is frozen");
+        }
+        boolean classResolved = beanDefinition.hasBeanClass();
+        if (classResolved) {
+            // 注册时解析并校验生命周期元数据，初始化和销毁方法配置错误时立即失败；
+            // 只有类名的bean定义不在此加载类，在冻结配置时按class文件校验方法名
+            BeanDefinitionCache.forBeanDefinition(beanDefinition).setLifecycleMetadata(
+                    LifecycleMetadata.forBeanDefinition(beanDefinition, getBeanAccessorStrategy()));
+        }
+        BeanDefinition previous = beanDefinitionMap.put(beanName, beanDefinition);
+        unresolvedBeanNames.remove(beanName);
+        if (previous != null) {
+            // 句柄可能记录了被覆盖的原型bean定义
+            Map<Class<?>, DefaultBeanHandle<?>> handles = this.beanHandles.get(beanName);
+            if (handles != null) {
+                handles.values().forEach(DefaultBeanHandle::reset);
+            }
+        }
+        if (previous != null) {
+            if (previous.hasBeanClass()) {
+                removeFromTypeIndex(beanName, previous.getBeanClass());
+            }
+            for (Set<String> beanNames : beanNamesByTypeName.values()) {
+                beanNames.remove(beanName);
+            }
+        }
+        if (classResolved) {
+            addToTypeIndex(beanName, beanDefinition.getBeanClass());
+        } else if (beanDefinition.getBeanClassName() != null) {
+            unresolvedBeanNames.add(beanName);
+        }
+    }
+
+    @Override
+    public Object getBean(String name) {
+        FrozenBeanTable table = this.frozenBeanTable;
+        if (table != null) {
+            int index = table.indexOf(name);
+            if (index >= 0) {
+                Object singleton = table.getSingleton(index);
+                if (singleton != null) {
+                    return singleton;
+                }
+                BeanDefinition beanDefinition = table.getBeanDefinition(index);
+                if (beanDefinition != null && beanDefinition.isPrototype()) {
+                    return createBean(name, beanDefinition);
+                }
+            }
+        }
+        return super.getBean(name);
+    }
+
+    @Override
+    public void registerSingleton(String beanName, Object singletonObject) {
+        FrozenBeanTable table = this.frozenBeanTable;
+        if (table != null && table.indexOf(beanName) < 0) {
+            throw new BeanException("Cannot register singleton '" + beanName + "': configuration is frozen");
+        }
+        super.registerSingleton(beanName, singletonObject);
+    }
+
+    @Override
+    protected void addSingleton(String beanName, Object singletonObject) {
+        super.addSingleton(beanName, singletonObject);
+        FrozenBeanTable table = this.frozenBeanTable;
+        if (table != null) {
+            int index = table.indexOf(beanName);
+            if (index >= 0) {
+                table.setSingleton(index, singletonObject);
+            }
+        }
+    }
+
+    @Override
+    public void destroySingletons() {
+        awaitAsyncInitializations();
+        // 按bean定义中的引用确定销毁顺序
+        BeanDependencyGraph graph = BeanDependencyGraph.build(this);
+        for (String beanName : graph.getBeanNames()) {
+            for (String dependency : graph.getDependencies(beanName)) {
+                registerDependentBean(dependency, beanName);
+            }
+        }
+        try {
+            super.destroySingletons();
+        } finally {
+            FrozenBeanTable table = this.frozenBeanTable;
+            if (table != null) {
+                table.clearSingletons();
+            }
+            resetBeanHandles();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> BeanHandle<T> getBeanHandle(String name, Class<T> requiredType) throws BeanException {
+        BeanDefinition beanDefinition = containsBeanDefinition(name) ? getBeanDefinition(name) : null;
+        if (beanDefinition == null && !containsSingleton(name)) {
+            throw new BeanException("No bean named '" + name + "' is defined");
+        }
+        return (BeanHandle<T>) this.beanHandles.computeIfAbsent(name, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(requiredType, type -> new DefaultBeanHandle<>(this, name, requiredType));
+    }
+
+    @Override
+    public <T> BeanHandle<T> getBeanHandle(Class<T> requiredType) throws BeanException {
+        return getBeanHandle(determineSingleBeanName(requiredType), requiredType);
+    }
+
+    private void resetBeanHandles() {
+        for (Map<Class<?>, DefaultBeanHandle<?>> handles : this.beanHandles.values()) {
+            for (DefaultBeanHandle<?> handle : handles.values()) {
+                handle.reset();
+            }
+        }
+    }
+
+    FrozenBeanTable getFrozenBeanTable() {
+        return frozenBeanTable;
+    }
+
+    @Override
+    public void freezeConfiguration() {
+        synchronized (this.beanDefinitionMap) {
+            if (this.frozenBeanTable != null) {
+                return;
+            }
+            Map<String, Object> singletons = new HashMap<>();
+            for (String singletonName : getSingletonNames()) {
+                singletons.put(singletonName, getSingleton(singletonName));
+            }
+            // 冻结后bean定义的属性值不再变化，释放构建时多余的空间
+            for (BeanDefinition beanDefinition : this.beanDefinitionMap.values()) {
+                validateLifecycleMethods(beanDefinition);
+                beanDefinition.getPropertyValues().freeze();
+            }
+            this.frozenBeanTable = new FrozenBeanTable(this.beanDefinitionMap, singletons);
+            resetBeanHandles();
+        }
+    }
+
+    /**
+     * 校验初始化和销毁方法名，使配置错误在容器刷新时报告，而不是在第一次创建bean时。
+     * bean类已加载时解析生命周期元数据；只有类名时按class文件查找公共无参方法，不加载bean类。
+     * 按class文件的校验只检查方法名，class文件无法读取时不校验，错误在创建bean时报告
+     *
+     * @throws BeanException 如果初始化或销毁方法不存在
+     */
+    private void validateLifecycleMethods(BeanDefinition beanDefinition) throws BeanException {
+        if (beanDefinition.hasBeanClass()) {
+            getLifecycleMetadata(beanDefinition);
+            return;
+        }
+        String beanClassName = beanDefinition.getBeanClassName();
+        if (beanClassName == null) {
+            return;
+        }
+        String initMethodName = beanDefinition.getInitMethodName();
+        if (StringUtils.isNotBlank(initMethodName) && beanDefinition.getInitMethodInvoker() == null
+                && Boolean.FALSE.equals(classFileMetadataReader.hasPublicNoArgMethod(beanClassName,
+                        beanDefinition.getBeanClassLoader(), initMethodName))) {
+            throw new BeanException("Could not find an init method named '" + initMethodName + "' on bean class ["
+                    + beanClassName + "]");
+        }
+        String destroyMethodName = beanDefinition.getDestroyMethodName();
+        if (StringUtils.isNotBlank(destroyMethodName) && beanDefinition.getDestroyMethodInvoker() == null
+                && Boolean.FALSE.equals(classFileMetadataReader.hasPublicNoArgMethod(beanClassName,
+                        beanDefinition.getBeanClassLoader(), destroyMethodName))) {
+            throw new BeanException("Could not find a destroy method named '" + destroyMethodName
+                    + "' on bean class [" + beanClassName + "]");
+        }
+    }
+
+    @Override
+    public boolean isConfigurationFrozen() {
+        return this.frozenBeanTable != null;
+    }
+
+    private void addToTypeIndex(String beanName, Class<?> beanClass) {
+        for (Class<?> type : typeClosures.get(beanClass)) {
+            beanNamesByType.computeIfAbsent(type, key -> ConcurrentHashMap.newKeySet()).add(beanName);
+        }
+    }
+
+    /**
+     * 按类型查找前为尚未加载bean类的bean定义建立类型名称索引。类型名称从class文件中读取，
+     * 不加载bean类，刷新容器时查找BeanFactoryPostProcessor等类型不会加载所有bean类；
+     * class文件无法读取时加载bean类并加入类型索引
+     *
+     * @throws BeanException 如果某个bean类不存在
+     */
+    private void indexUnresolvedBeanDefinitions() {
+        if (unresolvedBeanNames.isEmpty()) {
+            return;
+        }
+        for (String beanName : unresolvedBeanNames) {
+            BeanDefinition beanDefinition = beanDefinitionMap.get(beanName);
+            if (beanDefinition != null) {
+                Set<String> typeNames = beanDefinition.hasBeanClass() ? null
+                        : classFileMetadataReader.getTypeNameClosure(beanDefinition.getBeanClassName(),
+                                beanDefinition.getBeanClassLoader());
+                if (typeNames == null) {
+                    addToTypeIndex(beanName, beanDefinition.resolveBeanClass());
+                } else {
+                    for (String typeName : typeNames) {
+                        beanNamesByTypeName.computeIfAbsent(typeName, key -> ConcurrentHashMap.newKeySet())
+                                .add(beanName);
+                    }
+                }
+            }
+            unresolvedBeanNames.remove(beanName);
+        }
+    }
+
+    private void removeFromTypeIndex(String beanName, Class<?> beanClass) {
+        for (Class<?> type : typeClosures.get(beanClass)) {
+            Set<String> beanNames = beanNamesByType.get(type);
+            if (beanNames != null) {
+                beanNames.remove(beanName);
+            }
+        }
+    }
+
+    private static void collectTypeClosure(Class<?> type, Set<Class<?>> closure) {
+        if (type == null || !closure.add(type)) {
+            return;
+        }
+        collectTypeClosure(type.getSuperclass(), closure);
+        for (Class<?> interfaceType : type.getInterfaces()) {
+            collectTypeClosure(interfaceType, closure);
+        }
     }
 
     @Override
@@ -35,18 +331,241 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
     @Override
     public <T> Map<String, T> getBeansOfType(Class<T> type) throws BeanException {
         Map<String, T> result = new HashMap<>();
-        beanDefinitionMap.forEach((beanName, beanDefinition) -> {
-            Class beanClass = beanDefinition.getBeanClass();
-            if (type.isAssignableFrom(beanClass)) {
-                result.put(beanName, (T) getBean(beanName));
-            }
-        });
+        for (String beanName : getBeanNamesForType(type)) {
+            result.put(beanName, type.cast(getBean(beanName)));
+        }
         return result;
     }
 
+    @Override
+    public <T> T getBean(Class<T> requiredType) throws BeanException {
+        return requiredType.cast(getBean(determineSingleBeanName(requiredType)));
+    }
+
+    /**
+     * 返回唯一匹配指定类型的bean名称
+     *
+     * @throws BeanException 如果没有或有多个匹配的bean
+     */
+    private String determineSingleBeanName(Class<?> requiredType) throws BeanException {
+        String[] beanNames = getBeanNamesForType(requiredType);
+        if (beanNames.length == 0) {
+            throw new BeanException("No qualifying bean of type '" + requiredType.getName() + "' is defined");
+        }
+        if (beanNames.length > 1) {
+            throw new BeanException("No qualifying bean of type '" + requiredType.getName()
+                    + "' is defined: expected single matching bean but found " + beanNames.length + ": "
+                    + String.join(",", beanNames));
+        }
+        return beanNames[0];
+    }
+
+    /**
+     * 返回bean类为指定类型或其子类型的所有bean名称，通过类型索引查找。
+     * 索引按注册时的bean类建立，注册后修改bean类需要重新注册bean定义。
+     * bean类尚未加载的bean按类型名称匹配，匹配时不加载bean类
+     */
+    public String[] getBeanNamesForType(Class<?> type) {
+        indexUnresolvedBeanDefinitions();
+        Set<String> candidates = beanNamesByType.get(type);
+        Set<String> nameCandidates = beanNamesByTypeName.get(type.getName());
+        if (nameCandidates != null && !nameCandidates.isEmpty()) {
+            Set<String> merged = new LinkedHashSet<>(nameCandidates);
+            if (candidates != null) {
+                merged.addAll(candidates);
+            }
+            candidates = merged;
+        }
+        if (candidates == null || candidates.isEmpty()) {
+            return new String[0];
+        }
+        List<String> beanNames = new ArrayList<>(candidates.size());
+        for (String beanName : candidates) {
+            BeanDefinition beanDefinition = beanDefinitionMap.get(beanName);
+            // 按名称匹配的bean类之后可能已经加载，此时按类确认，排除不同类加载器中的同名类型
+            if (beanDefinition != null
+                    && (!beanDefinition.hasBeanClass() || type.isAssignableFrom(beanDefinition.getBeanClass()))) {
+                beanNames.add(beanName);
+            }
+        }
+        return beanNames.toArray(new String[0]);
+    }
+
     @Override
     public void preInstantiateSingletons() throws BeanException {
-        beanDefinitionMap.keySet().forEach(this::getBean);
+        Executor executor = this.preInstantiationExecutor;
+        try {
+            if (executor == null) {
+                for (Map.Entry<String, BeanDefinition> entry : beanDefinitionMap.entrySet()) {
+                    // 延迟初始化的bean在第一次使用时创建，原型bean在每次获取时创建
+                    if (entry.getValue().isSingleton() && !isLazyInit(entry.getValue())) {
+                        if (entry.getValue().isAsyncInit()) {
+                            scheduleAsyncInitialization(entry.getKey());
+                        } else {
+                            getBean(entry.getKey());
+                        }
+                    }
+                }
+            } else {
+                preInstantiateSingletonsInParallel(executor);
+            }
+        } finally {
+            this.readyFuture = CompletableFuture
+                    .allOf(this.asyncInitializations.values().toArray(new CompletableFuture<?>[0]));
+        }
+    }
+
+    /**
+     * 在异步初始化执行器中创建bean。依赖它的bean在获取它时只等待这一个bean创建完成，
+     * 如果此时还没有开始创建，则在获取它的线程中直接创建
+     */
+    private CompletableFuture<Object> scheduleAsyncInitialization(String beanName) {
+        Executor executor = this.asyncInitExecutor != null ? this.asyncInitExecutor : VIRTUAL_THREAD_EXECUTOR;
+        return this.asyncInitializations.computeIfAbsent(beanName,
+                name -> CompletableFuture.supplyAsync(() -> getBean(name), executor));
+    }
+
+    @Override
+    public CompletableFuture<Object> getInitializationFuture(String beanName) throws BeanException {
+        CompletableFuture<Object> initialization = this.asyncInitializations.get(beanName);
+        if (initialization != null) {
+            return initialization;
+        }
+        BeanDefinition beanDefinition = getBeanDefinition(beanName);
+        if (beanDefinition.isAsyncInit() && beanDefinition.isSingleton()) {
+            return scheduleAsyncInitialization(beanName);
+        }
+        Object singleton = getSingleton(beanName);
+        return singleton != null ? CompletableFuture.completedFuture(singleton) : null;
+    }
+
+    @Override
+    public CompletableFuture<Void> getReadyFuture() {
+        return this.readyFuture;
+    }
+
+    /**
+     * 销毁前等待仍在进行的异步初始化，避免销毁之后才创建完成的单例不被销毁
+     */
+    private void awaitAsyncInitializations() {
+        CompletableFuture<Void> ready = CompletableFuture
+                .allOf(this.asyncInitializations.values().toArray(new CompletableFuture<?>[0]));
+        try {
+            if (getShutdownTimeout() > 0) {
+                ready.get(getShutdownTimeout(), TimeUnit.MILLISECONDS);
+            } else {
+                ready.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // 初始化失败的bean没有注册为单例，不需要销毁；超时的bean不再等待
+        }
+        this.asyncInitializations.clear();
+        this.readyFuture = CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * 按依赖图并行实例化单例：bean在其依赖的bean全部创建完成后提交到执行器，
+     * 互不依赖的子树同时创建，总耗时取决于依赖图的关键路径
+     *
+     * @param executor 执行bean创建的执行器
+     */
+    protected void preInstantiateSingletonsInParallel(Executor executor) throws BeanException {
+        BeanDependencyGraph graph = BeanDependencyGraph.build(this);
+        Map<String, CompletableFuture<Void>> creations = new HashMap<>();
+        for (String beanName : graph.getBeanNames()) {
+            if (isEagerSingleton(beanName)) {
+                if (beanDefinitionMap.get(beanName).isAsyncInit()) {
+                    scheduleAsyncInitialization(beanName);
+                } else {
+                    scheduleCreation(beanName, graph, executor, creations, new HashSet<>());
+                }
+            }
+        }
+        try {
+            CompletableFuture.allOf(creations.values().toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new BeanException("Pre-instantiation of singletons failed", cause);
+        }
+    }
+
+    private CompletableFuture<Void> scheduleCreation(String beanName, BeanDependencyGraph graph, Executor executor,
+            Map<String, CompletableFuture<Void>> creations, Set<String> visiting) {
+        CompletableFuture<Void> creation = creations.get(beanName);
+        if (creation != null) {
+            return creation;
+        }
+        if (!visiting.add(beanName)) {
+            // 存在循环引用，不再等待，交由getBean报告
+            return null;
+        }
+        List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+        for (String dependency : graph.getDependencies(beanName)) {
+            // 引用了未定义的bean时不建立依赖，交由getBean报告；
+            // 延迟初始化的bean注入的是代理，原型bean在注入时创建，都不需要等待；
+            // 异步初始化的bean在注入时等待其创建完成
+            if (graph.containsBean(dependency) && isEagerSingleton(dependency)
+                    && !beanDefinitionMap.get(dependency).isAsyncInit()) {
+                CompletableFuture<Void> dependencyCreation = scheduleCreation(dependency, graph, executor, creations,
+                        visiting);
+                if (dependencyCreation != null) {
+                    dependencies.add(dependencyCreation);
+                }
+            }
+        }
+        visiting.remove(beanName);
+        creation = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0]))
+                .thenRunAsync(() -> getBean(beanName), executor);
+        creations.put(beanName, creation);
+        return creation;
+    }
+
+    private boolean isEagerSingleton(String beanName) {
+        BeanDefinition beanDefinition = beanDefinitionMap.get(beanName);
+        return beanDefinition != null && beanDefinition.isSingleton() && !isLazyInit(beanDefinition);
+    }
+
+    /**
+     * 非延迟初始化的bean通过句柄引用，单例创建后不再按名称查找
+     */
+    @Override
+    protected ObjectFactory<?> createReferenceResolver(String beanName) {
+        BeanDefinition beanDefinition = beanDefinitionMap.get(beanName);
+        if (beanDefinition == null || isLazyInit(beanDefinition)) {
+            return super.createReferenceResolver(beanName);
+        }
+        return getBeanHandle(beanName, Object.class);
+    }
+
+    /**
+     * 设置并行预实例化单例使用的执行器，设置后preInstantiateSingletons会按依赖关系并行创建单例
+     *
+     * @param preInstantiationExecutor 执行器，为null时恢复为在当前线程中依次创建
+     */
+    public void setPreInstantiationExecutor(Executor preInstantiationExecutor) {
+        this.preInstantiationExecutor = preInstantiationExecutor;
+    }
+
+    public Executor getPreInstantiationExecutor() {
+        return preInstantiationExecutor;
+    }
+
+    /**
+     * 设置异步初始化单例使用的执行器
+     *
+     * @param asyncInitExecutor 执行器，为null时每个bean在新的虚拟线程中创建
+     */
+    public void setAsyncInitExecutor(Executor asyncInitExecutor) {
+        this.asyncInitExecutor = asyncInitExecutor;
+    }
+
+    public Executor getAsyncInitExecutor() {
+        return asyncInitExecutor;
     }
 
     @Override
@@ -1,29 +1,85 @@
 package org.springframework.beans.factory.support;
 
 import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.config.SingletonBeanRegistry;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * SingletonBeanRegistry接口的默认实现类，提供了单例Bean注册表的基本功能。
- * 使用HashMap存储单例对象，key为beanName，value为对应的单例对象。
+ * 使用ConcurrentHashMap存储单例对象，key为beanName，value为对应的单例对象，读取单例时无需加锁。
+ * 单例的创建按beanName加锁（single-flight），同一个bean只会被创建一次，不同bean之间可以并行创建。
  * 实现了注册、获取、判断存在性、获取名称列表、获取数量以及销毁单例等基本操作。
+ * 销毁时按依赖关系的逆序进行：依赖其他bean的bean先于被依赖的bean销毁，互不依赖的bean并行销毁。
  */
 public class DefaultSingletonBeanRegistry implements SingletonBeanRegistry {
 
+    /**
+     * 单个bean销毁方法的默认超时时间（毫秒）
+     */
+    public static final long DEFAULT_DESTROY_TIMEOUT = 10_000;
+
+    /**
+     * 销毁所有单例的默认总超时时间（毫秒）
+     */
+    public static final long DEFAULT_SHUTDOWN_TIMEOUT = 30_000;
+
     /**
      * 存储单例对象的容器，key为beanName，value为对应的单例对象
      */
-    private final Map<String, Object> singletonObjects = new HashMap<>();
+    private final Map<String, Object> singletonObjects = new ConcurrentHashMap<>();
 
     /**
      * 存储可销毁的单例对象，key为beanName，value为对应的DisposableBean实例
      */
-    private final Map<String, DisposableBean> disposableBeans = new HashMap<>();
+    private final Map<String, DisposableBean> disposableBeans = new ConcurrentHashMap<>();
+
+    /**
+     * 每个正在创建的单例对应的锁，保证同一个bean只会被一个线程创建。
+     * 使用ReentrantLock而不是synchronized，虚拟线程在耗时的初始化方法中等待时不会占住载体线程
+     */
+    private final Map<String, ReentrantLock> singletonCreationLocks = new ConcurrentHashMap<>();
+
+    /**
+     * 当前正在创建的单例名称，用于检测循环依赖
+     */
+    private final Set<String> singletonsCurrentlyInCreation = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 依赖关系，key为被依赖的bean名称，value为依赖它的bean名称
+     */
+    private final Map<String, Set<String>> dependentBeanMap = new ConcurrentHashMap<>();
+
+    private Executor destructionExecutor;
+
+    private long destroyTimeout = DEFAULT_DESTROY_TIMEOUT;
+
+    private long shutdownTimeout = DEFAULT_SHUTDOWN_TIMEOUT;
 
     /**
      * 注册单例对象
@@ -33,9 +89,70 @@ public class DefaultSingletonBeanRegistry implements SingletonBeanRegistry {
      */
     @Override
     public void registerSingleton(String beanName, Object singletonObject) {
+        addSingleton(beanName, singletonObject);
+    }
+
+    /**
+     * 将创建完成的单例对象加入注册表
+     *
+     * @param beanName        单例对象的名称
+     * @param singletonObject 单例对象
+     */
+    protected void addSingleton(String beanName, Object singletonObject) {
         this.singletonObjects.put(beanName, singletonObject);
     }
 
+    /**
+     * 获取单例对象，如果不存在则使用给定的工厂创建并注册。
+     * 同一个beanName的创建过程互斥，并发调用时只有一个线程执行创建，其余线程等待并复用其结果；
+     * 不同beanName之间互不阻塞。
+     *
+     * @param beanName         单例对象的名称
+     * @param singletonFactory 用于创建单例对象的工厂
+     * @return 单例对象
+     */
+    public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
+        Object singletonObject = this.singletonObjects.get(beanName);
+        if (singletonObject != null) {
+            return singletonObject;
+        }
+        ReentrantLock lock = this.singletonCreationLocks.computeIfAbsent(beanName, name -> new ReentrantLock());
+        lock.lock();
+        try {
+            // 获取锁后再检查一次，其他线程可能已经完成了创建
+            singletonObject = this.singletonObjects.get(beanName);
+            if (singletonObject != null) {
+                return singletonObject;
+            }
+            // 锁是可重入的，持有锁的线程再次进入说明存在循环依赖
+            if (!this.singletonsCurrentlyInCreation.add(beanName)) {
+                throw new BeansException("Requested bean '" + beanName
+                        + "' is currently in creation: Is there an unresolvable circular reference?");
+            }
+            try {
+                singletonObject = singletonFactory.getObject();
+                addSingleton(beanName, singletonObject);
+            } finally {
+                this.singletonsCurrentlyInCreation.remove(beanName);
+            }
+            // 创建成功后锁不再需要，后来的线程会直接命中singletonObjects；创建失败时保留锁，重试仍然互斥
+            this.singletonCreationLocks.remove(beanName, lock);
+            return singletonObject;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 判断指定名称的单例是否正在创建中
+     *
+     * @param beanName 单例对象的名称
+     * @return 如果正在创建返回true，否则返回false
+     */
+    public boolean isSingletonCurrentlyInCreation(String beanName) {
+        return this.singletonsCurrentlyInCreation.contains(beanName);
+    }
+
     /**
      * 注册可销毁的单例对象
      * 
@@ -46,6 +163,24 @@ public class DefaultSingletonBeanRegistry implements SingletonBeanRegistry {
         this.disposableBeans.put(beanName, bean);
     }
 
+    /**
+     * 注册bean之间的依赖关系，销毁时dependentBeanName先于beanName销毁
+     *
+     * @param beanName          被依赖的bean名称
+     * @param dependentBeanName 依赖它的bean名称
+     */
+    public void registerDependentBean(String beanName, String dependentBeanName) {
+        this.dependentBeanMap.computeIfAbsent(beanName, name -> ConcurrentHashMap.newKeySet()).add(dependentBeanName);
+    }
+
+    /**
+     * 返回直接依赖指定bean的bean名称
+     */
+    public Set<String> getDependentBeans(String beanName) {
+        Set<String> dependentBeans = this.dependentBeanMap.get(beanName);
+        return dependentBeans != null ? Collections.unmodifiableSet(dependentBeans) : Collections.emptySet();
+    }
+
     /**
      * 销毁指定的单例对象
      */
@@ -107,22 +242,256 @@ public class DefaultSingletonBeanRegistry implements SingletonBeanRegistry {
     }
 
     /**
-     * 销毁所有单例对象
+     * 销毁所有单例对象。依赖其他bean的bean先销毁，互不依赖的bean在销毁执行器中并行销毁；
+     * 单个bean的销毁方法超过destroyTimeout、全部销毁超过shutdownTimeout时不再等待。
+     * 销毁方法超时的bean可能仍在使用它依赖的bean，这些依赖不会被销毁，而是作为失败报告；
+     * 超过shutdownTimeout时尚未开始销毁的bean同样不再销毁。
+     * 某个bean销毁失败不影响其他bean，所有失败在最后一起报告。重复调用时只销毁尚未销毁的bean
+     *
+     * @throws BeansException 如果有bean销毁失败或超时，其余失败作为suppressed异常附加
      */
     @Override
     public void destroySingletons() {
-        // 先执行所有Bean的销毁方法
-        Set<String> beanNames = new HashSet<>(disposableBeans.keySet());
-        for (String beanName : beanNames) {
+        // 逐个移除，并发调用时每个bean只被一个调用方销毁
+        Map<String, DisposableBean> beans = new LinkedHashMap<>();
+        for (String beanName : disposableBeans.keySet()) {
             DisposableBean disposableBean = disposableBeans.remove(beanName);
+            if (disposableBean != null) {
+                beans.put(beanName, disposableBean);
+            }
+        }
+        Queue<BeansException> failures = new ConcurrentLinkedQueue<>();
+        try {
+            if (!beans.isEmpty()) {
+                destroyInDependencyOrder(beans, failures);
+            }
+        } finally {
+            // 然后清空单例对象映射
+            this.singletonObjects.clear();
+            this.dependentBeanMap.clear();
+        }
+        if (!failures.isEmpty()) {
+            List<String> messages = new ArrayList<>();
+            for (BeansException failure : failures) {
+                messages.add(failure.getMessage());
+            }
+            BeansException exception = new BeansException("Destruction of " + failures.size()
+                    + " singleton(s) failed: " + messages, failures.peek());
+            failures.stream().skip(1).forEach(exception::addSuppressed);
+            throw exception;
+        }
+    }
+
+    private void destroyInDependencyOrder(Map<String, DisposableBean> beans, Queue<BeansException> failures) {
+        Executor executor = this.destructionExecutor;
+        ExecutorService ownExecutor = null;
+        if (executor == null) {
+            ownExecutor = Executors.newVirtualThreadPerTaskExecutor();
+            executor = ownExecutor;
+        }
+        // 超过总超时或被中断后置位，尚未开始的销毁不再执行，之后的结果也不再收集
+        AtomicBoolean abandoned = new AtomicBoolean();
+        try {
+            Map<String, CompletableFuture<Boolean>> destructions = new HashMap<>();
+            for (String beanName : beans.keySet()) {
+                scheduleDestruction(beanName, beans, executor, destructions, new HashSet<>(), failures, abandoned);
+            }
+            CompletableFuture<Void> all = CompletableFuture
+                    .allOf(destructions.values().toArray(new CompletableFuture<?>[0]));
             try {
-                disposableBean.destroy();
-            } catch (Exception e) {
-                throw new BeansException("Destroy method on bean with name '" + beanName + "' threw an exception", e);
+                if (this.shutdownTimeout > 0) {
+                    all.get(this.shutdownTimeout, TimeUnit.MILLISECONDS);
+                } else {
+                    all.join();
+                }
+            } catch (TimeoutException e) {
+                abandoned.set(true);
+                failures.add(new BeansException("Destruction of singletons did not complete within "
+                        + this.shutdownTimeout + " ms, left alive: " + pendingBeanNames(destructions)));
+            } catch (InterruptedException e) {
+                abandoned.set(true);
+                Thread.currentThread().interrupt();
+                failures.add(new BeansException("Interrupted while destroying singletons, left alive: "
+                        + pendingBeanNames(destructions), e));
+            } catch (ExecutionException e) {
+                // 每个bean的失败都已经被收集，不会到达这里
+                failures.add(new BeansException("Destruction of singletons failed", e.getCause()));
             }
+        } finally {
+            if (ownExecutor != null) {
+                // 不等待超时的销毁方法
+                ownExecutor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * 安排bean在依赖它的bean销毁之后销毁
+     *
+     * @return 销毁结果，销毁方法已执行结束（无论成功与否）时为true；
+     * 销毁方法超时或没有执行时为false，此时它依赖的bean也不会被销毁
+     */
+    private CompletableFuture<Boolean> scheduleDestruction(String beanName, Map<String, DisposableBean> beans,
+            Executor executor, Map<String, CompletableFuture<Boolean>> destructions, Set<String> visiting,
+            Queue<BeansException> failures, AtomicBoolean abandoned) {
+        CompletableFuture<Boolean> destruction = destructions.get(beanName);
+        if (destruction != null) {
+            return destruction;
+        }
+        if (!visiting.add(beanName)) {
+            // 循环依赖，不再等待
+            return null;
         }
+        Map<String, CompletableFuture<Boolean>> dependents = new LinkedHashMap<>();
+        for (String dependentBeanName : getDisposableDependents(beanName, beans)) {
+            CompletableFuture<Boolean> dependentDestruction = scheduleDestruction(dependentBeanName, beans, executor,
+                    destructions, visiting, failures, abandoned);
+            if (dependentDestruction != null) {
+                dependents.put(dependentBeanName, dependentDestruction);
+            }
+        }
+        visiting.remove(beanName);
+        DisposableBean disposableBean = beans.get(beanName);
+        long timeout = this.destroyTimeout;
+        destruction = CompletableFuture.allOf(dependents.values().toArray(new CompletableFuture<?>[0]))
+                .thenCompose(ignored -> {
+                    List<String> aliveDependents = new ArrayList<>();
+                    for (Map.Entry<String, CompletableFuture<Boolean>> entry : dependents.entrySet()) {
+                        if (!entry.getValue().join()) {
+                            aliveDependents.add(entry.getKey());
+                        }
+                    }
+                    if (!aliveDependents.isEmpty()) {
+                        // 依赖它的bean可能仍在运行，不能销毁
+                        if (!abandoned.get()) {
+                            failures.add(new BeansException("Bean with name '" + beanName
+                                    + "' was left alive because dependent bean(s) " + aliveDependents
+                                    + " were not destroyed"));
+                        }
+                        return CompletableFuture.completedFuture(false);
+                    }
+                    if (abandoned.get()) {
+                        return CompletableFuture.completedFuture(false);
+                    }
+                    return destroy(beanName, disposableBean, executor, timeout, failures, abandoned);
+                });
+        destructions.put(beanName, destruction);
+        return destruction;
+    }
+
+    private CompletableFuture<Boolean> destroy(String beanName, DisposableBean disposableBean, Executor executor,
+            long timeout, Queue<BeansException> failures, AtomicBoolean abandoned) {
+        CompletableFuture<Void> destroy;
+        try {
+            destroy = CompletableFuture.runAsync(() -> {
+                try {
+                    disposableBean.destroy();
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            // 已超过总超时，执行器已关闭
+            return CompletableFuture.completedFuture(false);
+        }
+        // 超时从销毁方法开始执行时计算，不包括等待依赖它的bean销毁的时间
+        if (timeout > 0) {
+            destroy = destroy.orTimeout(timeout, TimeUnit.MILLISECONDS);
+        }
+        return destroy.handle((result, ex) -> {
+            if (ex == null) {
+                return true;
+            }
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof TimeoutException) {
+                // 销毁方法仍在执行
+                if (!abandoned.get()) {
+                    failures.add(new BeansException("Destroy method on bean with name '" + beanName
+                            + "' did not complete within " + timeout + " ms"));
+                }
+                return false;
+            }
+            if (!abandoned.get()) {
+                failures.add(new BeansException("Destroy method on bean with name '" + beanName
+                        + "' threw an exception", cause));
+            }
+            return true;
+        });
+    }
+
+    /**
+     * 返回依赖指定bean的待销毁bean，依赖关系经过无需销毁的bean时继续向上查找
+     */
+    private Set<String> getDisposableDependents(String beanName, Map<String, DisposableBean> beans) {
+        Set<String> result = new LinkedHashSet<>();
+        Set<String> visited = new HashSet<>();
+        Deque<String> queue = new ArrayDeque<>(getDependentBeans(beanName));
+        while (!queue.isEmpty()) {
+            String dependentBeanName = queue.poll();
+            if (dependentBeanName.equals(beanName) || !visited.add(dependentBeanName)) {
+                continue;
+            }
+            if (beans.containsKey(dependentBeanName)) {
+                result.add(dependentBeanName);
+            } else {
+                queue.addAll(getDependentBeans(dependentBeanName));
+            }
+        }
+        return result;
+    }
+
+    private static List<String> pendingBeanNames(Map<String, CompletableFuture<Boolean>> destructions) {
+        List<String> pending = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<Boolean>> entry : destructions.entrySet()) {
+            if (!entry.getValue().isDone()) {
+                pending.add(entry.getKey());
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * 设置并行销毁单例使用的执行器
+     *
+     * @param destructionExecutor 执行器，为null时每次销毁使用新的虚拟线程执行器
+     */
+    public void setDestructionExecutor(Executor destructionExecutor) {
+        this.destructionExecutor = destructionExecutor;
+    }
+
+    public Executor getDestructionExecutor() {
+        return destructionExecutor;
+    }
+
+    /**
+     * 设置单个bean销毁方法的超时时间
+     *
+     * @param destroyTimeout 超时时间（毫秒），0表示不限制
+     */
+    public void setDestroyTimeout(long destroyTimeout) {
+        if (destroyTimeout < 0) {
+            throw new IllegalArgumentException("Destroy timeout must not be negative: " + destroyTimeout);
+        }
+        this.destroyTimeout = destroyTimeout;
+    }
+
+    public long getDestroyTimeout() {
+        return destroyTimeout;
+    }
+
+    /**
+     * 设置销毁所有单例的总超时时间，超时后不再等待尚未完成的销毁方法
+     *
+     * @param shutdownTimeout 超时时间（毫秒），0表示不限制
+     */
+    public void setShutdownTimeout(long shutdownTimeout) {
+        if (shutdownTimeout < 0) {
+            throw new IllegalArgumentException("Shutdown timeout must not be negative: " + shutdownTimeout);
+        }
+        this.shutdownTimeout = shutdownTimeout;
+    }
 
-        // 然后清空单例对象映射
-        this.singletonObjects.clear();
+    public long getShutdownTimeout() {
+        return shutdownTimeout;
     }
 }
@@ -2,35 +2,44 @@ package org.springframework.beans.factory.support;
 
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.MethodInvoker;
 
 public class DisposableBeanAdapter implements DisposableBean {
 
     private final String beanName;
     private final Object bean;
-    private final String destroyMethodName;
+    private final LifecycleMetadata lifecycleMetadata;
 
     public DisposableBeanAdapter(Object bean, String beanName, BeanDefinition beanDefinition) {
+        this(bean, beanName, beanDefinition, ReflectiveBeanAccessorStrategy.INSTANCE);
+    }
+
+    public DisposableBeanAdapter(Object bean, String beanName, BeanDefinition beanDefinition,
+            BeanAccessorStrategy accessorStrategy) {
+        this(bean, beanName, LifecycleMetadata.forBeanDefinition(beanDefinition, accessorStrategy));
+    }
+
+    public DisposableBeanAdapter(Object bean, String beanName, LifecycleMetadata lifecycleMetadata) {
         this.bean = bean;
         this.beanName = beanName;
-        this.destroyMethodName = beanDefinition.getDestroyMethodName();
+        this.lifecycleMetadata = lifecycleMetadata;
     }
 
     @Override
     public void destroy() throws Exception {
-        if (bean instanceof DisposableBean) {
+        if (lifecycleMetadata.isDisposableBean()) {
             ((DisposableBean) bean).destroy();
         }
-        // 避免同时继承自DisposableBean，且自定义方法与DisposableBean方法同名，销毁方法执行两次的情况
-        if ((destroyMethodName != null && !destroyMethodName.isEmpty())
-                && !(bean instanceof DisposableBean && "destroy".equals(destroyMethodName))) {
+        // 与DisposableBean#destroy同名的自定义方法在解析元数据时已被排除
+        MethodInvoker destroyMethod = lifecycleMetadata.getDestroyMethod();
+        if (destroyMethod != null) {
             try {
                 // 执行自定义方法
-                bean.getClass().getMethod(destroyMethodName).invoke(bean);
+                destroyMethod.invoke(bean);
             } catch (Exception e) {
-                throw new Exception("Destroy method '" + destroyMethodName + "' on bean with name '" + beanName
-                        + "' threw an exception", e);
+                throw new Exception("Destroy method '" + lifecycleMetadata.getDestroyMethodName()
+                        + "' on bean with name '" + beanName + "' threw an exception", e);
             }
-
         }
     }
 
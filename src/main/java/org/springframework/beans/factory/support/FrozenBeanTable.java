@@ -0,0 +1,83 @@
+package org.springframework.beans.factory.support;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 冻结配置后使用的只读bean查找表。
+ * bean名称在构建时按哈希值放入开放寻址的数组中，查找只做数组访问和字符串比较，不加锁也不分配对象；
+ * 单例槽位在冻结后仍可被填充（例如冻结后才完成预实例化的单例）
+ */
+final class FrozenBeanTable {
+
+    private final String[] names;
+
+    private final BeanDefinition[] beanDefinitions;
+
+    private final AtomicReferenceArray<Object> singletons;
+
+    private final int mask;
+
+    FrozenBeanTable(Map<String, BeanDefinition> beanDefinitions, Map<String, Object> singletons) {
+        int size = beanDefinitions.size() + singletons.size();
+        // 负载因子不超过0.5，保证探测序列很短
+        int capacity = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+        this.names = new String[capacity];
+        this.beanDefinitions = new BeanDefinition[capacity];
+        this.singletons = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        beanDefinitions.forEach((name, beanDefinition) -> this.beanDefinitions[insert(name)] = beanDefinition);
+        singletons.forEach((name, singleton) -> this.singletons.set(insert(name), singleton));
+    }
+
+    private int insert(String name) {
+        int index = spread(name.hashCode()) & mask;
+        while (names[index] != null && !names[index].equals(name)) {
+            index = (index + 1) & mask;
+        }
+        // 使用驻留的名称，常量名查找时可以直接通过引用比较命中
+        names[index] = name.intern();
+        return index;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * 查找bean名称所在的槽位
+     *
+     * @return 槽位下标，不存在时返回-1
+     */
+    int indexOf(String name) {
+        int index = spread(name.hashCode()) & mask;
+        String candidate;
+        while ((candidate = names[index]) != null) {
+            if (candidate == name || candidate.equals(name)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    BeanDefinition getBeanDefinition(int index) {
+        return beanDefinitions[index];
+    }
+
+    Object getSingleton(int index) {
+        return singletons.get(index);
+    }
+
+    void setSingleton(int index, Object singleton) {
+        singletons.set(index, singleton);
+    }
+
+    void clearSingletons() {
+        for (int i = 0; i < singletons.length(); i++) {
+            singletons.set(i, null);
+        }
+    }
+}
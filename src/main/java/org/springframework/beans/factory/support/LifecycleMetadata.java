@@ -0,0 +1,147 @@
+package org.springframework.beans.factory.support;
+
+import org.springframework.beans.BeanException;
+import org.springframework.beans.factory.Aware;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.MethodInvoker;
+
+import java.util.Objects;
+
+/**
+ * bean定义解析后的生命周期元数据：实现的Aware接口、InitializingBean/DisposableBean标记，
+ * 以及绑定好的初始化和销毁方法调用器。在注册bean定义时解析并校验一次，之后的生命周期回调直接调用
+ */
+public final class LifecycleMetadata {
+
+    private final Class<?> beanClass;
+
+    private final String initMethodName;
+
+    private final String destroyMethodName;
+
+    private final BeanAccessorStrategy accessorStrategy;
+
+    private final MethodInvoker initMethodInvoker;
+
+    private final MethodInvoker destroyMethodInvoker;
+
+    private final boolean aware;
+
+    private final boolean beanFactoryAware;
+
+    private final boolean initializingBean;
+
+    private final boolean disposableBean;
+
+    // 自定义初始化方法，没有时为null
+    private final MethodInvoker initMethod;
+
+    // 自定义销毁方法，没有或与DisposableBean#destroy重复时为null
+    private final MethodInvoker destroyMethod;
+
+    private LifecycleMetadata(BeanDefinition beanDefinition, BeanAccessorStrategy accessorStrategy) {
+        this.beanClass = beanDefinition.getBeanClass();
+        this.initMethodName = beanDefinition.getInitMethodName();
+        this.destroyMethodName = beanDefinition.getDestroyMethodName();
+        this.accessorStrategy = accessorStrategy;
+        this.aware = Aware.class.isAssignableFrom(beanClass);
+        this.beanFactoryAware = BeanFactoryAware.class.isAssignableFrom(beanClass);
+        this.initializingBean = InitializingBean.class.isAssignableFrom(beanClass);
+        this.disposableBean = DisposableBean.class.isAssignableFrom(beanClass);
+
+        this.initMethodInvoker = beanDefinition.getInitMethodInvoker();
+        this.destroyMethodInvoker = beanDefinition.getDestroyMethodInvoker();
+        CachedIntrospectionResults results = CachedIntrospectionResults.forClass(beanClass, accessorStrategy);
+        if (hasText(initMethodName)) {
+            // bean定义自带调用器时直接使用，不再按名称查找方法
+            this.initMethod = initMethodInvoker != null ? initMethodInvoker : results.getMethodInvoker(initMethodName);
+            if (this.initMethod == null) {
+                throw new BeanException("Could not find an init method named '" + initMethodName + "' on bean class ["
+                        + beanClass.getName() + "]");
+            }
+        } else {
+            this.initMethod = null;
+        }
+        // 避免同时继承自DisposableBean，且自定义方法与DisposableBean方法同名，销毁方法执行两次的情况
+        if (hasText(destroyMethodName) && !(disposableBean && "destroy".equals(destroyMethodName))) {
+            this.destroyMethod = destroyMethodInvoker != null ? destroyMethodInvoker
+                    : results.getMethodInvoker(destroyMethodName);
+            if (this.destroyMethod == null) {
+                throw new BeanException("Could not find a destroy method named '" + destroyMethodName
+                        + "' on bean class [" + beanClass.getName() + "]");
+            }
+        } else {
+            this.destroyMethod = null;
+        }
+    }
+
+    /**
+     * 解析bean定义的生命周期元数据
+     *
+     * @param beanDefinition   bean定义
+     * @param accessorStrategy 生成初始化和销毁方法调用器的策略
+     * @return 生命周期元数据
+     * @throws BeanException 如果初始化或销毁方法不存在
+     */
+    public static LifecycleMetadata forBeanDefinition(BeanDefinition beanDefinition,
+            BeanAccessorStrategy accessorStrategy) throws BeanException {
+        return new LifecycleMetadata(beanDefinition, accessorStrategy);
+    }
+
+    /**
+     * 判断元数据是否仍与bean定义一致，bean定义在注册后被修改或访问器策略变化时需要重新解析
+     */
+    public boolean matches(BeanDefinition beanDefinition, BeanAccessorStrategy accessorStrategy) {
+        return this.beanClass == beanDefinition.getBeanClass() && this.accessorStrategy == accessorStrategy
+                && Objects.equals(this.initMethodName, beanDefinition.getInitMethodName())
+                && Objects.equals(this.destroyMethodName, beanDefinition.getDestroyMethodName())
+                && this.initMethodInvoker == beanDefinition.getInitMethodInvoker()
+                && this.destroyMethodInvoker == beanDefinition.getDestroyMethodInvoker();
+    }
+
+    private static boolean hasText(String str) {
+        return str != null && !str.isEmpty();
+    }
+
+    public Class<?> getBeanClass() {
+        return beanClass;
+    }
+
+    public boolean isAware() {
+        return aware;
+    }
+
+    public boolean isBeanFactoryAware() {
+        return beanFactoryAware;
+    }
+
+    public boolean isInitializingBean() {
+        return initializingBean;
+    }
+
+    public boolean isDisposableBean() {
+        return disposableBean;
+    }
+
+    public MethodInvoker getInitMethod() {
+        return initMethod;
+    }
+
+    public MethodInvoker getDestroyMethod() {
+        return destroyMethod;
+    }
+
+    public String getDestroyMethodName() {
+        return destroyMethodName;
+    }
+
+    /**
+     * 是否需要在销毁时回调
+     */
+    public boolean requiresDestruction() {
+        return disposableBean || destroyMethod != null;
+    }
+}
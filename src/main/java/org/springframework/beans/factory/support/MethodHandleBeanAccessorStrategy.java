@@ -0,0 +1,137 @@
+package org.springframework.beans.factory.support;
+
+import org.springframework.beans.factory.config.MethodInvoker;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * 基于LambdaMetafactory和MethodHandle的访问器策略。
+ * setter和无参方法通过LambdaMetafactory绑定为PropertyWriter和MethodInvoker的实现类，生成的类中直接调用目标方法，
+ * 没有Method.invoke的参数数组、访问检查和异常包装。字段，以及无法在bean类中定义lambda的方法
+ * （例如bean类由其他模块或类加载器加载）使用适配为固定签名的MethodHandle，通过invokeExact调用
+ */
+public class MethodHandleBeanAccessorStrategy implements BeanAccessorStrategy {
+
+    public static final MethodHandleBeanAccessorStrategy INSTANCE = new MethodHandleBeanAccessorStrategy();
+
+    private static final MethodType WRITER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object.class);
+
+    private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    @Override
+    public PropertyWriter createSetterWriter(Method setter) {
+        try {
+            MethodHandles.Lookup targetLookup = lookupFor(setter.getDeclaringClass());
+            MethodHandle handle = targetLookup != null ? targetLookup.unreflect(setter) : this.lookup.unreflect(setter);
+            if (targetLookup != null) {
+                // 返回值被丢弃，基本类型参数在调用时自动拆箱
+                MethodType instantiatedType = MethodType.methodType(void.class, setter.getDeclaringClass(),
+                        MethodType.methodType(setter.getParameterTypes()[0]).wrap().returnType());
+                return (PropertyWriter) bind(targetLookup, "write", PropertyWriter.class, WRITER_TYPE, handle,
+                        instantiatedType);
+            }
+            return new HandlePropertyWriter(handle.asType(WRITER_TYPE));
+        } catch (IllegalAccessException e) {
+            throw new BeansException("Cannot access setter " + setter, e);
+        }
+    }
+
+    @Override
+    public PropertyWriter createFieldWriter(Field field) {
+        try {
+            return new HandlePropertyWriter(this.lookup.unreflectSetter(field).asType(WRITER_TYPE));
+        } catch (IllegalAccessException e) {
+            throw new BeansException("Cannot access field " + field, e);
+        }
+    }
+
+    @Override
+    public MethodInvoker createMethodInvoker(Method method) {
+        try {
+            MethodHandles.Lookup targetLookup = lookupFor(method.getDeclaringClass());
+            MethodHandle handle = targetLookup != null ? targetLookup.unreflect(method) : this.lookup.unreflect(method);
+            if (targetLookup != null) {
+                return (MethodInvoker) bind(targetLookup, "invoke", MethodInvoker.class, INVOKER_TYPE, handle,
+                        MethodType.methodType(void.class, method.getDeclaringClass()));
+            }
+            return new HandleMethodInvoker(handle.asType(INVOKER_TYPE));
+        } catch (IllegalAccessException e) {
+            throw new BeansException("Cannot access method " + method, e);
+        }
+    }
+
+    /**
+     * 返回可以在目标类中定义lambda的Lookup，目标类所在的包不对本类开放或不在同一个模块中时返回null
+     */
+    private MethodHandles.Lookup lookupFor(Class<?> targetClass) {
+        try {
+            MethodHandles.Lookup targetLookup = MethodHandles.privateLookupIn(targetClass, this.lookup);
+            return targetLookup.hasFullPrivilegeAccess() ? targetLookup : null;
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static Object bind(MethodHandles.Lookup targetLookup, String methodName, Class<?> interfaceType,
+            MethodType interfaceMethodType, MethodHandle handle, MethodType instantiatedType) {
+        try {
+            return LambdaMetafactory.metafactory(targetLookup, methodName, MethodType.methodType(interfaceType),
+                    interfaceMethodType, handle, instantiatedType).getTarget().invoke();
+        } catch (Throwable ex) {
+            throw new BeansException("Cannot bind " + handle + " to " + interfaceType.getName(), ex);
+        }
+    }
+
+    private static Exception rethrow(Throwable ex) {
+        if (ex instanceof Error) {
+            throw (Error) ex;
+        }
+        if (ex instanceof Exception) {
+            return (Exception) ex;
+        }
+        return new Exception(ex);
+    }
+
+    private static final class HandlePropertyWriter implements PropertyWriter {
+
+        private final MethodHandle handle;
+
+        HandlePropertyWriter(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public void write(Object bean, Object value) throws Exception {
+            try {
+                this.handle.invokeExact(bean, value);
+            } catch (Throwable ex) {
+                throw rethrow(ex);
+            }
+        }
+    }
+
+    private static final class HandleMethodInvoker implements MethodInvoker {
+
+        private final MethodHandle handle;
+
+        HandleMethodInvoker(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public void invoke(Object bean) throws Exception {
+            try {
+                this.handle.invokeExact(bean);
+            } catch (Throwable ex) {
+                throw rethrow(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.springframework.beans.factory.support;
+
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+
+/**
+ * 在创建实例的同时完成属性注入的实例化策略
+ */
+public interface PopulatingInstantiationStrategy extends InstantiationStrategy {
+
+    /**
+     * 创建bean实例并注入属性
+     *
+     * @param beanDefinition bean定义
+     * @param beanName       bean名称
+     * @param owner          所属的BeanFactory
+     * @param propertyValues bean定义中的属性
+     * @param resolvedValues 与propertyValues一一对应、已经解析了BeanReference的属性值
+     * @return 注入了属性的bean实例，如果无法由本策略注入则返回null，由工厂按常规方式实例化和注入
+     * @throws BeansException 如果实例化失败
+     */
+    Object instantiate(BeanDefinition beanDefinition, String beanName, BeanFactory owner,
+            PropertyValue[] propertyValues, Object[] resolvedValues) throws BeansException;
+}
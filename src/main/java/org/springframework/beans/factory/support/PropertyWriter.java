@@ -0,0 +1,17 @@
+package org.springframework.beans.factory.support;
+
+/**
+ * 已绑定到某个setter或字段的属性写入器
+ */
+@FunctionalInterface
+public interface PropertyWriter {
+
+    /**
+     * 将值写入bean的属性
+     *
+     * @param bean  bean实例
+     * @param value 已经转换为目标类型的属性值
+     * @throws Exception 如果setter抛出异常或赋值失败
+     */
+    void write(Object bean, Object value) throws Exception;
+}
@@ -0,0 +1,29 @@
+package org.springframework.beans.factory.support;
+
+import org.springframework.beans.factory.config.MethodInvoker;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * 基于Method.invoke和Field.set的访问器策略，是默认的访问方式
+ */
+public class ReflectiveBeanAccessorStrategy implements BeanAccessorStrategy {
+
+    public static final ReflectiveBeanAccessorStrategy INSTANCE = new ReflectiveBeanAccessorStrategy();
+
+    @Override
+    public PropertyWriter createSetterWriter(Method setter) {
+        return setter::invoke;
+    }
+
+    @Override
+    public PropertyWriter createFieldWriter(Field field) {
+        return field::set;
+    }
+
+    @Override
+    public MethodInvoker createMethodInvoker(Method method) {
+        return method::invoke;
+    }
+}
@@ -0,0 +1,63 @@
+package org.springframework.beans.factory.support;
+
+import org.springframework.beans.factory.ObjectFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一次作用域中的bean实例及其销毁回调，只由绑定该作用域的线程访问，不需要同步
+ */
+final class ScopeContext {
+
+    private final Map<String, Object> beans = new HashMap<>();
+
+    // 按注册顺序保存，依赖的bean先于引用它的bean注册
+    private final Map<String, Runnable> destructionCallbacks = new LinkedHashMap<>();
+
+    Object get(String name, ObjectFactory<?> objectFactory) {
+        Object bean = beans.get(name);
+        if (bean == null) {
+            // 创建过程中可能获取同一作用域的其他bean，不能使用computeIfAbsent
+            bean = objectFactory.getObject();
+            beans.put(name, bean);
+        }
+        return bean;
+    }
+
+    Object remove(String name) {
+        destructionCallbacks.remove(name);
+        return beans.remove(name);
+    }
+
+    void registerDestructionCallback(String name, Runnable callback) {
+        destructionCallbacks.put(name, callback);
+    }
+
+    /**
+     * 按注册的相反顺序执行所有销毁回调，某个回调失败不影响其他回调
+     */
+    void close() {
+        List<Runnable> callbacks = new ArrayList<>(destructionCallbacks.values());
+        destructionCallbacks.clear();
+        beans.clear();
+        RuntimeException failure = null;
+        for (int i = callbacks.size() - 1; i >= 0; i--) {
+            try {
+                callbacks.get(i).run();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.springframework.beans.factory.support;
+
+import org.springframework.beans.BeanException;
+import org.springframework.beans.factory.config.BeanDefinition;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 只保存bean定义的简单注册表，按注册顺序保存。
+ * 用作并行解析配置文件时每个文件的缓冲区，不是线程安全的
+ */
+public class SimpleBeanDefinitionRegistry implements BeanDefinitionRegistry {
+
+    private final Map<String, BeanDefinition> beanDefinitionMap = new LinkedHashMap<>();
+
+    @Override
+    public void registerBeanDefinition(String beanName, BeanDefinition beanDefinition) {
+        beanDefinitionMap.put(beanName, beanDefinition);
+    }
+
+    @Override
+    public BeanDefinition getBeanDefinition(String beanName) throws BeanException {
+        BeanDefinition beanDefinition = beanDefinitionMap.get(beanName);
+        if (beanDefinition == null) {
+            throw new BeanException("No bean named '" + beanName + "' is defined");
+        }
+        return beanDefinition;
+    }
+
+    @Override
+    public boolean containsBeanDefinition(String beanName) {
+        return beanDefinitionMap.containsKey(beanName);
+    }
+
+    @Override
+    public String[] getBeanDefinitionNames() {
+        return beanDefinitionMap.keySet().toArray(new String[0]);
+    }
+}
@@ -0,0 +1,88 @@
+package org.springframework.beans.factory.support;
+
+import org.springframework.beans.BeanException;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.Scope;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 按任务缓存bean实例的作用域。通过run或call执行的任务拥有自己的作用域，任务内获取的bean只属于该任务；
+ * 任务结束时执行销毁回调并解除绑定，不会在线程上留下任何状态，适合大量虚拟线程各自执行的短任务。
+ * 嵌套执行的任务使用新的作用域，结束后恢复外层作用域。在任务之外获取bean会失败
+ */
+public class TaskScope implements Scope {
+
+    public static final String SCOPE_NAME = "scoped";
+
+    // 只在任务执行期间绑定，任务结束后移除
+    private final ThreadLocal<ScopeContext> current = new ThreadLocal<>();
+
+    /**
+     * 在新的任务作用域中执行任务
+     */
+    public void run(Runnable task) {
+        ScopeContext previous = current.get();
+        ScopeContext context = new ScopeContext();
+        current.set(context);
+        try {
+            task.run();
+        } finally {
+            end(previous, context);
+        }
+    }
+
+    /**
+     * 在新的任务作用域中执行任务并返回结果
+     */
+    public <T> T call(Callable<T> task) throws Exception {
+        ScopeContext previous = current.get();
+        ScopeContext context = new ScopeContext();
+        current.set(context);
+        try {
+            return task.call();
+        } finally {
+            end(previous, context);
+        }
+    }
+
+    private void end(ScopeContext previous, ScopeContext context) {
+        if (previous != null) {
+            current.set(previous);
+        } else {
+            current.remove();
+        }
+        context.close();
+    }
+
+    /**
+     * 当前线程是否正在执行任务作用域中的任务
+     */
+    public boolean isActive() {
+        return current.get() != null;
+    }
+
+    @Override
+    public Object get(String name, ObjectFactory<?> objectFactory) {
+        ScopeContext context = current.get();
+        if (context == null) {
+            throw new BeanException("Scope '" + SCOPE_NAME + "' is not active for the current thread: "
+                    + "run the task through TaskScope#run or TaskScope#call to use bean '" + name + "'");
+        }
+        return context.get(name, objectFactory);
+    }
+
+    @Override
+    public Object remove(String name) {
+        ScopeContext context = current.get();
+        return context != null ? context.remove(name) : null;
+    }
+
+    @Override
+    public void registerDestructionCallback(String name, Runnable callback) {
+        ScopeContext context = current.get();
+        if (context != null) {
+            context.registerDestructionCallback(name, callback);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.springframework.beans.factory.support;
+
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.Scope;
+
+/**
+ * 按线程缓存bean实例的作用域，同一线程内多次获取返回同一个实例。
+ * 线程不再使用这些bean时调用end结束当前线程的作用域并执行销毁回调。
+ * 每个虚拟线程都会得到自己的实例，大量执行短任务的虚拟线程应使用TaskScope
+ */
+public class ThreadScope implements Scope {
+
+    public static final String SCOPE_NAME = "thread";
+
+    private final ThreadLocal<ScopeContext> contexts = new ThreadLocal<>();
+
+    @Override
+    public Object get(String name, ObjectFactory<?> objectFactory) {
+        ScopeContext context = contexts.get();
+        if (context == null) {
+            context = new ScopeContext();
+            contexts.set(context);
+        }
+        return context.get(name, objectFactory);
+    }
+
+    @Override
+    public Object remove(String name) {
+        ScopeContext context = contexts.get();
+        return context != null ? context.remove(name) : null;
+    }
+
+    @Override
+    public void registerDestructionCallback(String name, Runnable callback) {
+        ScopeContext context = contexts.get();
+        if (context != null) {
+            context.registerDestructionCallback(name, callback);
+        }
+    }
+
+    /**
+     * 结束当前线程的作用域，执行其中bean的销毁回调并解除与线程的绑定
+     */
+    public void end() {
+        ScopeContext context = contexts.get();
+        if (context != null) {
+            contexts.remove();
+            context.close();
+        }
+    }
+}
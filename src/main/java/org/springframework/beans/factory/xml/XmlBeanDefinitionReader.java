@@ -1,7 +1,9 @@
 package org.springframework.beans.factory.xml;
 
 import java.io.InputStream;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.dom4j.Document;
 import org.dom4j.DocumentException;
@@ -14,6 +16,9 @@ import org.springframework.beans.factory.config.BeanReference;
 import org.springframework.beans.factory.support.AbstractBeanDefinitionReader;
 import org.springframework.beans.factory.support.BeanDefinitionReader;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionSnapshot;
+import org.springframework.beans.factory.support.SimpleBeanDefinitionRegistry;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.utils.StringUtils;
@@ -23,6 +28,10 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.xml.sax.SAXException;
 import java.io.IOException;
@@ -43,6 +52,21 @@ public class XmlBeanDefinitionReader extends AbstractBeanDefinitionReader {
     public static final String REF_ATTRIBUTE = "ref";
     public static final String INIT_METHOD_ATTRIBUTE = "init-method";
     public static final String DESTROY_METHOD_ATTRIBUTE = "destroy-method";
+    public static final String LAZY_INIT_ATTRIBUTE = "lazy-init";
+    public static final String ASYNC_INIT_ATTRIBUTE = "async-init";
+    public static final String SCOPE_ATTRIBUTE = "scope";
+    public static final String POOL_SIZE_ATTRIBUTE = "pool-size";
+    public static final String POOL_IDLE_TIMEOUT_ATTRIBUTE = "pool-idle-timeout";
+    public static final String DEFAULT_LAZY_INIT_ATTRIBUTE = "default-lazy-init";
+
+    // 是否使用StAX流式解析
+    private boolean streaming = false;
+
+    // 已解析bean定义的快照，为null时总是解析配置文件
+    private BeanDefinitionSnapshot snapshot;
+
+    // 正在解析的配置文件中的属性字面值，相同的值只保留一份，每个配置文件解析完成后清空
+    private final Map<String, String> literalValues = new HashMap<>();
 
     public XmlBeanDefinitionReader(BeanDefinitionRegistry registry) {
         super(registry);
@@ -52,11 +76,48 @@ public class XmlBeanDefinitionReader extends AbstractBeanDefinitionReader {
         super(registry, resourceLoader);
     }
 
+    private static XMLInputFactory createStaxFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // 配置文件不需要DTD和外部实体
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
     @Override
     public void loadBeanDefinitions(String location) throws BeanException {
         ResourceLoader resourceLoader = getResourceLoader();
         Resource resource = resourceLoader.getResource(location);
-        loadBeanDefinitions(resource);
+        if (snapshot != null) {
+            loadBeanDefinitionsWithSnapshot(location, resource);
+        } else {
+            loadBeanDefinitions(resource);
+        }
+    }
+
+    /**
+     * 配置文件内容与快照一致时从快照还原bean定义，否则重新解析并更新快照
+     */
+    protected void loadBeanDefinitionsWithSnapshot(String location, Resource resource) throws BeanException {
+        byte[] content;
+        try (InputStream inputStream = resource.getInputStream()) {
+            content = inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new BeanException("IOException parsing XML document from " + resource, e);
+        }
+        byte[] contentHash = BeanDefinitionSnapshot.hash(content);
+        SimpleBeanDefinitionRegistry buffer = new SimpleBeanDefinitionRegistry();
+        if (snapshot.restore(location, contentHash, buffer, XmlBeanDefinitionReader.class.getClassLoader())) {
+            for (String beanName : buffer.getBeanDefinitionNames()) {
+                preloadBeanClass(buffer.getBeanDefinition(beanName));
+            }
+        } else {
+            createLocationReader(buffer).loadBeanDefinitions(new ByteArrayResource(content, location));
+            snapshot.store(location, contentHash, buffer);
+        }
+        for (String beanName : buffer.getBeanDefinitionNames()) {
+            registerBeanDefinition(beanName, buffer.getBeanDefinition(beanName));
+        }
     }
 
     @Override
@@ -64,11 +125,17 @@ public class XmlBeanDefinitionReader extends AbstractBeanDefinitionReader {
         try {
             InputStream inputStream = resource.getInputStream();
             try {
-                doLoadBeanDefinitions(inputStream);
+                if (streaming) {
+                    doLoadBeanDefinitionsStreaming(inputStream);
+                } else {
+                    doLoadBeanDefinitions(inputStream);
+                }
             } finally {
                 inputStream.close();
+                // 不随读取器保留所有字面值，长期复用的读取器占用的内存不随解析的配置文件增长
+                literalValues.clear();
             }
-        } catch (IOException | DocumentException e) {
+        } catch (IOException | DocumentException | XMLStreamException e) {
             throw new BeanException("IOException parsing XML document from " + resource, e);
         }
     }
@@ -78,6 +145,7 @@ public class XmlBeanDefinitionReader extends AbstractBeanDefinitionReader {
         Document docoument = reader.read(inputStream);
 
         Element beans = docoument.getRootElement();
+        Boolean defaultLazyInit = parseLazyInit(beans.attributeValue(DEFAULT_LAZY_INIT_ATTRIBUTE), null);
         List<Element> beanList = beans.elements(BEAN_ELEMENT);
         for (Element bean : beanList) {
             String beanId = bean.attributeValue(ID_ATTRIBUTE);
@@ -86,49 +154,199 @@ public class XmlBeanDefinitionReader extends AbstractBeanDefinitionReader {
             String initMethodName = bean.attributeValue(INIT_METHOD_ATTRIBUTE);
             String destroyMethodName = bean.attributeValue(DESTROY_METHOD_ATTRIBUTE);
 
-            Class<?> clazz = null;
-            try {
-                clazz = Class.forName(className);
-            } catch (ClassNotFoundException e) {
-                throw new BeanException("Class not found: " + className, e);
-            }
-
-            // id優先於 name
-            beanName = StringUtils.isNotEmpty(beanId) ? beanId : beanName;
-            if (StringUtils.isEmpty(beanName)) {
-                // 如果没有指定id或name，则使用类名的首字母小写作为默认beanName
-                beanName = StringUtils.lowerFirst(clazz.getSimpleName());
-            }
-            BeanDefinition beanDefinition = new BeanDefinition(clazz);
+            beanName = resolveBeanName(beanId, beanName, className);
+            BeanDefinition beanDefinition = createBeanDefinition(className);
             beanDefinition.setInitMethodName(initMethodName);
             beanDefinition.setDestroyMethodName(destroyMethodName);
+            beanDefinition.setLazyInit(parseLazyInit(bean.attributeValue(LAZY_INIT_ATTRIBUTE), defaultLazyInit));
+            beanDefinition.setAsyncInit(Boolean.parseBoolean(bean.attributeValue(ASYNC_INIT_ATTRIBUTE)));
+            beanDefinition.setScope(parseScope(bean.attributeValue(SCOPE_ATTRIBUTE)));
+            applyPoolSettings(beanName, beanDefinition, bean.attributeValue(POOL_SIZE_ATTRIBUTE),
+                    bean.attributeValue(POOL_IDLE_TIMEOUT_ATTRIBUTE));
 
             // 处理属性
             List<Element> propertyList = bean.elements(PROPERTY_ELEMENT);
             for (Element property : propertyList) {
-                String propertyNameAttribute = property.attributeValue(NAME_ATTRIBUTE);
-                String propertyValueAttribute = property.attributeValue(VALUE_ATTRIBUTE);
-                String propertyRefAttribute = property.attributeValue(REF_ATTRIBUTE);
+                beanDefinition.getPropertyValues().addPropertyValue(createPropertyValue(beanName,
+                        property.attributeValue(NAME_ATTRIBUTE), property.attributeValue(VALUE_ATTRIBUTE),
+                        property.attributeValue(REF_ATTRIBUTE)));
+            }
+            registerBeanDefinition(beanName, beanDefinition);
+        }
+    }
 
-                if (StringUtils.isEmpty(propertyNameAttribute)) {
-                    throw new BeanException("Property 'name' is required for bean: " + beanName);
-                }
-                Object value = propertyValueAttribute;
-                if (StringUtils.isNotEmpty(propertyRefAttribute)) {
-                    // 如果有ref属性，则创建BeanReference
-                    value = new BeanReference(propertyRefAttribute);
-                    value = new BeanReference(propertyRefAttribute);
+    /**
+     * 使用StAX流式解析：读到bean元素的结束标签时立即注册，内存占用与文件大小无关
+     */
+    protected void doLoadBeanDefinitionsStreaming(InputStream inputStream) throws XMLStreamException {
+        // XMLInputFactory不保证线程安全，每次解析单独创建
+        XMLStreamReader reader = createStaxFactory().createXMLStreamReader(inputStream);
+        try {
+            int depth = 0;
+            Boolean defaultLazyInit = null;
+            String beanName = null;
+            BeanDefinition beanDefinition = null;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    String element = reader.getLocalName();
+                    // 与DOM方式一致，只处理根元素下的bean及其直接子元素property
+                    if (depth == 1) {
+                        defaultLazyInit = parseLazyInit(reader.getAttributeValue(null, DEFAULT_LAZY_INIT_ATTRIBUTE),
+                                null);
+                    } else if (depth == 2 && BEAN_ELEMENT.equals(element)) {
+                        String className = reader.getAttributeValue(null, CLASS_ATTRIBUTE);
+                        beanName = resolveBeanName(reader.getAttributeValue(null, ID_ATTRIBUTE),
+                                reader.getAttributeValue(null, NAME_ATTRIBUTE), className);
+                        beanDefinition = createBeanDefinition(className);
+                        beanDefinition.setInitMethodName(reader.getAttributeValue(null, INIT_METHOD_ATTRIBUTE));
+                        beanDefinition.setDestroyMethodName(reader.getAttributeValue(null, DESTROY_METHOD_ATTRIBUTE));
+                        beanDefinition.setLazyInit(parseLazyInit(reader.getAttributeValue(null, LAZY_INIT_ATTRIBUTE),
+                                defaultLazyInit));
+                        beanDefinition.setAsyncInit(
+                                Boolean.parseBoolean(reader.getAttributeValue(null, ASYNC_INIT_ATTRIBUTE)));
+                        beanDefinition.setScope(parseScope(reader.getAttributeValue(null, SCOPE_ATTRIBUTE)));
+                        applyPoolSettings(beanName, beanDefinition, reader.getAttributeValue(null, POOL_SIZE_ATTRIBUTE),
+                                reader.getAttributeValue(null, POOL_IDLE_TIMEOUT_ATTRIBUTE));
+                    } else if (depth == 3 && beanDefinition != null && PROPERTY_ELEMENT.equals(element)) {
+                        beanDefinition.getPropertyValues().addPropertyValue(createPropertyValue(beanName,
+                                reader.getAttributeValue(null, NAME_ATTRIBUTE),
+                                reader.getAttributeValue(null, VALUE_ATTRIBUTE),
+                                reader.getAttributeValue(null, REF_ATTRIBUTE)));
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (depth == 2 && beanDefinition != null) {
+                        registerBeanDefinition(beanName, beanDefinition);
+                        beanName = null;
+                        beanDefinition = null;
+                    }
+                    depth--;
                 }
-                PropertyValue propertyValue = new PropertyValue(propertyNameAttribute, value);
-                beanDefinition.getPropertyValues().addPropertyValue(propertyValue);
             }
-            if (getRegistry().containsBeanDefinition(beanName)) {
-                throw new BeanException("Duplicate bean definition found for bean name: " + beanName);
-            } else {
-                getRegistry().registerBeanDefinition(beanName, beanDefinition);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * 创建只保存类名的bean定义，解析过程不等待类加载
+     */
+    private BeanDefinition createBeanDefinition(String className) {
+        if (StringUtils.isEmpty(className)) {
+            throw new BeanException("Class not found: " + className);
+        }
+        BeanDefinition beanDefinition = new BeanDefinition(className, XmlBeanDefinitionReader.class.getClassLoader());
+        preloadBeanClass(beanDefinition);
+        return beanDefinition;
+    }
+
+    /**
+     * 解析lazy-init属性，未设置或为default时使用外层的默认值
+     *
+     * @return 延迟初始化设置，为null时由bean工厂的默认设置决定
+     */
+    private Boolean parseLazyInit(String value, Boolean defaultValue) {
+        if (StringUtils.isEmpty(value) || "default".equals(value)) {
+            return defaultValue;
+        }
+        return Boolean.valueOf(value);
+    }
+
+    /**
+     * 自定义作用域在解析之后才注册，这里不校验作用域名称，未注册的作用域在获取bean时报告
+     */
+    private String parseScope(String scope) {
+        return StringUtils.isEmpty(scope) ? BeanDefinition.SCOPE_SINGLETON : scope.trim();
+    }
+
+    /**
+     * 设置池化bean的实例数上限和空闲超时，未声明时使用bean定义的默认值
+     */
+    private void applyPoolSettings(String beanName, BeanDefinition beanDefinition, String poolSize,
+            String poolIdleTimeout) {
+        try {
+            if (StringUtils.isNotEmpty(poolSize)) {
+                beanDefinition.setPoolSize(Integer.parseInt(poolSize.trim()));
+            }
+            if (StringUtils.isNotEmpty(poolIdleTimeout)) {
+                beanDefinition.setPoolIdleTimeout(Long.parseLong(poolIdleTimeout.trim()));
             }
+        } catch (NumberFormatException e) {
+            throw new BeanException("Invalid pool settings for bean: " + beanName, e);
+        }
+    }
+
+    private String resolveBeanName(String beanId, String beanName, String className) {
+        // id優先於 name
+        beanName = StringUtils.isNotEmpty(beanId) ? beanId : beanName;
+        if (StringUtils.isEmpty(beanName) && StringUtils.isNotEmpty(className)) {
+            // 如果没有指定id或name，则使用类名的首字母小写作为默认beanName
+            String simpleName = className.substring(className.lastIndexOf('.') + 1);
+            beanName = StringUtils.lowerFirst(simpleName.substring(simpleName.lastIndexOf('$') + 1));
+        }
+        return beanName;
+    }
+
+    private PropertyValue createPropertyValue(String beanName, String propertyNameAttribute,
+            String propertyValueAttribute, String propertyRefAttribute) {
+        if (StringUtils.isEmpty(propertyNameAttribute)) {
+            throw new BeanException("Property 'name' is required for bean: " + beanName);
+        }
+        Object value = propertyValueAttribute;
+        if (StringUtils.isNotEmpty(propertyRefAttribute)) {
+            // 如果有ref属性，则创建BeanReference
+            value = new BeanReference(propertyRefAttribute);
+        } else if (propertyValueAttribute != null) {
+            value = this.literalValues.computeIfAbsent(propertyValueAttribute, literal -> literal);
+        }
+        return new PropertyValue(propertyNameAttribute, value);
+    }
 
+    private void registerBeanDefinition(String beanName, BeanDefinition beanDefinition) {
+        if (getRegistry().containsBeanDefinition(beanName)) {
+            throw new BeanException("Duplicate bean definition found for bean name: " + beanName);
+        } else {
+            getRegistry().registerBeanDefinition(beanName, beanDefinition);
         }
     }
 
+    @Override
+    protected BeanDefinitionReader createLocationReader(BeanDefinitionRegistry registry) {
+        XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(registry, getResourceLoader());
+        reader.setStreaming(this.streaming);
+        reader.setSnapshot(this.snapshot);
+        reader.setClassPreloadExecutor(getClassPreloadExecutor());
+        return reader;
+    }
+
+    public BeanDefinitionSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 设置bean定义快照，按位置加载配置文件时优先从快照还原
+     *
+     * @param snapshot 快照，为null时总是解析配置文件
+     */
+    public void setSnapshot(BeanDefinitionSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * 是否使用流式解析，适用于包含大量bean定义的配置文件
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * 设置是否使用StAX流式解析，默认使用dom4j构建完整的文档
+     *
+     * @param streaming 为true时边读边注册bean定义，不在内存中保留整个文档
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
 }
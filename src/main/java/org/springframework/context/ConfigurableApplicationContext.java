@@ -2,6 +2,8 @@ package org.springframework.context;
 
 import org.springframework.beans.factory.support.BeansException;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface ConfigurableApplicationContext extends ApplicationContext {
 
     /**
@@ -12,12 +14,17 @@ public interface ConfigurableApplicationContext extends ApplicationContext {
     void refresh() throws BeansException;
 
     /**
-     * 关闭应用上下文，销毁所有单例bean
+     * 返回refresh启动的所有异步初始化的单例创建完成时完成的结果，refresh本身不等待这些bean
+     */
+    CompletableFuture<Void> getReadyFuture();
+
+    /**
+     * 关闭应用上下文，按依赖关系的逆序销毁所有单例bean，重复调用时不再销毁
      */
     void close() throws BeansException;
 
     /**
-     * 注册一个关闭钩子，在JVM关闭时调用
+     * 注册一个关闭钩子，在JVM关闭时调用close，重复注册时只注册一次
      */
     void registerShutdownHook();
 
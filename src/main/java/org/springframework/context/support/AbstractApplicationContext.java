@@ -1,9 +1,14 @@
 package org.springframework.context.support;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.springframework.beans.BeanException;
+import org.springframework.beans.factory.BeanHandle;
 import org.springframework.beans.factory.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.PooledBean;
 import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.ConfigurableApplicationContext;
@@ -12,13 +17,35 @@ import org.springframework.core.io.DefaultResourceLoader;
 public abstract class AbstractApplicationContext extends DefaultResourceLoader
         implements ConfigurableApplicationContext {
 
+    /**
+     * 上下文是否已经关闭，保证close和关闭钩子只销毁一次bean
+     */
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private Thread shutdownHook;
+
     @Override
     public void refresh() {
+        prepareRefresh();
         // 创建BeanFactory，并加载BeanDefinition
         refreshBeanFactory();
 
-        ConfigurableListableBeanFactory beanFactory = getBeanFactory();
+        initializeBeanFactory(getBeanFactory());
+    }
+
+    /**
+     * 标记上下文为活动状态
+     */
+    protected void prepareRefresh() {
+        this.closed.set(false);
+    }
 
+    /**
+     * 执行后置处理器、冻结配置并提前实例化单例，完成后bean工厂可以对外提供服务
+     *
+     * @param beanFactory 已加载bean定义的bean工厂
+     */
+    protected void initializeBeanFactory(ConfigurableListableBeanFactory beanFactory) {
         // 设置ApplicationContext到BeanFactory中
         beanFactory.addBeanPostProcessor(new ApplicationContextAwareProcessor(this));
         // 在bean实例化之前，执行BeanFactoryPostProcessor
@@ -27,10 +54,18 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
         // BeanPostProcessor需要提前与其他bean对象实例化之前注册
         registerBeanPostProcessors(beanFactory);
 
-        // 提前实例化单例bean对象
+        // bean定义不再变化，冻结配置以使用只读的查找表
+        beanFactory.freezeConfiguration();
+
+        // 提前实例化单例bean对象，异步初始化的单例通过getReadyFuture等待
         beanFactory.preInstantiateSingletons();
     }
 
+    @Override
+    public CompletableFuture<Void> getReadyFuture() {
+        return getBeanFactory().getReadyFuture();
+    }
+
     /**
      * 获取BeanFactory, 并加载BeanDefinition
      * 
@@ -67,40 +102,149 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 
     @Override
     public <T> T getBean(String name, Class<T> requiredTypeClass) throws BeanException {
-        return getBeanFactory().getBean(name, requiredTypeClass);
+        ConfigurableListableBeanFactory beanFactory = obtainBeanFactory();
+        try {
+            return beanFactory.getBean(name, requiredTypeClass);
+        } finally {
+            releaseBeanFactory(beanFactory);
+        }
+    }
+
+    @Override
+    public <T> T getBean(Class<T> requiredType) throws BeanException {
+        ConfigurableListableBeanFactory beanFactory = obtainBeanFactory();
+        try {
+            return beanFactory.getBean(requiredType);
+        } finally {
+            releaseBeanFactory(beanFactory);
+        }
+    }
+
+    @Override
+    public <T> BeanHandle<T> getBeanHandle(String name, Class<T> requiredType) throws BeanException {
+        ConfigurableListableBeanFactory beanFactory = obtainBeanFactory();
+        try {
+            return beanFactory.getBeanHandle(name, requiredType);
+        } finally {
+            releaseBeanFactory(beanFactory);
+        }
+    }
+
+    @Override
+    public <T> BeanHandle<T> getBeanHandle(Class<T> requiredType) throws BeanException {
+        ConfigurableListableBeanFactory beanFactory = obtainBeanFactory();
+        try {
+            return beanFactory.getBeanHandle(requiredType);
+        } finally {
+            releaseBeanFactory(beanFactory);
+        }
+    }
+
+    @Override
+    public <T> PooledBean<T> borrowBean(String name, Class<T> requiredType) throws BeanException {
+        ConfigurableListableBeanFactory beanFactory = obtainBeanFactory();
+        try {
+            return beanFactory.borrowBean(name, requiredType);
+        } finally {
+            releaseBeanFactory(beanFactory);
+        }
+    }
+
+    @Override
+    public <T> PooledBean<T> borrowBean(String name, Class<T> requiredType, long timeout, TimeUnit unit)
+            throws BeanException {
+        ConfigurableListableBeanFactory beanFactory = obtainBeanFactory();
+        try {
+            return beanFactory.borrowBean(name, requiredType, timeout, unit);
+        } finally {
+            releaseBeanFactory(beanFactory);
+        }
     }
 
     @Override
     public <T> Map<String, T> getBeansOfType(Class<T> type) throws BeanException {
-        return getBeanFactory().getBeansOfType(type);
+        ConfigurableListableBeanFactory beanFactory = obtainBeanFactory();
+        try {
+            return beanFactory.getBeansOfType(type);
+        } finally {
+            releaseBeanFactory(beanFactory);
+        }
     }
 
     public Object getBean(String name) throws BeanException {
-        return getBeanFactory().getBean(name);
+        ConfigurableListableBeanFactory beanFactory = obtainBeanFactory();
+        try {
+            return beanFactory.getBean(name);
+        } finally {
+            releaseBeanFactory(beanFactory);
+        }
     }
 
     public String[] getBeanDefinitionNames() {
-        return getBeanFactory().getBeanDefinitionNames();
+        ConfigurableListableBeanFactory beanFactory = obtainBeanFactory();
+        try {
+            return beanFactory.getBeanDefinitionNames();
+        } finally {
+            releaseBeanFactory(beanFactory);
+        }
     }
 
     public abstract ConfigurableListableBeanFactory getBeanFactory();
 
+    /**
+     * 获取处理一次调用使用的bean工厂，调用结束后必须通过releaseBeanFactory归还。
+     * 支持热刷新的上下文据此统计仍在使用旧bean工厂的调用
+     */
+    protected ConfigurableListableBeanFactory obtainBeanFactory() {
+        return getBeanFactory();
+    }
+
+    /**
+     * 归还obtainBeanFactory获取的bean工厂
+     */
+    protected void releaseBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+    }
+
     public void close() {
         doClose();
+        Thread shutdownHook;
+        synchronized (this) {
+            shutdownHook = this.shutdownHook;
+            this.shutdownHook = null;
+        }
+        if (shutdownHook != null) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // JVM正在关闭，钩子已经在运行
+            }
+        }
     }
 
-    public void registerShutdownHook() {
-        Thread shutdownHook = new Thread() {
+    public synchronized void registerShutdownHook() {
+        if (this.shutdownHook != null) {
+            return;
+        }
+        this.shutdownHook = new Thread("ContextShutdownHook") {
             @Override
             public void run() {
                 doClose();
             }
         };
-        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        Runtime.getRuntime().addShutdownHook(this.shutdownHook);
     }
 
+    /**
+     * 关闭上下文，只有第一次调用会销毁bean
+     */
     protected void doClose() {
-        destroyBeans();
+        if (this.closed.compareAndSet(false, true)) {
+            destroyBeans();
+        }
+    }
+
+    public boolean isClosed() {
+        return this.closed.get();
     }
 
     /**
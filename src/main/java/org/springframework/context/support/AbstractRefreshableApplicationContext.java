@@ -1,22 +1,188 @@
 package org.springframework.context.support;
 
 import org.springframework.beans.BeanException;
+import org.springframework.beans.factory.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 支持热刷新的应用上下文。刷新时在后台完整构建新的bean工厂，完成后原子地替换当前的bean工厂；
+ * 替换前开始的调用继续使用旧的bean工厂，旧bean工厂在这些调用全部结束、并经过宽限期后销毁。
+ * 需要在一组操作中持续使用同一代bean工厂及其bean时，通过acquireBeanFactory获取租约，租约关闭前不会销毁。
+ * 刷新失败时继续使用旧的bean工厂。调用方持有的bean实例、句柄不会随刷新替换，需要重新获取
+ */
 public abstract class AbstractRefreshableApplicationContext extends AbstractApplicationContext {
 
-    private DefaultListableBeanFactory beanFactory;
+    /**
+     * 旧bean工厂在最后一个调用结束后到销毁前的默认宽限期（毫秒）
+     */
+    public static final long DEFAULT_RETIRE_GRACE_PERIOD = 1_000;
+
+    /**
+     * 当前对外提供服务的bean工厂
+     */
+    private volatile BeanFactoryGeneration generation;
+
+    /**
+     * 已被替换、等待调用结束后销毁的bean工厂
+     */
+    private final Map<ConfigurableListableBeanFactory, BeanFactoryGeneration> retiredGenerations =
+            new ConcurrentHashMap<>();
+
+    private final Object refreshMonitor = new Object();
+
+    private volatile long retireGracePeriod = DEFAULT_RETIRE_GRACE_PERIOD;
+
+    /**
+     * 构建新的bean工厂并替换当前的bean工厂，已有的bean工厂按热刷新的方式退役
+     */
+    @Override
+    public void refresh() throws BeanException {
+        hotRefresh();
+    }
+
+    /**
+     * 热刷新：在当前线程中完整构建新的bean工厂（加载bean定义、执行后置处理器、实例化单例），
+     * 构建期间调用仍由旧的bean工厂处理；构建完成后替换，旧bean工厂在正在进行的调用结束后异步销毁
+     *
+     * @return 旧bean工厂销毁完成时完成的结果，销毁失败时异常完成；首次刷新时立即完成
+     * @throws BeanException 如果构建新的bean工厂失败，此时继续使用旧的bean工厂
+     */
+    public CompletableFuture<Void> hotRefresh() throws BeanException {
+        synchronized (this.refreshMonitor) {
+            DefaultListableBeanFactory beanFactory = buildBeanFactory();
+            try {
+                initializeBeanFactory(beanFactory);
+            } catch (RuntimeException e) {
+                try {
+                    beanFactory.destroySingletons();
+                } catch (RuntimeException destroyFailure) {
+                    e.addSuppressed(destroyFailure);
+                }
+                throw e;
+            }
+            prepareRefresh();
+            return publish(beanFactory);
+        }
+    }
 
     /**
-     * 创建BeanFactory，并加载BeanDefinition
+     * 创建BeanFactory，并加载BeanDefinition后立即替换当前的bean工厂。
+     * 本类的refresh使用hotRefresh，在bean工厂初始化完成之后才替换
      */
     @Override
     protected final void refreshBeanFactory() throws BeanException {
+        publish(buildBeanFactory());
+    }
+
+    private DefaultListableBeanFactory buildBeanFactory() {
         // 创建BeanFactory
         DefaultListableBeanFactory beanFactory = createBeanFactory();
+        beanFactory.setDefaultLazyInit(isDefaultLazyInit());
         // 加载BeanDefinition
         loadBeanDefinitions(beanFactory);
-        this.beanFactory = beanFactory;
+        return beanFactory;
+    }
+
+    /**
+     * 替换当前的bean工厂，并让旧的bean工厂退役
+     */
+    private CompletableFuture<Void> publish(DefaultListableBeanFactory beanFactory) {
+        BeanFactoryGeneration previous = this.generation;
+        if (previous != null) {
+            // 先登记再替换，替换后归还旧bean工厂的调用才能找到它
+            this.retiredGenerations.put(previous.beanFactory, previous);
+        }
+        this.generation = new BeanFactoryGeneration(beanFactory);
+        if (previous == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        previous.retired = true;
+        if (previous.inFlight.get() == 0) {
+            destroyRetired(previous);
+        }
+        return previous.destroyed;
+    }
+
+    private void destroyRetired(BeanFactoryGeneration generation) {
+        if (!generation.destroying.compareAndSet(false, true)) {
+            return;
+        }
+        // 不在归还bean工厂的调用线程中执行销毁方法
+        Thread.ofVirtual().name("retire-bean-factory").start(() -> {
+            try {
+                // 给刚通过getBean取得bean、仍在使用它们的调用方留出时间
+                long gracePeriod = this.retireGracePeriod;
+                if (gracePeriod > 0) {
+                    TimeUnit.MILLISECONDS.sleep(gracePeriod);
+                }
+                generation.beanFactory.destroySingletons();
+                generation.destroyed.complete(null);
+            } catch (Throwable e) {
+                generation.destroyed.completeExceptionally(e);
+            } finally {
+                this.retiredGenerations.remove(generation.beanFactory);
+            }
+        });
+    }
+
+    /**
+     * 获取当前bean工厂的租约。租约关闭前即使发生刷新，这一代bean工厂及其单例也不会被销毁，
+     * 适用于需要在整个工作单元中使用同一批bean的调用方
+     *
+     * @return 租约，使用完后必须关闭
+     * @throws BeanException 如果上下文还没有刷新
+     */
+    public BeanFactoryLease acquireBeanFactory() throws BeanException {
+        BeanFactoryGeneration generation = obtainGeneration();
+        if (generation == null) {
+            throw new BeanException("Application context has not been refreshed yet");
+        }
+        return new BeanFactoryLease(this, generation);
+    }
+
+    @Override
+    protected ConfigurableListableBeanFactory obtainBeanFactory() {
+        BeanFactoryGeneration generation = obtainGeneration();
+        return generation != null ? generation.beanFactory : null;
+    }
+
+    private BeanFactoryGeneration obtainGeneration() {
+        while (true) {
+            BeanFactoryGeneration generation = this.generation;
+            if (generation == null) {
+                return null;
+            }
+            generation.inFlight.incrementAndGet();
+            // 计数之后再确认没有被替换，否则旧bean工厂可能在调用过程中被销毁
+            if (generation == this.generation) {
+                return generation;
+            }
+            release(generation);
+        }
+    }
+
+    @Override
+    protected void releaseBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        BeanFactoryGeneration generation = this.generation;
+        if (generation == null || generation.beanFactory != beanFactory) {
+            generation = this.retiredGenerations.get(beanFactory);
+        }
+        if (generation != null) {
+            release(generation);
+        }
+    }
+
+    private void release(BeanFactoryGeneration generation) {
+        if (generation.inFlight.decrementAndGet() == 0 && generation.retired) {
+            destroyRetired(generation);
+        }
     }
 
     /**
@@ -26,13 +192,92 @@ public abstract class AbstractRefreshableApplicationContext extends AbstractAppl
         return new DefaultListableBeanFactory();
     }
 
+    /**
+     * 未显式声明lazy-init的bean是否延迟初始化，默认在刷新时创建所有单例
+     */
+    protected boolean isDefaultLazyInit() {
+        return false;
+    }
+
     /**
      * 加载BeanDefinition
      */
     protected abstract void loadBeanDefinitions(DefaultListableBeanFactory beanFactory);
 
     public DefaultListableBeanFactory getBeanFactory() {
-        return beanFactory;
+        BeanFactoryGeneration generation = this.generation;
+        return generation != null ? generation.beanFactory : null;
     }
 
+    /**
+     * 设置旧bean工厂在最后一个调用结束后到销毁前的宽限期
+     *
+     * @param retireGracePeriod 毫秒数，0表示立即销毁
+     */
+    public void setRetireGracePeriod(long retireGracePeriod) {
+        if (retireGracePeriod < 0) {
+            throw new IllegalArgumentException("Retire grace period must not be negative: " + retireGracePeriod);
+        }
+        this.retireGracePeriod = retireGracePeriod;
+    }
+
+    public long getRetireGracePeriod() {
+        return retireGracePeriod;
+    }
+
+    /**
+     * 一代bean工厂的租约，关闭前这一代bean工厂不会被销毁。关闭多次只归还一次
+     */
+    public static final class BeanFactoryLease implements AutoCloseable {
+
+        private final AbstractRefreshableApplicationContext context;
+
+        private final BeanFactoryGeneration generation;
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private BeanFactoryLease(AbstractRefreshableApplicationContext context, BeanFactoryGeneration generation) {
+            this.context = context;
+            this.generation = generation;
+        }
+
+        public DefaultListableBeanFactory getBeanFactory() {
+            return generation.beanFactory;
+        }
+
+        public Object getBean(String name) throws BeanException {
+            return generation.beanFactory.getBean(name);
+        }
+
+        public <T> T getBean(String name, Class<T> requiredType) throws BeanException {
+            return generation.beanFactory.getBean(name, requiredType);
+        }
+
+        @Override
+        public void close() {
+            if (this.closed.compareAndSet(false, true)) {
+                context.release(generation);
+            }
+        }
+    }
+
+    /**
+     * 一代bean工厂及正在使用它的调用数
+     */
+    private static final class BeanFactoryGeneration {
+
+        final DefaultListableBeanFactory beanFactory;
+
+        final AtomicInteger inFlight = new AtomicInteger();
+
+        final AtomicBoolean destroying = new AtomicBoolean();
+
+        final CompletableFuture<Void> destroyed = new CompletableFuture<>();
+
+        volatile boolean retired;
+
+        BeanFactoryGeneration(DefaultListableBeanFactory beanFactory) {
+            this.beanFactory = beanFactory;
+        }
+    }
 }
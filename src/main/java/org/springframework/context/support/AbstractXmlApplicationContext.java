@@ -1,22 +1,68 @@
 package org.springframework.context.support;
 
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionSnapshot;
 import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
 public abstract class AbstractXmlApplicationContext extends AbstractRefreshableApplicationContext {
 
     @Override
     protected void loadBeanDefinitions(DefaultListableBeanFactory beanFactory) {
         // 创建XmlBeanDefinitionReader读取器
         XmlBeanDefinitionReader beanDefinitionReader = new XmlBeanDefinitionReader(beanFactory);
+        // 多个配置文件并行解析
+        beanDefinitionReader.setParsingExecutor(getConfigLocationExecutor());
+        // 解析的同时提前加载bean类
+        beanDefinitionReader.setClassPreloadExecutor(getClassPreloadExecutor());
         // 获取配置文件路径
         String[] configLocations = getConfigLocations();
         if (configLocations != null) {
+            Path snapshotPath = getBeanDefinitionSnapshotPath();
+            BeanDefinitionSnapshot snapshot = snapshotPath != null ? BeanDefinitionSnapshot.read(snapshotPath) : null;
+            beanDefinitionReader.setSnapshot(snapshot);
             // 加载BeanDefinition
             beanDefinitionReader.loadBeanDefinitions(configLocations);
+            if (snapshot != null) {
+                snapshot.retainLocations(Arrays.asList(configLocations));
+                if (snapshot.isModified()) {
+                    try {
+                        snapshot.write(snapshotPath);
+                    } catch (IOException e) {
+                        // 快照只用于加速启动，写入失败不影响容器
+                    }
+                }
+            }
         }
     }
 
     protected abstract String[] getConfigLocations();
 
+    /**
+     * bean定义快照文件的位置，返回null时不使用快照。
+     * 配置文件内容未变化时从快照还原bean定义，只重新解析有变化的配置文件
+     */
+    protected Path getBeanDefinitionSnapshotPath() {
+        return null;
+    }
+
+    /**
+     * 并行解析配置文件使用的执行器，默认使用公共的ForkJoinPool，返回null时依次解析
+     */
+    protected Executor getConfigLocationExecutor() {
+        return ForkJoinPool.commonPool();
+    }
+
+    /**
+     * 解析配置文件时提前加载bean类使用的执行器，默认返回null，bean类在第一次使用时加载
+     */
+    protected Executor getClassPreloadExecutor() {
+        return null;
+    }
+
 }
@@ -13,6 +13,11 @@ public class ApplicationContextAwareProcessor implements BeanPostProcessor {
         this.applicationContext = applicationContext;
     }
 
+    @Override
+    public boolean supportsBeanType(Class<?> beanClass) {
+        return ApplicationContextAware.class.isAssignableFrom(beanClass);
+    }
+
     @Override
     public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
         if (bean instanceof ApplicationContextAware) {
@@ -6,6 +6,8 @@ public class ClassPathXmlApplicationContext extends AbstractXmlApplicationContex
 
     private String[] configLocations;
 
+    private boolean defaultLazyInit;
+
     /**
      * 从xml文件加载BeanDefinition，并且自动刷新上下文
      *
@@ -25,6 +27,24 @@ public class ClassPathXmlApplicationContext extends AbstractXmlApplicationContex
         refresh();
     }
 
+    /**
+     * 从xml文件加载BeanDefinition，并且自动刷新上下文
+     *
+     * @param defaultLazyInit 未显式声明lazy-init的bean是否延迟初始化
+     * @param configLocations xml配置文件
+     * @throws BeansException 应用上下文创建失败
+     */
+    public ClassPathXmlApplicationContext(boolean defaultLazyInit, String... configLocations) throws BeansException {
+        this.configLocations = configLocations;
+        this.defaultLazyInit = defaultLazyInit;
+        refresh();
+    }
+
+    @Override
+    protected boolean isDefaultLazyInit() {
+        return defaultLazyInit;
+    }
+
     @Override
     protected String[] getConfigLocations() {
         return configLocations;
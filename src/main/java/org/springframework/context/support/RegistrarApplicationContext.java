@@ -0,0 +1,31 @@
+package org.springframework.context.support;
+
+import org.springframework.beans.factory.support.BeanDefinitionRegistrar;
+import org.springframework.beans.factory.support.BeansException;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+/**
+ * 从BeanDefinitionRegistrar加载bean定义的应用上下文，不需要解析XML。
+ * 与构建时生成的注册代码配合使用时，启动过程不依赖dom4j，也不通过反射实例化和注入bean
+ */
+public class RegistrarApplicationContext extends AbstractRefreshableApplicationContext {
+
+    private final BeanDefinitionRegistrar[] registrars;
+
+    /**
+     * 使用给定的注册器加载bean定义，并且自动刷新上下文
+     *
+     * @throws BeansException 应用上下文创建失败
+     */
+    public RegistrarApplicationContext(BeanDefinitionRegistrar... registrars) throws BeansException {
+        this.registrars = registrars;
+        refresh();
+    }
+
+    @Override
+    protected void loadBeanDefinitions(DefaultListableBeanFactory beanFactory) {
+        for (BeanDefinitionRegistrar registrar : registrars) {
+            registrar.registerBeanDefinitions(beanFactory);
+        }
+    }
+}
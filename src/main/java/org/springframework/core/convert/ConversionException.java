@@ -0,0 +1,15 @@
+package org.springframework.core.convert;
+
+/**
+ * 类型转换失败或找不到转换器时抛出的异常
+ */
+public class ConversionException extends RuntimeException {
+
+    public ConversionException(String message) {
+        super(message);
+    }
+
+    public ConversionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
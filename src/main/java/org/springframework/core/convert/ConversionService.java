@@ -0,0 +1,31 @@
+package org.springframework.core.convert;
+
+import org.springframework.core.convert.converter.Converter;
+
+/**
+ * 类型转换服务，按(源类型, 目标类型)查找转换器，查找结果会被缓存
+ */
+public interface ConversionService {
+
+    /**
+     * 判断源类型的值能否转换为目标类型
+     */
+    boolean canConvert(Class<?> sourceType, Class<?> targetType);
+
+    /**
+     * 将值转换为目标类型，值已经是目标类型时原样返回
+     *
+     * @param source     源值，为null时返回null
+     * @param targetType 目标类型，基本类型按包装类型处理
+     * @return 转换后的值
+     * @throws ConversionException 如果找不到转换器或转换失败
+     */
+    <T> T convert(Object source, Class<T> targetType) throws ConversionException;
+
+    /**
+     * 返回将源类型转换为目标类型的转换器，供需要反复转换同一类型对的调用方缓存
+     *
+     * @return 转换器，无法转换时返回null
+     */
+    Converter<Object, Object> getConverter(Class<?> sourceType, Class<?> targetType);
+}
@@ -0,0 +1,20 @@
+package org.springframework.core.convert.converter;
+
+/**
+ * 将源类型的值转换为目标类型，实现必须是线程安全的
+ *
+ * @param <S> 源类型
+ * @param <T> 目标类型
+ */
+@FunctionalInterface
+public interface Converter<S, T> {
+
+    /**
+     * 转换给定的值
+     *
+     * @param source 源值，不为null
+     * @return 转换后的值
+     * @throws IllegalArgumentException 如果源值无法转换
+     */
+    T convert(S source);
+}
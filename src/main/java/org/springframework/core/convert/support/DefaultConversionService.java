@@ -0,0 +1,386 @@
+package org.springframework.core.convert.support;
+
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.utils.DataSize;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 默认的类型转换服务。
+ * 转换器按(源类型, 目标类型)注册，查找时沿源类型的继承层次匹配；
+ * 枚举、数组、集合和数字之间的转换由内置的通用转换器按目标类型生成。
+ * 每个类型对的查找结果（包括无法转换的结果）都会被缓存，注册新的转换器时清空缓存。
+ * 每个bean工厂默认使用自己的实例；getSharedInstance返回的共享实例只读，
+ * 并且不缓存其他类加载器加载的类型，避免阻止这些类被卸载
+ */
+public class DefaultConversionService implements ConversionService {
+
+    private static volatile DefaultConversionService sharedInstance;
+
+    // 值已经是目标类型时使用
+    private static final Converter<Object, Object> NO_OP = source -> source;
+
+    // 缓存中无法转换的类型对的占位
+    private static final Converter<Object, Object> NO_MATCH = source -> {
+        throw new ConversionException("No converter found");
+    };
+
+    private final Map<ConvertiblePair, Converter<Object, Object>> converters = new ConcurrentHashMap<>();
+
+    private final Map<ConvertiblePair, Converter<Object, Object>> converterCache = new ConcurrentHashMap<>();
+
+    // 共享实例不允许注册转换器
+    private volatile boolean readOnly;
+
+    public DefaultConversionService() {
+        addDefaultConverters();
+    }
+
+    /**
+     * 返回共享的只读实例，只包含默认的转换器
+     */
+    public static ConversionService getSharedInstance() {
+        DefaultConversionService instance = sharedInstance;
+        if (instance == null) {
+            synchronized (DefaultConversionService.class) {
+                instance = sharedInstance;
+                if (instance == null) {
+                    instance = new DefaultConversionService();
+                    instance.readOnly = true;
+                    sharedInstance = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 注册转换器，同一类型对的转换器会被覆盖
+     *
+     * @param sourceType 源类型，源值为其子类型时也会使用该转换器
+     * @param targetType 目标类型，基本类型按包装类型注册
+     * @param converter  转换器
+     * @throws IllegalStateException 如果是共享的只读实例
+     */
+    @SuppressWarnings("unchecked")
+    public <S, T> void addConverter(Class<S> sourceType, Class<T> targetType,
+            Converter<? super S, ? extends T> converter) {
+        if (this.readOnly) {
+            throw new IllegalStateException("Cannot register converters on the shared conversion service");
+        }
+        this.converters.put(new ConvertiblePair(sourceType, wrap(targetType)), (Converter<Object, Object>) converter);
+        this.converterCache.clear();
+    }
+
+    @Override
+    public boolean canConvert(Class<?> sourceType, Class<?> targetType) {
+        return getConverter(sourceType, targetType) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T convert(Object source, Class<T> targetType) throws ConversionException {
+        if (source == null) {
+            return null;
+        }
+        Converter<Object, Object> converter = getConverter(source.getClass(), targetType);
+        if (converter == null) {
+            throw new ConversionException("No converter found capable of converting from type ["
+                    + source.getClass().getName() + "] to type [" + targetType.getName() + "]");
+        }
+        try {
+            return (T) converter.convert(source);
+        } catch (ConversionException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new ConversionException("Failed to convert value '" + source + "' from type ["
+                    + source.getClass().getName() + "] to type [" + targetType.getName() + "]", e);
+        }
+    }
+
+    @Override
+    public Converter<Object, Object> getConverter(Class<?> sourceType, Class<?> targetType) {
+        ConvertiblePair key = new ConvertiblePair(sourceType, targetType);
+        Converter<Object, Object> converter = this.converterCache.get(key);
+        if (converter == null) {
+            converter = findConverter(sourceType, wrap(targetType));
+            if (!this.readOnly || (isCacheSafe(sourceType) && isCacheSafe(targetType))) {
+                this.converterCache.put(key, converter != null ? converter : NO_MATCH);
+            }
+        }
+        return converter != NO_MATCH ? converter : null;
+    }
+
+    /**
+     * 类型是否由本类的类加载器或其父加载器加载，只有这些类型可以放入共享实例的缓存
+     */
+    private static boolean isCacheSafe(Class<?> type) {
+        ClassLoader target = type.getClassLoader();
+        if (target == null) {
+            return true;
+        }
+        for (ClassLoader current = DefaultConversionService.class.getClassLoader(); current != null;
+                current = current.getParent()) {
+            if (current == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Converter<Object, Object> findConverter(Class<?> sourceType, Class<?> targetType) {
+        if (targetType.isAssignableFrom(sourceType)) {
+            return NO_OP;
+        }
+        for (Class<?> candidate : getClassHierarchy(sourceType)) {
+            Converter<Object, Object> converter = this.converters.get(new ConvertiblePair(candidate, targetType));
+            if (converter != null) {
+                return converter;
+            }
+        }
+        return findGenericConverter(sourceType, targetType);
+    }
+
+    /**
+     * 按目标类型生成的通用转换器：字符串到枚举、数组和集合，数组与集合之间，以及数字之间的转换
+     */
+    private Converter<Object, Object> findGenericConverter(Class<?> sourceType, Class<?> targetType) {
+        boolean multiValued = sourceType.isArray() || Collection.class.isAssignableFrom(sourceType);
+        if (sourceType == String.class && targetType.isEnum()) {
+            return stringToEnum(targetType);
+        }
+        if (targetType.isArray() && (sourceType == String.class || multiValued)) {
+            Class<?> componentType = targetType.getComponentType();
+            return source -> {
+                List<Object> elements = toList(source);
+                Object array = Array.newInstance(componentType, elements.size());
+                for (int i = 0; i < elements.size(); i++) {
+                    Array.set(array, i, convert(elements.get(i), componentType));
+                }
+                return array;
+            };
+        }
+        if (Collection.class.isAssignableFrom(targetType) && (sourceType == String.class || multiValued)) {
+            // 泛型参数在运行时不可见，元素保持原类型
+            Supplier<Collection<Object>> factory = collectionFactory(targetType);
+            if (factory == null) {
+                return null;
+            }
+            return source -> {
+                Collection<Object> collection = factory.get();
+                collection.addAll(toList(source));
+                return collection;
+            };
+        }
+        if (Number.class.isAssignableFrom(sourceType) && Number.class.isAssignableFrom(targetType)) {
+            return numberConverter(targetType);
+        }
+        return null;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Converter<Object, Object> stringToEnum(Class<?> enumType) {
+        return source -> {
+            String value = ((String) source).trim();
+            return value.isEmpty() ? null : Enum.valueOf((Class) enumType, value);
+        };
+    }
+
+    /**
+     * 字符串按逗号拆分，数组和集合展开为元素列表
+     */
+    private static List<Object> toList(Object source) {
+        if (source instanceof String) {
+            String value = ((String) source).trim();
+            List<Object> elements = new ArrayList<>();
+            if (!value.isEmpty()) {
+                for (String element : value.split(",")) {
+                    elements.add(element.trim());
+                }
+            }
+            return elements;
+        }
+        if (source instanceof Collection) {
+            return new ArrayList<>((Collection<?>) source);
+        }
+        int length = Array.getLength(source);
+        List<Object> elements = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            elements.add(Array.get(source, i));
+        }
+        return elements;
+    }
+
+    private static Supplier<Collection<Object>> collectionFactory(Class<?> collectionType) {
+        if (collectionType.isAssignableFrom(ArrayList.class)) {
+            return ArrayList::new;
+        } else if (collectionType.isAssignableFrom(LinkedHashSet.class)) {
+            return LinkedHashSet::new;
+        } else if (collectionType.isAssignableFrom(TreeSet.class)) {
+            return TreeSet::new;
+        } else if (collectionType.isAssignableFrom(ArrayDeque.class)) {
+            return ArrayDeque::new;
+        }
+        return null;
+    }
+
+    private static Converter<Object, Object> numberConverter(Class<?> targetType) {
+        if (targetType == Integer.class) {
+            return source -> ((Number) source).intValue();
+        } else if (targetType == Long.class) {
+            return source -> ((Number) source).longValue();
+        } else if (targetType == Double.class) {
+            return source -> ((Number) source).doubleValue();
+        } else if (targetType == Float.class) {
+            return source -> ((Number) source).floatValue();
+        } else if (targetType == Short.class) {
+            return source -> ((Number) source).shortValue();
+        } else if (targetType == Byte.class) {
+            return source -> ((Number) source).byteValue();
+        } else if (targetType == BigInteger.class) {
+            return source -> new BigDecimal(source.toString()).toBigInteger();
+        } else if (targetType == BigDecimal.class) {
+            return source -> new BigDecimal(source.toString());
+        }
+        return null;
+    }
+
+    private void addDefaultConverters() {
+        addConverter(String.class, Integer.class, Integer::parseInt);
+        addConverter(String.class, Long.class, Long::parseLong);
+        addConverter(String.class, Double.class, Double::parseDouble);
+        addConverter(String.class, Float.class, Float::parseFloat);
+        addConverter(String.class, Boolean.class, Boolean::parseBoolean);
+        addConverter(String.class, Short.class, Short::parseShort);
+        addConverter(String.class, Byte.class, Byte::parseByte);
+        addConverter(String.class, Character.class, source -> {
+            if (source.length() != 1) {
+                throw new IllegalArgumentException("Cannot convert '" + source + "' to a single character");
+            }
+            return source.charAt(0);
+        });
+        addConverter(String.class, BigInteger.class, source -> new BigInteger(source.trim()));
+        addConverter(String.class, BigDecimal.class, source -> new BigDecimal(source.trim()));
+        addConverter(String.class, Duration.class, DefaultConversionService::parseDuration);
+        addConverter(String.class, DataSize.class, DataSize::parse);
+    }
+
+    /**
+     * 解析ISO-8601格式（如"PT30S"）或简单格式（如"500ms"、"30s"、"5m"、"2h"、"1d"）的时长，
+     * 简单格式未指定单位时为毫秒
+     */
+    static Duration parseDuration(String text) {
+        String value = text.trim();
+        if (value.startsWith("P") || value.startsWith("-P") || value.startsWith("p") || value.startsWith("-p")) {
+            return Duration.parse(value);
+        }
+        int unitStart = value.length();
+        while (unitStart > 0 && !Character.isDigit(value.charAt(unitStart - 1))) {
+            unitStart--;
+        }
+        if (unitStart == 0) {
+            throw new IllegalArgumentException("'" + text + "' is not a valid duration");
+        }
+        long amount = Long.parseLong(value.substring(0, unitStart).trim());
+        switch (value.substring(unitStart).trim().toLowerCase(Locale.ROOT)) {
+            case "ns":
+                return Duration.ofNanos(amount);
+            case "us":
+                return Duration.ofNanos(Math.multiplyExact(amount, 1000L));
+            case "":
+            case "ms":
+                return Duration.ofMillis(amount);
+            case "s":
+                return Duration.ofSeconds(amount);
+            case "m":
+                return Duration.ofMinutes(amount);
+            case "h":
+                return Duration.ofHours(amount);
+            case "d":
+                return Duration.ofDays(amount);
+            default:
+                throw new IllegalArgumentException("Unknown duration unit in '" + text + "'");
+        }
+    }
+
+    /**
+     * 源类型自身、父类和实现的接口，按由近及远的顺序排列
+     */
+    private static List<Class<?>> getClassHierarchy(Class<?> type) {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        Set<Class<?>> visited = new LinkedHashSet<>();
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        queue.add(type);
+        while (!queue.isEmpty()) {
+            Class<?> candidate = queue.poll();
+            if (!visited.add(candidate)) {
+                continue;
+            }
+            hierarchy.add(candidate);
+            if (candidate.getSuperclass() != null) {
+                queue.add(candidate.getSuperclass());
+            }
+            queue.addAll(Arrays.asList(candidate.getInterfaces()));
+        }
+        // Object最后匹配
+        if (hierarchy.remove(Object.class)) {
+            hierarchy.add(Object.class);
+        }
+        return hierarchy;
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    /**
+     * 源类型与目标类型组成的键
+     */
+    private static final class ConvertiblePair {
+
+        private final Class<?> sourceType;
+
+        private final Class<?> targetType;
+
+        ConvertiblePair(Class<?> sourceType, Class<?> targetType) {
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ConvertiblePair)) {
+                return false;
+            }
+            ConvertiblePair pair = (ConvertiblePair) other;
+            return sourceType == pair.sourceType && targetType == pair.targetType;
+        }
+
+        @Override
+        public int hashCode() {
+            return sourceType.hashCode() * 31 + targetType.hashCode();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.springframework.core.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+/**
+ * 基于字节数组的资源，用于解析已经读入内存的内容
+ */
+public class ByteArrayResource implements Resource {
+
+    private final byte[] byteArray;
+
+    private final String description;
+
+    public ByteArrayResource(byte[] byteArray) {
+        this(byteArray, "resource loaded from byte array");
+    }
+
+    public ByteArrayResource(byte[] byteArray, String description) {
+        this.byteArray = byteArray;
+        this.description = description;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(this.byteArray);
+    }
+
+    public byte[] getByteArray() {
+        return byteArray;
+    }
+
+    @Override
+    public String toString() {
+        return "Byte array resource [" + description + "]";
+    }
+}
@@ -0,0 +1,119 @@
+package org.springframework.utils;
+
+import java.util.Locale;
+
+/**
+ * 数据大小，以字节为单位保存，单位按1024进制换算。
+ * 支持"512"、"512B"、"64KB"、"10MB"、"1GB"、"2TB"格式的字符串，未指定单位时为字节
+ */
+public final class DataSize implements Comparable<DataSize> {
+
+    private static final long BYTES_PER_KB = 1024;
+
+    private static final long BYTES_PER_MB = BYTES_PER_KB * 1024;
+
+    private static final long BYTES_PER_GB = BYTES_PER_MB * 1024;
+
+    private static final long BYTES_PER_TB = BYTES_PER_GB * 1024;
+
+    private final long bytes;
+
+    private DataSize(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public static DataSize ofBytes(long bytes) {
+        return new DataSize(bytes);
+    }
+
+    public static DataSize ofKilobytes(long kilobytes) {
+        return new DataSize(Math.multiplyExact(kilobytes, BYTES_PER_KB));
+    }
+
+    public static DataSize ofMegabytes(long megabytes) {
+        return new DataSize(Math.multiplyExact(megabytes, BYTES_PER_MB));
+    }
+
+    public static DataSize ofGigabytes(long gigabytes) {
+        return new DataSize(Math.multiplyExact(gigabytes, BYTES_PER_GB));
+    }
+
+    public static DataSize ofTerabytes(long terabytes) {
+        return new DataSize(Math.multiplyExact(terabytes, BYTES_PER_TB));
+    }
+
+    /**
+     * 解析数据大小字符串，单位不区分大小写
+     *
+     * @param text 如"64KB"，未指定单位时为字节
+     * @return 数据大小
+     * @throws IllegalArgumentException 如果格式不正确
+     */
+    public static DataSize parse(CharSequence text) {
+        String value = text.toString().trim().toUpperCase(Locale.ROOT);
+        int unitStart = value.length();
+        while (unitStart > 0 && !Character.isDigit(value.charAt(unitStart - 1))) {
+            unitStart--;
+        }
+        if (unitStart == 0) {
+            throw new IllegalArgumentException("'" + text + "' is not a valid data size");
+        }
+        long amount;
+        try {
+            amount = Long.parseLong(value.substring(0, unitStart).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + text + "' is not a valid data size", e);
+        }
+        switch (value.substring(unitStart).trim()) {
+            case "":
+            case "B":
+                return ofBytes(amount);
+            case "KB":
+                return ofKilobytes(amount);
+            case "MB":
+                return ofMegabytes(amount);
+            case "GB":
+                return ofGigabytes(amount);
+            case "TB":
+                return ofTerabytes(amount);
+            default:
+                throw new IllegalArgumentException("Unknown data unit in '" + text + "'");
+        }
+    }
+
+    public long toBytes() {
+        return bytes;
+    }
+
+    public long toKilobytes() {
+        return bytes / BYTES_PER_KB;
+    }
+
+    public long toMegabytes() {
+        return bytes / BYTES_PER_MB;
+    }
+
+    public long toGigabytes() {
+        return bytes / BYTES_PER_GB;
+    }
+
+    @Override
+    public int compareTo(DataSize other) {
+        return Long.compare(bytes, other.bytes);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof DataSize && bytes == ((DataSize) other).bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(bytes);
+    }
+
+    @Override
+    public String toString() {
+        return bytes + "B";
+    }
+}
@@ -0,0 +1,91 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.PropertyValues;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanReference;
+import org.springframework.beans.factory.support.AsmInstantiationStrategy;
+import org.springframework.beans.factory.support.BeanDefinitionCache;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ASM生成实例化器的测试
+ */
+public class AsmInstantiationStrategyTest {
+
+    public static class GeneratedBean {
+        private String name;
+        private int age;
+        private Car car;
+        private String injectedBy;
+
+        public void setName(String name) {
+            this.name = name;
+            // 记录调用setter的类，用于确认是生成的代码完成的注入
+            this.injectedBy = StackWalker.getInstance(StackWalker.Option.SHOW_HIDDEN_FRAMES)
+                    .walk(frames -> frames.skip(1).findFirst()).get().getClassName();
+        }
+
+        public GeneratedBean setAge(int age) {
+            this.age = age;
+            return this;
+        }
+
+        public void setCar(Car car) {
+            this.car = car;
+        }
+    }
+
+    public static class FieldOnlyBean {
+        private String name;
+    }
+
+    @Test
+    public void testGeneratedInstantiatorAppliesPropertyValues() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.setInstantiationStrategy(new AsmInstantiationStrategy());
+
+        PropertyValues carPropertyValues = new PropertyValues();
+        carPropertyValues.addPropertyValue(new PropertyValue("brand", "porsche"));
+        beanFactory.registerBeanDefinition("car", new BeanDefinition(Car.class, carPropertyValues));
+
+        PropertyValues propertyValues = new PropertyValues();
+        propertyValues.addPropertyValue(new PropertyValue("name", "derek"));
+        propertyValues.addPropertyValue(new PropertyValue("age", "18"));
+        propertyValues.addPropertyValue(new PropertyValue("car", new BeanReference("car")));
+        beanFactory.registerBeanDefinition("bean", new BeanDefinition(GeneratedBean.class, propertyValues));
+
+        GeneratedBean bean = beanFactory.getBean("bean", GeneratedBean.class);
+        assertThat(bean.getClass()).isEqualTo(GeneratedBean.class);
+        assertThat(bean.name).isEqualTo("derek");
+        assertThat(bean.age).isEqualTo(18);
+        assertThat(bean.car).isSameAs(beanFactory.getBean("car"));
+        assertThat(bean.car.getBrand()).isEqualTo("porsche");
+        assertThat(bean.injectedBy).contains("$$BeanInstantiator");
+        // 实例化计划保存在bean定义中，不由策略另行持有
+        BeanDefinitionCache cache = BeanDefinitionCache.forBeanDefinition(beanFactory.getBeanDefinition("bean"));
+        assertThat(cache.getInstantiationPlan()).isNotNull();
+    }
+
+    @Test
+    public void testFallsBackForFieldInjection() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.setInstantiationStrategy(new AsmInstantiationStrategy());
+        PropertyValues propertyValues = new PropertyValues();
+        propertyValues.addPropertyValue(new PropertyValue("name", "derek"));
+        beanFactory.registerBeanDefinition("bean", new BeanDefinition(FieldOnlyBean.class, propertyValues));
+
+        FieldOnlyBean bean = beanFactory.getBean("bean", FieldOnlyBean.class);
+        assertThat(bean.name).isEqualTo("derek");
+    }
+
+    @Test
+    public void testInstantiateWithoutPropertyValues() {
+        AsmInstantiationStrategy strategy = new AsmInstantiationStrategy();
+        Object bean = strategy.instantiate(new BeanDefinition(HelloService.class), "helloService", null);
+        assertThat(bean).isExactlyInstanceOf(HelloService.class);
+    }
+}
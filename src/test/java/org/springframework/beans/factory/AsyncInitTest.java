@@ -0,0 +1,172 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanReference;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 异步初始化单例及就绪屏障的测试
+ */
+public class AsyncInitTest {
+
+    private static volatile CountDownLatch gate = new CountDownLatch(0);
+
+    @Test
+    public void testPreInstantiationDoesNotWaitForAsyncBeans() throws Exception {
+        gate = new CountDownLatch(1);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        registerWarmUp(beanFactory, "warmUp", false);
+        beanFactory.registerBeanDefinition("car", new BeanDefinition(Car.class));
+
+        beanFactory.preInstantiateSingletons();
+        // 同步单例已创建，异步单例还在初始化
+        assertThat(beanFactory.containsSingleton("car")).isTrue();
+        CompletableFuture<Void> ready = beanFactory.getReadyFuture();
+        assertThat(ready).isNotDone();
+
+        gate.countDown();
+        ready.get(5, TimeUnit.SECONDS);
+        WarmUp warmUp = (WarmUp) beanFactory.getBean("warmUp");
+        assertThat(warmUp.getInitCalls()).isEqualTo(1);
+        assertThat(beanFactory.getInitializationFuture("warmUp").get()).isSameAs(warmUp);
+        assertThat(beanFactory.getInitializationFuture("car").get()).isSameAs(beanFactory.getBean("car"));
+    }
+
+    @Test
+    public void testDependentWaitsForAsyncBean() throws Exception {
+        gate = new CountDownLatch(1);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        registerWarmUp(beanFactory, "warmUp", false);
+        BeanDefinition consumer = new BeanDefinition(Consumer.class);
+        consumer.getPropertyValues().addPropertyValue(new PropertyValue("warmUp", new BeanReference("warmUp")));
+        consumer.setLazyInit(true);
+        beanFactory.registerBeanDefinition("consumer", consumer);
+        beanFactory.preInstantiateSingletons();
+
+        CompletableFuture<Object> consumerFuture = CompletableFuture.supplyAsync(() -> beanFactory.getBean("consumer"));
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertThat(consumerFuture).isNotDone();
+
+        gate.countDown();
+        Consumer created = (Consumer) consumerFuture.get(5, TimeUnit.SECONDS);
+        // 注入的是初始化完成的bean，初始化只执行一次
+        assertThat(created.getWarmUp()).isSameAs(beanFactory.getInitializationFuture("warmUp").get());
+        assertThat(created.getWarmUp().getInitCalls()).isEqualTo(1);
+    }
+
+    @Test
+    public void testWaitingAsyncBeansDoNotPinCarrierThreads() throws Exception {
+        gate = new CountDownLatch(1);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        int beans = Runtime.getRuntime().availableProcessors() * 2 + 1;
+        for (int i = 0; i < beans; i++) {
+            registerWarmUp(beanFactory, "warmUp" + i, false);
+        }
+        beanFactory.preInstantiateSingletons();
+
+        // 所有异步bean都在初始化方法中等待时，其他虚拟线程仍然可以运行
+        CountDownLatch ran = new CountDownLatch(1);
+        Thread.ofVirtual().start(ran::countDown);
+        try {
+            assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            gate.countDown();
+        }
+        beanFactory.getReadyFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testFailureCompletesReadyFutureExceptionally() {
+        gate = new CountDownLatch(0);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        registerWarmUp(beanFactory, "broken", true);
+        beanFactory.preInstantiateSingletons();
+
+        assertThatThrownBy(() -> beanFactory.getReadyFuture().get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class);
+        assertThat(beanFactory.getInitializationFuture("broken")).isCompletedExceptionally();
+        assertThat(beanFactory.containsSingleton("broken")).isFalse();
+    }
+
+    @Test
+    public void testXmlAsyncInitAttribute() throws Exception {
+        gate = new CountDownLatch(0);
+        Path file = Files.createTempFile("async-init", ".xml");
+        try {
+            Files.write(file, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><beans>"
+                    + "<bean id=\"warmUp\" class=\"" + WarmUp.class.getName() + "\" init-method=\"init\""
+                    + " async-init=\"true\"/>"
+                    + "</beans>").getBytes(StandardCharsets.UTF_8));
+            ClassPathXmlApplicationContext applicationContext = new ClassPathXmlApplicationContext(file.toString());
+            assertThat(applicationContext.getBeanFactory().getBeanDefinition("warmUp").isAsyncInit()).isTrue();
+
+            applicationContext.getReadyFuture().get(5, TimeUnit.SECONDS);
+            assertThat(applicationContext.getBean("warmUp", WarmUp.class).getInitCalls()).isEqualTo(1);
+            applicationContext.close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void registerWarmUp(DefaultListableBeanFactory beanFactory, String beanName, boolean fail) {
+        BeanDefinition beanDefinition = new BeanDefinition(WarmUp.class);
+        beanDefinition.setAsyncInit(true);
+        beanDefinition.setInitMethodName("init");
+        beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("fail", fail));
+        beanFactory.registerBeanDefinition(beanName, beanDefinition);
+    }
+
+    public static class WarmUp {
+
+        private final AtomicInteger initCalls = new AtomicInteger();
+
+        private boolean fail;
+
+        public void setFail(boolean fail) {
+            this.fail = fail;
+        }
+
+        public void init() throws InterruptedException {
+            if (!gate.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("warm-up gate was not opened");
+            }
+            if (fail) {
+                throw new IllegalStateException("warm-up failed");
+            }
+            initCalls.incrementAndGet();
+        }
+
+        public int getInitCalls() {
+            return initCalls.get();
+        }
+    }
+
+    public static class Consumer {
+
+        private WarmUp warmUp;
+
+        public WarmUp getWarmUp() {
+            return warmUp;
+        }
+
+        public void setWarmUp(WarmUp warmUp) {
+            this.warmUp = warmUp;
+        }
+    }
+}
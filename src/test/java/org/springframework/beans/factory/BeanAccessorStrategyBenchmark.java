@@ -0,0 +1,53 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.MethodInvoker;
+import org.springframework.beans.factory.support.BeanAccessorStrategy;
+import org.springframework.beans.factory.support.CachedIntrospectionResults;
+import org.springframework.beans.factory.support.MethodHandleBeanAccessorStrategy;
+import org.springframework.beans.factory.support.ReflectiveBeanAccessorStrategy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 反射与MethodHandle两种访问器策略的基准测试，只输出结果，不随单元测试运行，通过 mvn -Pbenchmark test 运行
+ */
+public class BeanAccessorStrategyBenchmark {
+
+    /**
+     * 反射与MethodHandle访问器策略
+     */
+    @Test
+    public void accessorStrategies() throws Exception {
+        int warmUp = 200_000;
+        int iterations = 2_000_000;
+        for (BeanAccessorStrategy strategy : new BeanAccessorStrategy[] { ReflectiveBeanAccessorStrategy.INSTANCE,
+                MethodHandleBeanAccessorStrategy.INSTANCE }) {
+            CachedIntrospectionResults results = CachedIntrospectionResults.forClass(
+                    BeanAccessorStrategyTest.AccessorBean.class, strategy);
+            CachedIntrospectionResults.PropertyInjector name = results.getPropertyInjector("name");
+            CachedIntrospectionResults.PropertyInjector age = results.getPropertyInjector("age");
+            CachedIntrospectionResults.PropertyInjector version = results.getPropertyInjector("version");
+            MethodInvoker init = results.getMethodInvoker("init");
+            Integer ageValue = 18;
+            Long versionValue = 3L;
+
+            long checksum = 0;
+            long start = 0;
+            for (int i = 0; i < warmUp + iterations; i++) {
+                if (i == warmUp) {
+                    start = System.nanoTime();
+                }
+                BeanAccessorStrategyTest.AccessorBean bean = new BeanAccessorStrategyTest.AccessorBean();
+                name.inject(bean, "derek");
+                age.inject(bean, ageValue);
+                version.inject(bean, versionValue);
+                init.invoke(bean);
+                checksum += bean.age + bean.initCount;
+            }
+            long elapsed = System.nanoTime() - start;
+            assertThat(checksum).isEqualTo(19L * (warmUp + iterations));
+            System.out.println(strategy.getClass().getSimpleName() + ": " + elapsed / iterations + " ns/bean");
+        }
+    }
+}
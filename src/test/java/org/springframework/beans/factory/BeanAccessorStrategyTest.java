@@ -0,0 +1,60 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.PropertyValues;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.BeanAccessorStrategy;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.MethodHandleBeanAccessorStrategy;
+import org.springframework.beans.factory.support.ReflectiveBeanAccessorStrategy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 反射与MethodHandle两种访问器策略的测试，性能比较见BeanAccessorStrategyBenchmark
+ */
+public class BeanAccessorStrategyTest {
+
+    public static class AccessorBean {
+        String name;
+        int age;
+        // 没有setter，只能直接设置字段
+        long version;
+        int initCount;
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public void init() {
+            initCount++;
+        }
+    }
+
+    @Test
+    public void testStrategiesProduceSameBean() {
+        for (BeanAccessorStrategy strategy : new BeanAccessorStrategy[] { ReflectiveBeanAccessorStrategy.INSTANCE,
+                MethodHandleBeanAccessorStrategy.INSTANCE }) {
+            DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+            beanFactory.setBeanAccessorStrategy(strategy);
+            PropertyValues propertyValues = new PropertyValues();
+            propertyValues.addPropertyValue(new PropertyValue("name", "derek"));
+            propertyValues.addPropertyValue(new PropertyValue("age", "18"));
+            propertyValues.addPropertyValue(new PropertyValue("version", 3L));
+            BeanDefinition beanDefinition = new BeanDefinition(AccessorBean.class, propertyValues);
+            beanDefinition.setInitMethodName("init");
+            beanFactory.registerBeanDefinition("bean", beanDefinition);
+
+            AccessorBean bean = beanFactory.getBean("bean", AccessorBean.class);
+            assertThat(bean.name).isEqualTo("derek");
+            assertThat(bean.age).isEqualTo(18);
+            assertThat(bean.version).isEqualTo(3L);
+            assertThat(bean.initCount).isEqualTo(1);
+        }
+    }
+}
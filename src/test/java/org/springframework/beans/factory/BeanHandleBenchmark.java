@@ -0,0 +1,47 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * bean句柄查找的基准测试，只输出结果，不随单元测试运行，通过 mvn -Pbenchmark test 运行
+ */
+public class BeanHandleBenchmark {
+
+    /**
+     * bean句柄与getBean(String, Class)
+     */
+    @Test
+    public void handleLookup() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        for (int i = 0; i < 1000; i++) {
+            beanFactory.registerBeanDefinition("car" + i, new BeanDefinition(Car.class));
+        }
+        beanFactory.freezeConfiguration();
+        beanFactory.preInstantiateSingletons();
+        BeanHandle<Car> handle = beanFactory.getBeanHandle("car500", Car.class);
+
+        int iterations = 10_000_000;
+        int found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (handle.getObject() != null) {
+                found++;
+            }
+        }
+        long handleNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (beanFactory.getBean("car500", Car.class) != null) {
+                found++;
+            }
+        }
+        long getBeanNanos = System.nanoTime() - start;
+        assertThat(found).isEqualTo(iterations * 2);
+        System.out.println("handle: " + handleNanos * 1000 / iterations + " ps/lookup, getBean(String, Class): "
+                + getBeanNanos * 1000 / iterations + " ps/lookup");
+    }
+}
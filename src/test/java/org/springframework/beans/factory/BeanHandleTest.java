@@ -0,0 +1,55 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * bean句柄的测试
+ */
+public class BeanHandleTest {
+
+    @Test
+    public void testHandleByNameAndType() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("car", new BeanDefinition(Car.class));
+        beanFactory.registerBeanDefinition("person", new BeanDefinition(Person.class));
+
+        BeanHandle<Car> byName = beanFactory.getBeanHandle("car", Car.class);
+        BeanHandle<Person> byType = beanFactory.getBeanHandle(Person.class);
+        assertThat(byName.getObject()).isSameAs(beanFactory.getBean("car"));
+        assertThat(byType.getObject()).isSameAs(beanFactory.getBean("person"));
+        assertThat(byType.getBeanName()).isEqualTo("person");
+        assertThat(beanFactory.getBeanHandle("car", Car.class)).isSameAs(byName);
+
+        assertThatThrownBy(() -> beanFactory.getBeanHandle("noSuchBean", Car.class))
+                .isInstanceOf(BeanException.class);
+        assertThatThrownBy(() -> beanFactory.getBeanHandle(HelloService.class))
+                .isInstanceOf(BeanException.class).hasMessageContaining("No qualifying bean");
+        assertThatThrownBy(() -> beanFactory.getBeanHandle("car", Person.class).getObject())
+                .isInstanceOf(BeanException.class);
+        beanFactory.registerBeanDefinition("car2", new BeanDefinition(Car.class));
+        assertThatThrownBy(() -> beanFactory.getBeanHandle(Car.class)).isInstanceOf(BeanException.class)
+                .hasMessageContaining("expected single matching bean but found 2");
+    }
+
+    @Test
+    public void testHandleIsResetWhenSingletonsDestroyed() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("car", new BeanDefinition(Car.class));
+        beanFactory.freezeConfiguration();
+
+        BeanHandle<Car> handle = beanFactory.getBeanHandle("car", Car.class);
+        Car first = handle.getObject();
+        assertThat(handle.getObject()).isSameAs(first);
+
+        beanFactory.destroySingletons();
+        Car second = handle.getObject();
+        assertThat(second).isNotSameAs(first);
+        assertThat(second).isSameAs(beanFactory.getBean("car"));
+    }
+}
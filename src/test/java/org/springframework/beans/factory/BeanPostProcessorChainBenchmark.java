@@ -0,0 +1,32 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+/**
+ * 按bean类型过滤后置处理器的基准测试，只输出结果，不随单元测试运行，通过 mvn -Pbenchmark test 运行
+ */
+public class BeanPostProcessorChainBenchmark {
+
+    /**
+     * 按bean类型过滤后各后置处理器的累计耗时
+     */
+    @Test
+    public void postProcessorChain() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.addBeanPostProcessor(new BeanPostProcessorChainTest.RecordingProcessor(Car.class, null));
+        beanFactory.addBeanPostProcessor(new BeanPostProcessorChainTest.RecordingProcessor(null, "person0"));
+        beanFactory.addBeanPostProcessor(new BeanPostProcessorChainTest.RecordingProcessor(null, null));
+        for (int i = 0; i < 10_000; i++) {
+            beanFactory.registerBeanDefinition("person" + i, new BeanDefinition(Person.class));
+            beanFactory.registerBeanDefinition("car" + i, new BeanDefinition(Car.class));
+        }
+        beanFactory.preInstantiateSingletons();
+
+        int index = 0;
+        for (long nanos : beanFactory.getBeanPostProcessorTimings().values()) {
+            System.out.println("bean post processor " + index++ + ": " + nanos / 1_000 + " us for 20000 beans");
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 按bean类型和名称过滤BeanPostProcessor的测试
+ */
+public class BeanPostProcessorChainTest {
+
+    static class RecordingProcessor implements BeanPostProcessor {
+
+        private final Class<?> supportedType;
+
+        private final String supportedName;
+
+        private final List<String> processed = new ArrayList<>();
+
+        RecordingProcessor(Class<?> supportedType, String supportedName) {
+            this.supportedType = supportedType;
+            this.supportedName = supportedName;
+        }
+
+        @Override
+        public boolean supportsBeanType(Class<?> beanClass) {
+            return supportedType == null || supportedType.isAssignableFrom(beanClass);
+        }
+
+        @Override
+        public boolean supportsBeanName(String beanName) {
+            return supportedName == null || supportedName.equals(beanName);
+        }
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+            processed.add(beanName);
+            return bean;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            return bean;
+        }
+    }
+
+    @Test
+    public void testProcessorsOnlySeeSupportedBeans() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        RecordingProcessor carProcessor = new RecordingProcessor(Car.class, null);
+        RecordingProcessor namedProcessor = new RecordingProcessor(null, "person2");
+        RecordingProcessor allProcessor = new RecordingProcessor(null, null);
+        beanFactory.addBeanPostProcessor(carProcessor);
+        beanFactory.addBeanPostProcessor(namedProcessor);
+        beanFactory.addBeanPostProcessor(allProcessor);
+        beanFactory.registerBeanDefinition("car", new BeanDefinition(Car.class));
+        beanFactory.registerBeanDefinition("person1", new BeanDefinition(Person.class));
+        beanFactory.registerBeanDefinition("person2", new BeanDefinition(Person.class));
+        beanFactory.preInstantiateSingletons();
+
+        assertThat(carProcessor.processed).containsExactly("car");
+        assertThat(namedProcessor.processed).containsExactly("person2");
+        assertThat(allProcessor.processed).containsExactlyInAnyOrder("car", "person1", "person2");
+
+        Map<BeanPostProcessor, Long> timings = beanFactory.getBeanPostProcessorTimings();
+        assertThat(timings.keySet()).containsExactly(carProcessor, namedProcessor, allProcessor);
+        assertThat(timings.values()).allMatch(nanos -> nanos >= 0);
+    }
+
+    @Test
+    public void testChainIsRebuiltWhenProcessorAdded() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        RecordingProcessor first = new RecordingProcessor(Car.class, null);
+        beanFactory.addBeanPostProcessor(first);
+        beanFactory.applyBeanPostProcessorsBeforeInitialization(new Car(), "car1");
+
+        RecordingProcessor second = new RecordingProcessor(Car.class, null);
+        beanFactory.addBeanPostProcessor(second);
+        beanFactory.applyBeanPostProcessorsBeforeInitialization(new Car(), "car2");
+        beanFactory.applyBeanPostProcessorsBeforeInitialization(new Person(), "person");
+
+        assertThat(first.processed).containsExactly("car1", "car2");
+        assertThat(second.processed).containsExactly("car2");
+    }
+
+    @Test
+    public void testChainBuiltConcurrentlyWithRegistrationIsNotKept() throws Exception {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch registered = new CountDownLatch(1);
+        AtomicBoolean block = new AtomicBoolean(true);
+        beanFactory.addBeanPostProcessor(new RecordingProcessor(null, null) {
+            @Override
+            public boolean supportsBeanType(Class<?> beanClass) {
+                // 第一次生成处理链时等待新的处理器注册完成
+                if (block.compareAndSet(true, false)) {
+                    building.countDown();
+                    try {
+                        registered.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return true;
+            }
+        });
+        CompletableFuture<Object> first = CompletableFuture
+                .supplyAsync(() -> beanFactory.applyBeanPostProcessorsBeforeInitialization(new Car(), "car1"));
+        assertThat(building.await(5, TimeUnit.SECONDS)).isTrue();
+        RecordingProcessor added = new RecordingProcessor(Car.class, null);
+        beanFactory.addBeanPostProcessor(added);
+        registered.countDown();
+        first.get(5, TimeUnit.SECONDS);
+
+        // 按旧处理器列表生成的处理链不会让新处理器被跳过
+        beanFactory.applyBeanPostProcessorsBeforeInitialization(new Car(), "car2");
+        assertThat(added.processed).contains("car2");
+    }
+}
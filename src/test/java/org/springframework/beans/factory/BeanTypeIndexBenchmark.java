@@ -0,0 +1,31 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+/**
+ * 按类型查找bean的基准测试，只输出结果，不随单元测试运行，通过 mvn -Pbenchmark test 运行
+ */
+public class BeanTypeIndexBenchmark {
+
+    /**
+     * 大量其他类型的bean定义中按类型查找
+     */
+    @Test
+    public void typeLookup() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        for (int i = 0; i < 20_000; i++) {
+            beanFactory.registerBeanDefinition("person" + i, new BeanDefinition(Person.class));
+        }
+        beanFactory.registerBeanDefinition("car", new BeanDefinition(Car.class));
+
+        int iterations = 1_000_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            beanFactory.getBean(Car.class);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println("getBean(Class) with 20001 definitions: " + elapsed / iterations + " ns/lookup");
+    }
+}
@@ -0,0 +1,65 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.io.Serializable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 按类型查找bean的测试
+ */
+public class BeanTypeIndexTest {
+
+    public interface Engine {
+    }
+
+    public static class BaseEngine implements Engine, Serializable {
+    }
+
+    public static class TurboEngine extends BaseEngine {
+    }
+
+    @Test
+    public void testGetBeansOfTypeUsesTypeClosure() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("baseEngine", new BeanDefinition(BaseEngine.class));
+        beanFactory.registerBeanDefinition("turboEngine", new BeanDefinition(TurboEngine.class));
+        beanFactory.registerBeanDefinition("car", new BeanDefinition(Car.class));
+
+        assertThat(beanFactory.getBeansOfType(Engine.class)).containsOnlyKeys("baseEngine", "turboEngine");
+        assertThat(beanFactory.getBeansOfType(Serializable.class)).containsOnlyKeys("baseEngine", "turboEngine");
+        assertThat(beanFactory.getBeansOfType(TurboEngine.class)).containsOnlyKeys("turboEngine");
+        assertThat(beanFactory.getBeansOfType(Object.class)).hasSize(3);
+        assertThat(beanFactory.getBeansOfType(Runnable.class)).isEmpty();
+    }
+
+    @Test
+    public void testGetBeanByType() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("car", new BeanDefinition(Car.class));
+        beanFactory.registerBeanDefinition("baseEngine", new BeanDefinition(BaseEngine.class));
+        beanFactory.registerBeanDefinition("turboEngine", new BeanDefinition(TurboEngine.class));
+
+        assertThat(beanFactory.getBean(Car.class)).isSameAs(beanFactory.getBean("car"));
+        assertThat(beanFactory.getBean(TurboEngine.class)).isSameAs(beanFactory.getBean("turboEngine"));
+        assertThatThrownBy(() -> beanFactory.getBean(Engine.class)).isInstanceOf(BeanException.class)
+                .hasMessageContaining("found 2");
+        assertThatThrownBy(() -> beanFactory.getBean(Person.class)).isInstanceOf(BeanException.class)
+                .hasMessageContaining("No qualifying bean");
+    }
+
+    @Test
+    public void testReRegistrationUpdatesIndex() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("engine", new BeanDefinition(BaseEngine.class));
+        beanFactory.registerBeanDefinition("engine", new BeanDefinition(Car.class));
+
+        assertThat(beanFactory.getBeanNamesForType(Engine.class)).isEmpty();
+        assertThat(beanFactory.getBeanNamesForType(Car.class)).containsExactly("engine");
+    }
+}
@@ -0,0 +1,86 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.PropertyValues;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.CachedIntrospectionResults;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 按类缓存的属性注入元数据测试
+ */
+public class CachedIntrospectionResultsTest {
+
+    public static class BaseBean {
+        // 没有setter，只能直接设置字段
+        private long version;
+
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    public static class OverloadedBean extends BaseBean {
+        private final List<Object> items = new ArrayList<>();
+        private int count;
+
+        public void setItems(List<Object> items) {
+            this.items.addAll(items);
+        }
+
+        public void setItems(String item) {
+            this.items.add(item);
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public List<Object> getItems() {
+            return items;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+
+    @Test
+    public void testInjectorIsResolvedOncePerClass() {
+        CachedIntrospectionResults results = CachedIntrospectionResults.forClass(OverloadedBean.class);
+        assertThat(CachedIntrospectionResults.forClass(OverloadedBean.class)).isSameAs(results);
+        assertThat(results.getPropertyInjector("count")).isSameAs(results.getPropertyInjector("count"));
+    }
+
+    @Test
+    public void testSetterOverloadConversionAndInheritedField() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        PropertyValues propertyValues = new PropertyValues();
+        propertyValues.addPropertyValue(new PropertyValue("items", "first"));
+        propertyValues.addPropertyValue(new PropertyValue("count", "42"));
+        propertyValues.addPropertyValue(new PropertyValue("version", "7"));
+        beanFactory.registerBeanDefinition("bean", new BeanDefinition(OverloadedBean.class, propertyValues));
+
+        OverloadedBean bean = beanFactory.getBean("bean", OverloadedBean.class);
+        assertThat(bean.getItems()).containsExactly("first");
+        assertThat(bean.getCount()).isEqualTo(42);
+        assertThat(bean.getVersion()).isEqualTo(7L);
+    }
+
+    @Test
+    public void testInjectorHandlesDifferentValueTypes() throws Exception {
+        CachedIntrospectionResults.PropertyInjector injector = CachedIntrospectionResults
+                .forClass(OverloadedBean.class).getPropertyInjector("items");
+        OverloadedBean bean = new OverloadedBean();
+        injector.inject(bean, "a");
+        injector.inject(bean, List.of("b", "c"));
+        injector.inject(bean, "d");
+        assertThat(bean.getItems()).containsExactly("a", "b", "c", "d");
+    }
+}
@@ -0,0 +1,31 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.CglibSubclassingInstantiationStrategy;
+
+/**
+ * 缓存生成的CGLIB子类后实例化耗时的基准测试，只输出结果，不随单元测试运行，通过 mvn -Pbenchmark test 运行
+ */
+public class CglibSubclassingInstantiationStrategyBenchmark {
+
+    /**
+     * 缓存生成的CGLIB子类后的实例化耗时
+     */
+    @Test
+    public void cglibInstantiation() {
+        BeanDefinition beanDefinition = new BeanDefinition(CglibSubclassingInstantiationStrategyTest.CountingBean.class);
+        CglibSubclassingInstantiationStrategy strategy = new CglibSubclassingInstantiationStrategy();
+        int iterations = 1_000_000;
+        for (int i = 0; i < iterations; i++) {
+            strategy.instantiate(beanDefinition, "countingBean", null);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            strategy.instantiate(beanDefinition, "countingBean", null);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println("cglib instantiate: " + elapsed / iterations + " ns/bean, generated classes: "
+                + CglibSubclassingInstantiationStrategy.getGeneratedClassCount());
+    }
+}
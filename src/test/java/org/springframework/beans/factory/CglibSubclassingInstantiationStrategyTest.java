@@ -0,0 +1,76 @@
+package org.springframework.beans.factory;
+
+import net.sf.cglib.proxy.Callback;
+import net.sf.cglib.proxy.MethodInterceptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.PropertyValues;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.CglibSubclassingInstantiationStrategy;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CGLIB子类缓存的测试
+ */
+public class CglibSubclassingInstantiationStrategyTest {
+
+    public static class CountingBean {
+        public String sayHello() {
+            return "hello";
+        }
+    }
+
+    @Test
+    public void testGeneratedSubclassIsReused() {
+        CglibSubclassingInstantiationStrategy strategy = new CglibSubclassingInstantiationStrategy();
+        BeanDefinition beanDefinition = new BeanDefinition(CountingBean.class);
+
+        Object first = strategy.instantiate(beanDefinition, "countingBean", null);
+        long generated = CglibSubclassingInstantiationStrategy.getGeneratedClassCount();
+        long cached = CglibSubclassingInstantiationStrategy.getCachedInstantiationCount();
+        for (int i = 0; i < 1000; i++) {
+            Object bean = new CglibSubclassingInstantiationStrategy().instantiate(beanDefinition, "countingBean", null);
+            assertThat(bean.getClass()).isSameAs(first.getClass());
+        }
+        assertThat(first.getClass().getSuperclass()).isEqualTo(CountingBean.class);
+        assertThat(CglibSubclassingInstantiationStrategy.getGeneratedClassCount()).isEqualTo(generated);
+        assertThat(CglibSubclassingInstantiationStrategy.getCachedInstantiationCount() - cached)
+                .isGreaterThanOrEqualTo(1000);
+    }
+
+    @Test
+    public void testCallbacksAreBoundPerStrategy() {
+        BeanDefinition beanDefinition = new BeanDefinition(CountingBean.class);
+        MethodInterceptor upperCase = (obj, method, args, proxy) -> ((String) proxy.invokeSuper(obj, args))
+                .toUpperCase();
+        MethodInterceptor reversed = (obj, method, args, proxy) -> new StringBuilder(
+                (String) proxy.invokeSuper(obj, args)).reverse().toString();
+
+        CountingBean upper = (CountingBean) new CglibSubclassingInstantiationStrategy(new Callback[] { upperCase },
+                null).instantiate(beanDefinition, "countingBean", null);
+        long generated = CglibSubclassingInstantiationStrategy.getGeneratedClassCount();
+        CountingBean reverse = (CountingBean) new CglibSubclassingInstantiationStrategy(new Callback[] { reversed },
+                null).instantiate(beanDefinition, "countingBean", null);
+
+        // 回调类型相同的策略共用同一个子类，但各自的回调互不影响
+        assertThat(reverse.getClass()).isSameAs(upper.getClass());
+        assertThat(CglibSubclassingInstantiationStrategy.getGeneratedClassCount()).isEqualTo(generated);
+        assertThat(upper.sayHello()).isEqualTo("HELLO");
+        assertThat(reverse.sayHello()).isEqualTo("olleh");
+    }
+
+    @Test
+    public void testBeanFactoryWithCglibStrategy() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.setInstantiationStrategy(new CglibSubclassingInstantiationStrategy());
+        PropertyValues propertyValues = new PropertyValues();
+        propertyValues.addPropertyValue(new PropertyValue("foo", "hello"));
+        beanFactory.registerBeanDefinition("helloService", new BeanDefinition(HelloService.class, propertyValues));
+
+        HelloService helloService = (HelloService) beanFactory.getBean("helloService");
+        assertThat(helloService.getClass().getSuperclass()).isEqualTo(HelloService.class);
+        assertThat(helloService.getFoo()).isEqualTo("hello");
+    }
+}
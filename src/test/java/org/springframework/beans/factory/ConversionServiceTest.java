@@ -0,0 +1,235 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanException;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionCache;
+import org.springframework.beans.factory.support.ConvertedPropertyValues;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.utils.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 类型转换服务及字面属性值预转换的测试
+ */
+public class ConversionServiceTest {
+
+    @Test
+    public void testDefaultConverters() {
+        DefaultConversionService conversionService = new DefaultConversionService();
+        assertThat(conversionService.convert("42", int.class)).isEqualTo(42);
+        assertThat(conversionService.convert("SECONDS", TimeUnit.class)).isEqualTo(TimeUnit.SECONDS);
+        assertThat(conversionService.convert("1,2,3", int[].class)).containsExactly(1, 2, 3);
+        assertThat(conversionService.convert("a,b,a", List.class)).containsExactly("a", "b", "a");
+        assertThat(conversionService.convert("a,b,a", Set.class)).containsExactly("a", "b");
+        assertThat(conversionService.convert("30s", Duration.class)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(conversionService.convert("PT1M", Duration.class)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(conversionService.convert("250", Duration.class)).isEqualTo(Duration.ofMillis(250));
+        assertThat(conversionService.convert("10MB", DataSize.class)).isEqualTo(DataSize.ofMegabytes(10));
+        assertThat(conversionService.convert(7, long.class)).isEqualTo(7L);
+
+        assertThat(conversionService.canConvert(String.class, Thread.class)).isFalse();
+        assertThatThrownBy(() -> conversionService.convert("abc", int.class))
+                .isInstanceOf(ConversionException.class);
+        // 查找结果被缓存
+        assertThat(conversionService.getConverter(String.class, Duration.class))
+                .isSameAs(conversionService.getConverter(String.class, Duration.class));
+    }
+
+    @Test
+    public void testConvertersAreNotSharedBetweenBeanFactories() {
+        DefaultListableBeanFactory first = new DefaultListableBeanFactory();
+        DefaultListableBeanFactory second = new DefaultListableBeanFactory();
+        assertThat(first.getConversionService()).isNotSameAs(second.getConversionService());
+        ((DefaultConversionService) first.getConversionService()).addConverter(String.class, Endpoint.class,
+                Endpoint::new);
+        assertThat(first.getConversionService().canConvert(String.class, Endpoint.class)).isTrue();
+        assertThat(second.getConversionService().canConvert(String.class, Endpoint.class)).isFalse();
+
+        // 共享实例只读
+        assertThatThrownBy(() -> ((DefaultConversionService) DefaultConversionService.getSharedInstance())
+                .addConverter(String.class, Endpoint.class, Endpoint::new))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testLiteralsAreConvertedOncePerDefinition() {
+        DefaultConversionService conversionService = new DefaultConversionService();
+        AtomicInteger conversions = new AtomicInteger();
+        conversionService.addConverter(String.class, Endpoint.class, source -> {
+            conversions.incrementAndGet();
+            return new Endpoint(source);
+        });
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.setConversionService(conversionService);
+
+        BeanDefinition beanDefinition = new BeanDefinition(Settings.class);
+        beanDefinition.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("endpoint", "localhost:8080"));
+        beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("timeout", "5s"));
+        beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("bufferSize", "64KB"));
+        beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("unit", "MILLISECONDS"));
+        beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("ports", "80,443"));
+        beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("retries", "3"));
+        beanFactory.registerBeanDefinition("settings", beanDefinition);
+
+        Settings first = (Settings) beanFactory.getBean("settings");
+        BeanDefinitionCache cache = BeanDefinitionCache.forBeanDefinition(beanDefinition);
+        ConvertedPropertyValues converted = cache.getConvertedPropertyValues();
+        Settings second = (Settings) beanFactory.getBean("settings");
+        assertThat(second).isNotSameAs(first);
+        assertThat(cache.getConvertedPropertyValues()).isSameAs(converted);
+        // 不可变的转换结果共享，其他类型每个实例各自转换
+        assertThat(second.getTimeout()).isSameAs(first.getTimeout());
+        assertThat(second.getBufferSize()).isSameAs(first.getBufferSize());
+        assertThat(second.getEndpoint()).isNotSameAs(first.getEndpoint());
+        assertThat(conversions.get()).isEqualTo(2);
+
+        for (Settings settings : new Settings[] { first, second }) {
+            assertThat(settings.getEndpoint().getAddress()).isEqualTo("localhost:8080");
+            assertThat(settings.getTimeout()).isEqualTo(Duration.ofSeconds(5));
+            assertThat(settings.getBufferSize()).isEqualTo(DataSize.ofKilobytes(64));
+            assertThat(settings.getUnit()).isEqualTo(TimeUnit.MILLISECONDS);
+            assertThat(settings.getPorts()).containsExactly(80, 443);
+            assertThat(settings.getRetries()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void testMutableValuesAreNotShared() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        BeanDefinition beanDefinition = new BeanDefinition(Tagged.class);
+        beanDefinition.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("tags", "a,b"));
+        beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("names", "x,y"));
+        beanFactory.registerBeanDefinition("tagged", beanDefinition);
+
+        Tagged first = (Tagged) beanFactory.getBean("tagged");
+        Tagged second = (Tagged) beanFactory.getBean("tagged");
+        first.getTags().add("leak");
+        first.getNames()[0] = "changed";
+        assertThat(second.getTags()).containsExactly("a", "b");
+        assertThat(second.getNames()).containsExactly("x", "y");
+        assertThat(((Tagged) beanFactory.getBean("tagged")).getTags()).containsExactly("a", "b");
+    }
+
+    @Test
+    public void testConversionFailureIsReported() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        BeanDefinition beanDefinition = new BeanDefinition(Settings.class);
+        beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("timeout", "soon"));
+        beanFactory.registerBeanDefinition("settings", beanDefinition);
+        assertThatThrownBy(() -> beanFactory.getBean("settings")).isInstanceOf(BeanException.class)
+                .hasStackTraceContaining("Failed to convert value of property 'timeout'");
+    }
+
+    public static class Endpoint {
+
+        private final String address;
+
+        public Endpoint(String address) {
+            this.address = address;
+        }
+
+        public String getAddress() {
+            return address;
+        }
+    }
+
+    public static class Tagged {
+
+        private List<String> tags;
+
+        private String[] names;
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+
+        public String[] getNames() {
+            return names;
+        }
+
+        public void setNames(String[] names) {
+            this.names = names;
+        }
+    }
+
+    public static class Settings {
+
+        private Endpoint endpoint;
+
+        private Duration timeout;
+
+        private DataSize bufferSize;
+
+        private TimeUnit unit;
+
+        private int[] ports;
+
+        private int retries;
+
+        public Endpoint getEndpoint() {
+            return endpoint;
+        }
+
+        public void setEndpoint(Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public DataSize getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(DataSize bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public TimeUnit getUnit() {
+            return unit;
+        }
+
+        public void setUnit(TimeUnit unit) {
+            this.unit = unit;
+        }
+
+        public int[] getPorts() {
+            return ports;
+        }
+
+        public void setPorts(int[] ports) {
+            this.ports = ports;
+        }
+
+        public int getRetries() {
+            return retries;
+        }
+
+        public void setRetries(int retries) {
+            this.retries = retries;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanException;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanReference;
+import org.springframework.beans.factory.config.Scope;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.TaskScope;
+import org.springframework.beans.factory.support.ThreadScope;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 自定义作用域及内置thread、scoped作用域的测试
+ */
+public class CustomScopeTest {
+
+    private static final List<String> destroyed = new ArrayList<>();
+
+    private static final AtomicInteger destroyedTasks = new AtomicInteger();
+
+    @Test
+    public void testThreadScope() throws Exception {
+        DefaultListableBeanFactory beanFactory = createBeanFactory(ThreadScope.SCOPE_NAME);
+        Object first = beanFactory.getBean("context");
+        assertThat(beanFactory.getBean("context")).isSameAs(first);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Object other = executor.submit(() -> beanFactory.getBean("context")).get();
+            assertThat(other).isNotSameAs(first);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        synchronized (destroyed) {
+            destroyed.clear();
+            ((ThreadScope) beanFactory.getRegisteredScope(ThreadScope.SCOPE_NAME)).end();
+            // 引用其他bean的bean先销毁
+            assertThat(destroyed).containsExactly("context", "resource");
+        }
+        assertThat(beanFactory.getBean("context")).isNotSameAs(first);
+    }
+
+    @Test
+    public void testTaskScopeOnVirtualThreads() throws Exception {
+        DefaultListableBeanFactory beanFactory = createBeanFactory(TaskScope.SCOPE_NAME);
+        TaskScope scope = (TaskScope) beanFactory.getRegisteredScope(TaskScope.SCOPE_NAME);
+        assertThatThrownBy(() -> beanFactory.getBean("context")).isInstanceOf(BeanException.class)
+                .hasMessageContaining("not active");
+
+        int tasks = 10_000;
+        Set<Object> instances = ConcurrentHashMap.newKeySet();
+        destroyedTasks.set(0);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                futures.add(executor.submit(() -> scope.call(() -> {
+                    RequestContext context = beanFactory.getBean("context", RequestContext.class);
+                    instances.add(context);
+                    return context == beanFactory.getBean("context")
+                            && context.getResource() == beanFactory.getBean("resource");
+                })));
+            }
+            for (Future<Boolean> future : futures) {
+                assertThat(future.get(30, TimeUnit.SECONDS)).isTrue();
+            }
+        }
+        assertThat(instances).hasSize(tasks);
+        assertThat(destroyedTasks.get()).isEqualTo(tasks);
+        assertThat(scope.isActive()).isFalse();
+    }
+
+    @Test
+    public void testNestedTaskScope() {
+        DefaultListableBeanFactory beanFactory = createBeanFactory(TaskScope.SCOPE_NAME);
+        TaskScope scope = (TaskScope) beanFactory.getRegisteredScope(TaskScope.SCOPE_NAME);
+        scope.run(() -> {
+            Object outer = beanFactory.getBean("context");
+            scope.run(() -> assertThat(beanFactory.getBean("context")).isNotSameAs(outer));
+            assertThat(beanFactory.getBean("context")).isSameAs(outer);
+        });
+    }
+
+    @Test
+    public void testRegisterCustomScope() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        Map<String, Object> store = new HashMap<>();
+        beanFactory.registerScope("map", new Scope() {
+            @Override
+            public Object get(String name, ObjectFactory<?> objectFactory) {
+                return store.computeIfAbsent(name, key -> objectFactory.getObject());
+            }
+
+            @Override
+            public Object remove(String name) {
+                return store.remove(name);
+            }
+
+            @Override
+            public void registerDestructionCallback(String name, Runnable callback) {
+            }
+        });
+        BeanDefinition beanDefinition = new BeanDefinition(Resource.class);
+        beanDefinition.setScope("map");
+        beanFactory.registerBeanDefinition("resource", beanDefinition);
+        beanFactory.preInstantiateSingletons();
+        assertThat(store).isEmpty();
+
+        Object resource = beanFactory.getBean("resource");
+        assertThat(store).containsEntry("resource", resource);
+        assertThat(beanFactory.getBean("resource")).isSameAs(resource);
+        assertThatThrownBy(() -> beanFactory.registerScope(BeanDefinition.SCOPE_SINGLETON, null))
+                .isInstanceOf(BeanException.class);
+    }
+
+    private DefaultListableBeanFactory createBeanFactory(String scopeName) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        BeanDefinition resource = new BeanDefinition(Resource.class);
+        resource.setScope(scopeName);
+        resource.setDestroyMethodName("close");
+        beanFactory.registerBeanDefinition("resource", resource);
+        BeanDefinition context = new BeanDefinition(RequestContext.class);
+        context.setScope(scopeName);
+        context.setDestroyMethodName("close");
+        context.getPropertyValues().addPropertyValue(new PropertyValue("resource", new BeanReference("resource")));
+        beanFactory.registerBeanDefinition("context", context);
+        return beanFactory;
+    }
+
+    public static class Resource {
+
+        public void close() {
+            synchronized (destroyed) {
+                destroyed.add("resource");
+            }
+        }
+    }
+
+    public static class RequestContext {
+
+        private Resource resource;
+
+        public Resource getResource() {
+            return resource;
+        }
+
+        public void setResource(Resource resource) {
+            this.resource = resource;
+        }
+
+        public void close() {
+            destroyedTasks.incrementAndGet();
+            synchronized (destroyed) {
+                destroyed.add("context");
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 冻结配置前后按名称查找bean的基准测试，只输出结果，不随单元测试运行，通过 mvn -Pbenchmark test 运行
+ */
+public class FrozenConfigurationBenchmark {
+
+    /**
+     * 冻结配置前后按名称获取单例
+     */
+    @Test
+    public void frozenLookup() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        for (int i = 0; i < 1000; i++) {
+            beanFactory.registerBeanDefinition("car" + i, new BeanDefinition(Car.class));
+        }
+        beanFactory.preInstantiateSingletons();
+        String[] names = beanFactory.getBeanDefinitionNames();
+        int iterations = 10_000_000;
+        System.out.println("getBean before freeze: " + lookup(beanFactory, names, iterations) + " ns/lookup");
+        beanFactory.freezeConfiguration();
+        System.out.println("getBean after freeze: " + lookup(beanFactory, names, iterations) + " ns/lookup");
+    }
+
+    private static long lookup(DefaultListableBeanFactory beanFactory, String[] names, int iterations) {
+        int found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (beanFactory.getBean(names[i % names.length]) != null) {
+                found++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        assertThat(found).isEqualTo(iterations);
+        return elapsed / iterations;
+    }
+}
@@ -0,0 +1,58 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanException;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.PropertyValues;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanReference;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 冻结配置的测试
+ */
+public class FrozenConfigurationTest {
+
+    private DefaultListableBeanFactory createBeanFactory() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("car", new BeanDefinition(Car.class));
+        PropertyValues propertyValues = new PropertyValues();
+        propertyValues.addPropertyValue(new PropertyValue("car", new BeanReference("car")));
+        beanFactory.registerBeanDefinition("person", new BeanDefinition(Person.class, propertyValues));
+        for (int i = 0; i < 1000; i++) {
+            beanFactory.registerBeanDefinition("car" + i, new BeanDefinition(Car.class));
+        }
+        return beanFactory;
+    }
+
+    @Test
+    public void testLookupsAfterFreeze() {
+        DefaultListableBeanFactory beanFactory = createBeanFactory();
+        Object car = beanFactory.getBean("car");
+        beanFactory.freezeConfiguration();
+        assertThat(beanFactory.isConfigurationFrozen()).isTrue();
+
+        // 冻结前创建的单例和冻结后创建的单例都能从查找表中获取
+        assertThat(beanFactory.getBean("car")).isSameAs(car);
+        Person person = (Person) beanFactory.getBean("person");
+        assertThat(person.getCar()).isSameAs(car);
+        assertThat(beanFactory.getBean("person")).isSameAs(person);
+        assertThat(beanFactory.getBeanDefinition("car999").getBeanClass()).isEqualTo(Car.class);
+        assertThatThrownBy(() -> beanFactory.getBean("noSuchBean")).isInstanceOf(BeanException.class);
+    }
+
+    @Test
+    public void testRegistrationRejectedAfterFreeze() {
+        DefaultListableBeanFactory beanFactory = createBeanFactory();
+        beanFactory.freezeConfiguration();
+
+        assertThatThrownBy(() -> beanFactory.registerBeanDefinition("late", new BeanDefinition(Car.class)))
+                .isInstanceOf(BeanException.class).hasMessageContaining("frozen");
+        assertThatThrownBy(() -> beanFactory.registerSingleton("late", new Car()))
+                .isInstanceOf(BeanException.class).hasMessageContaining("frozen");
+        assertThat(beanFactory.containsBeanDefinition("late")).isFalse();
+    }
+}
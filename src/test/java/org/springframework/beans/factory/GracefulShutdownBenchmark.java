@@ -0,0 +1,35 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 并行销毁单例的基准测试，只输出结果，不随单元测试运行，通过 mvn -Pbenchmark test 运行
+ */
+public class GracefulShutdownBenchmark {
+
+    /**
+     * 并行销毁互不依赖的单例
+     */
+    @Test
+    public void parallelDestruction() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        for (int i = 0; i < 8; i++) {
+            BeanDefinition beanDefinition = new BeanDefinition(GracefulShutdownTest.Resource.class);
+            beanDefinition.setDestroyMethodName("close");
+            beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("name", "slow" + i));
+            beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("destroyMillis", 200L));
+            beanFactory.registerBeanDefinition("slow" + i, beanDefinition);
+        }
+        beanFactory.preInstantiateSingletons();
+
+        long start = System.nanoTime();
+        beanFactory.destroySingletons();
+        System.out.println("destroyed 8 beans taking 200 ms each in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+    }
+}
@@ -0,0 +1,252 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanReference;
+import org.springframework.beans.factory.support.BeansException;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 按依赖关系逆序、并行并带超时销毁单例的测试
+ */
+public class GracefulShutdownTest {
+
+    private static final List<String> destroyed = new CopyOnWriteArrayList<>();
+
+    private static final AtomicInteger closeCalls = new AtomicInteger();
+
+    // 名称以parallel开头的bean在销毁时等待所有同类bean都开始销毁
+    private static volatile CountDownLatch parallelClosing = new CountDownLatch(0);
+
+    // 等到了其他bean同时销毁的次数
+    private static final AtomicInteger overlappingCloses = new AtomicInteger();
+
+    // 名称以stuck开头的bean的销毁方法一直阻塞到测试放行
+    private static volatile CountDownLatch stuckGate = new CountDownLatch(0);
+
+    @Test
+    public void testDependentsAreDestroyedFirst() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        // a -> b -> plain -> c，plain没有销毁方法，a仍然要先于c销毁
+        registerResource(beanFactory, "c", 0, null);
+        BeanDefinition plain = new BeanDefinition(Resource.class);
+        plain.getPropertyValues().addPropertyValue(new PropertyValue("dependency", new BeanReference("c")));
+        beanFactory.registerBeanDefinition("plain", plain);
+        registerResource(beanFactory, "b", 0, "plain");
+        registerResource(beanFactory, "a", 0, "b");
+        registerResource(beanFactory, "independent", 0, null);
+        beanFactory.preInstantiateSingletons();
+
+        destroyed.clear();
+        beanFactory.destroySingletons();
+        assertThat(destroyed).containsExactlyInAnyOrder("a", "b", "c", "independent");
+        assertThat(destroyed.indexOf("a")).isLessThan(destroyed.indexOf("b"));
+        assertThat(destroyed.indexOf("b")).isLessThan(destroyed.indexOf("c"));
+        assertThat(beanFactory.getSingletonCount()).isZero();
+    }
+
+    @Test
+    public void testIndependentBeansAreDestroyedInParallel() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        int beanCount = 8;
+        for (int i = 0; i < beanCount; i++) {
+            registerResource(beanFactory, "parallel" + i, 0, null);
+        }
+        beanFactory.preInstantiateSingletons();
+
+        parallelClosing = new CountDownLatch(beanCount);
+        overlappingCloses.set(0);
+        beanFactory.destroySingletons();
+        // 依次销毁时第一个销毁方法等不到其他bean
+        assertThat(overlappingCloses.get()).isEqualTo(beanCount);
+    }
+
+    @Test
+    public void testFailuresAreCollected() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        registerResource(beanFactory, "healthy", 0, null);
+        registerResource(beanFactory, "failing1", 0, "healthy");
+        registerResource(beanFactory, "failing2", 0, null);
+        beanFactory.preInstantiateSingletons();
+
+        destroyed.clear();
+        assertThatThrownBy(beanFactory::destroySingletons).isInstanceOf(BeansException.class)
+                .hasMessageContaining("2 singleton(s)").hasMessageContaining("failing1")
+                .hasMessageContaining("failing2")
+                .satisfies(e -> assertThat(e.getSuppressed()).hasSize(1));
+        // 失败不影响其他bean的销毁
+        assertThat(destroyed).contains("healthy");
+        assertThat(beanFactory.getSingletonCount()).isZero();
+        // 再次销毁时没有需要销毁的bean
+        beanFactory.destroySingletons();
+    }
+
+    @Test
+    public void testPerBeanDeadline() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.setDestroyTimeout(100);
+        registerResource(beanFactory, "dependency", 0, null);
+        registerResource(beanFactory, "stuck", 0, "dependency");
+        beanFactory.preInstantiateSingletons();
+
+        destroyed.clear();
+        stuckGate = new CountDownLatch(1);
+        try {
+            // stuck的销毁方法在放行前不会结束，destroySingletons返回说明没有等待它
+            assertThatThrownBy(beanFactory::destroySingletons).isInstanceOf(BeansException.class)
+                    .hasMessageContaining("'stuck' did not complete within 100 ms")
+                    .hasMessageContaining("'dependency' was left alive because dependent bean(s) [stuck]");
+            // 超时的销毁方法可能仍在使用它依赖的bean，这些bean不会被销毁
+            assertThat(destroyed).isEmpty();
+        } finally {
+            stuckGate.countDown();
+        }
+    }
+
+    @Test
+    public void testGlobalDeadline() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.setDestroyTimeout(0);
+        beanFactory.setShutdownTimeout(200);
+        registerResource(beanFactory, "fast", 0, null);
+        registerResource(beanFactory, "stuck", 0, null);
+        beanFactory.preInstantiateSingletons();
+
+        stuckGate = new CountDownLatch(1);
+        try {
+            assertThatThrownBy(beanFactory::destroySingletons).isInstanceOf(BeansException.class)
+                    .hasMessageContaining("within 200 ms, left alive: [stuck]")
+                    .satisfies(e -> assertThat(e.getMessage()).doesNotContain("fast"));
+            assertThat(beanFactory.getSingletonCount()).isZero();
+        } finally {
+            stuckGate.countDown();
+        }
+    }
+
+    @Test
+    public void testNothingIsDestroyedAfterGlobalDeadline() throws InterruptedException {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.setDestroyTimeout(0);
+        beanFactory.setShutdownTimeout(100);
+        registerResource(beanFactory, "dependency", 0, null);
+        registerResource(beanFactory, "stuck", 0, "dependency");
+        beanFactory.preInstantiateSingletons();
+
+        destroyed.clear();
+        stuckGate = new CountDownLatch(1);
+        try {
+            assertThatThrownBy(beanFactory::destroySingletons).isInstanceOf(BeansException.class)
+                    .hasMessageContaining("left alive: [").hasMessageContaining("dependency")
+                    .satisfies(e -> assertThat(e.getSuppressed()).isEmpty());
+        } finally {
+            stuckGate.countDown();
+        }
+        // 超时的销毁方法结束后，它依赖的bean也不会再被销毁
+        for (int i = 0; i < 100 && !destroyed.contains("stuck"); i++) {
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertThat(destroyed).containsExactly("stuck");
+    }
+
+    @Test
+    public void testContextCloseIsIdempotent() throws IOException {
+        Path file = Files.createTempFile("shutdown", ".xml");
+        try {
+            Files.write(file, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><beans>"
+                    + "<bean id=\"counted\" class=\"" + Counted.class.getName() + "\" destroy-method=\"close\"/>"
+                    + "</beans>").getBytes(StandardCharsets.UTF_8));
+            ClassPathXmlApplicationContext applicationContext = new ClassPathXmlApplicationContext(file.toString());
+            applicationContext.registerShutdownHook();
+            applicationContext.registerShutdownHook();
+
+            closeCalls.set(0);
+            applicationContext.close();
+            applicationContext.close();
+            assertThat(applicationContext.isClosed()).isTrue();
+            assertThat(closeCalls.get()).isEqualTo(1);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private void registerResource(DefaultListableBeanFactory beanFactory, String beanName, long destroyMillis,
+            String dependency) {
+        BeanDefinition beanDefinition = new BeanDefinition(Resource.class);
+        beanDefinition.setDestroyMethodName("close");
+        beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("name", beanName));
+        beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("destroyMillis", destroyMillis));
+        if (dependency != null) {
+            beanDefinition.getPropertyValues().addPropertyValue(
+                    new PropertyValue("dependency", new BeanReference(dependency)));
+        }
+        beanFactory.registerBeanDefinition(beanName, beanDefinition);
+    }
+
+    public static class Resource {
+
+        private String name;
+
+        private long destroyMillis;
+
+        private Resource dependency;
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public void setDestroyMillis(long destroyMillis) {
+            this.destroyMillis = destroyMillis;
+        }
+
+        public void setDependency(Resource dependency) {
+            this.dependency = dependency;
+        }
+
+        public Resource getDependency() {
+            return dependency;
+        }
+
+        public void close() throws InterruptedException {
+            if (name == null) {
+                return;
+            }
+            if (name.startsWith("stuck")) {
+                stuckGate.await(10, TimeUnit.SECONDS);
+            } else if (name.startsWith("parallel")) {
+                CountDownLatch closing = parallelClosing;
+                closing.countDown();
+                if (closing.await(5, TimeUnit.SECONDS)) {
+                    overlappingCloses.incrementAndGet();
+                }
+            }
+            TimeUnit.MILLISECONDS.sleep(destroyMillis);
+            if (name.startsWith("failing")) {
+                throw new IllegalStateException(name + " failed to close");
+            }
+            destroyed.add(name);
+        }
+    }
+
+    public static class Counted {
+
+        public void close() {
+            closeCalls.incrementAndGet();
+        }
+    }
+}
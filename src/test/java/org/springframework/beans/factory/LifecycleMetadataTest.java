@@ -0,0 +1,124 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.BeanDefinitionCache;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.LifecycleMetadata;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 生命周期元数据的测试
+ */
+public class LifecycleMetadataTest {
+
+    static final List<String> events = new ArrayList<>();
+
+    public static class LifecycleBean implements InitializingBean, DisposableBean, BeanFactoryAware {
+
+        @Override
+        public void setBeanFactory(BeanFactory beanFactory) {
+            events.add("aware");
+        }
+
+        @Override
+        public void afterPropertiesSet() {
+            events.add("afterPropertiesSet");
+        }
+
+        public void customInit() {
+            events.add("customInit");
+        }
+
+        @Override
+        public void destroy() {
+            events.add("destroy");
+        }
+
+        public void customDestroy() {
+            events.add("customDestroy");
+        }
+    }
+
+    @Test
+    public void testLifecycleCallbacksRunOnce() {
+        events.clear();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        BeanDefinition beanDefinition = new BeanDefinition(LifecycleBean.class);
+        beanDefinition.setInitMethodName("customInit");
+        beanDefinition.setDestroyMethodName("customDestroy");
+        beanFactory.registerBeanDefinition("lifecycleBean", beanDefinition);
+
+        LifecycleMetadata metadata = BeanDefinitionCache.forBeanDefinition(beanDefinition).getLifecycleMetadata();
+        assertThat(metadata.isAware()).isTrue();
+        assertThat(metadata.isBeanFactoryAware()).isTrue();
+        assertThat(metadata.isInitializingBean()).isTrue();
+        assertThat(metadata.requiresDestruction()).isTrue();
+
+        beanFactory.getBean("lifecycleBean");
+        beanFactory.destroySingletons();
+        assertThat(events).containsExactly("aware", "afterPropertiesSet", "customInit", "destroy", "customDestroy");
+    }
+
+    @Test
+    public void testDestroyMethodNamedDestroyIsNotInvokedTwice() {
+        events.clear();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        BeanDefinition beanDefinition = new BeanDefinition(LifecycleBean.class);
+        beanDefinition.setDestroyMethodName("destroy");
+        beanFactory.registerBeanDefinition("lifecycleBean", beanDefinition);
+
+        beanFactory.getBean("lifecycleBean");
+        beanFactory.destroySingletons();
+        assertThat(events).containsExactly("aware", "afterPropertiesSet", "destroy");
+    }
+
+    @Test
+    public void testWrappedBeanIsCheckedBeforeInitCallback() {
+        for (String scope : new String[] { BeanDefinition.SCOPE_SINGLETON, BeanDefinition.SCOPE_PROTOTYPE }) {
+            events.clear();
+            DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+            // 前置处理器返回的包装对象没有实现InitializingBean，不调用afterPropertiesSet
+            beanFactory.addBeanPostProcessor(new BeanPostProcessor() {
+                @Override
+                public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                    return new Object();
+                }
+
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean;
+                }
+            });
+            BeanDefinition beanDefinition = new BeanDefinition(LifecycleBean.class);
+            beanDefinition.setScope(scope);
+            beanFactory.registerBeanDefinition("lifecycleBean", beanDefinition);
+
+            beanFactory.getBean("lifecycleBean");
+            beanFactory.getBean("lifecycleBean");
+            assertThat(events).containsOnly("aware");
+        }
+    }
+
+    @Test
+    public void testMisconfiguredMethodsFailAtRegistration() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        BeanDefinition badInit = new BeanDefinition(Car.class);
+        badInit.setInitMethodName("noSuchInit");
+        assertThatThrownBy(() -> beanFactory.registerBeanDefinition("car", badInit))
+                .isInstanceOf(BeanException.class).hasMessageContaining("noSuchInit");
+
+        BeanDefinition badDestroy = new BeanDefinition(Car.class);
+        badDestroy.setDestroyMethodName("noSuchDestroy");
+        assertThatThrownBy(() -> beanFactory.registerBeanDefinition("car", badDestroy))
+                .isInstanceOf(BeanException.class).hasMessageContaining("noSuchDestroy");
+        assertThat(beanFactory.containsBeanDefinition("car")).isFalse();
+    }
+}
@@ -0,0 +1,149 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanException;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.PropertyValues;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanReference;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 按依赖图并行预实例化单例的测试
+ */
+public class ParallelPreInstantiationTest {
+
+    private static final long INIT_MILLIS = 200;
+
+    // 初始化方法较慢的bean，记录初始化完成的顺序
+    public static class SlowInitBean {
+        static final List<String> INITIALIZED = new CopyOnWriteArrayList<>();
+
+        // 设置后初始化方法等待所有bean都开始初始化，代替固定的耗时
+        static volatile CountDownLatch initializing;
+
+        // 等到了其他bean同时初始化的次数
+        static final AtomicInteger OVERLAPPING = new AtomicInteger();
+
+        private String id;
+        private SlowInitBean dependency;
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public void setDependency(SlowInitBean dependency) {
+            this.dependency = dependency;
+        }
+
+        public SlowInitBean getDependency() {
+            return dependency;
+        }
+
+        public void init() throws InterruptedException {
+            if ("broken".equals(id)) {
+                throw new IllegalStateException("init failed");
+            }
+            CountDownLatch latch = initializing;
+            if (latch != null) {
+                latch.countDown();
+                if (latch.await(5, TimeUnit.SECONDS)) {
+                    OVERLAPPING.incrementAndGet();
+                }
+            } else {
+                Thread.sleep(INIT_MILLIS);
+            }
+            INITIALIZED.add(id);
+        }
+    }
+
+    private static void register(DefaultListableBeanFactory beanFactory, String id, String dependency) {
+        PropertyValues propertyValues = new PropertyValues();
+        propertyValues.addPropertyValue(new PropertyValue("id", id));
+        if (dependency != null) {
+            propertyValues.addPropertyValue(new PropertyValue("dependency", new BeanReference(dependency)));
+        }
+        BeanDefinition beanDefinition = new BeanDefinition(SlowInitBean.class, propertyValues);
+        beanDefinition.setInitMethodName("init");
+        beanFactory.registerBeanDefinition(id, beanDefinition);
+    }
+
+    @Test
+    public void testIndependentBeansAreCreatedConcurrently() {
+        SlowInitBean.INITIALIZED.clear();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        int beanCount = 8;
+        for (int i = 0; i < beanCount; i++) {
+            register(beanFactory, "bean" + i, null);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(beanCount);
+        SlowInitBean.initializing = new CountDownLatch(beanCount);
+        SlowInitBean.OVERLAPPING.set(0);
+        try {
+            beanFactory.setPreInstantiationExecutor(executor);
+            beanFactory.preInstantiateSingletons();
+
+            assertThat(beanFactory.getSingletonCount()).isEqualTo(beanCount);
+            // 依次创建时第一个bean的初始化方法等不到其他bean
+            assertThat(SlowInitBean.OVERLAPPING.get()).isEqualTo(beanCount);
+        } finally {
+            SlowInitBean.initializing = null;
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDependenciesAreCreatedFirst() {
+        SlowInitBean.INITIALIZED.clear();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        // a -> b -> c，d -> c，e独立
+        register(beanFactory, "a", "b");
+        register(beanFactory, "b", "c");
+        register(beanFactory, "c", null);
+        register(beanFactory, "d", "c");
+        register(beanFactory, "e", null);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            beanFactory.setPreInstantiationExecutor(executor);
+            beanFactory.preInstantiateSingletons();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<String> order = SlowInitBean.INITIALIZED;
+        assertThat(order).containsExactlyInAnyOrder("a", "b", "c", "d", "e");
+        assertThat(order.indexOf("c")).isLessThan(order.indexOf("b"));
+        assertThat(order.indexOf("b")).isLessThan(order.indexOf("a"));
+        assertThat(order.indexOf("c")).isLessThan(order.indexOf("d"));
+
+        SlowInitBean a = beanFactory.getBean("a", SlowInitBean.class);
+        assertThat(a.getDependency()).isSameAs(beanFactory.getBean("b"));
+        assertThat(a.getDependency().getDependency()).isSameAs(beanFactory.getBean("c"));
+    }
+
+    @Test
+    public void testFailureIsPropagated() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        register(beanFactory, "broken", null);
+        register(beanFactory, "dependent", "broken");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            beanFactory.setPreInstantiationExecutor(executor);
+            assertThatThrownBy(beanFactory::preInstantiateSingletons).isInstanceOf(BeanException.class);
+            assertThat(beanFactory.containsSingleton("dependent")).isFalse();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
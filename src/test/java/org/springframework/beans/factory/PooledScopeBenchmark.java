@@ -0,0 +1,64 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 池化bean借用吞吐量的基准测试，只输出结果，不随单元测试运行，通过 mvn -Pbenchmark test 运行
+ */
+public class PooledScopeBenchmark {
+
+    /**
+     * 多线程借用池化bean的吞吐量
+     */
+    @Test
+    public void pooledBorrowing() throws Exception {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        BeanDefinition beanDefinition = new BeanDefinition(PooledScopeTest.Parser.class);
+        beanDefinition.setScope(BeanDefinition.SCOPE_POOLED);
+        beanDefinition.setPoolSize(4);
+        beanFactory.registerBeanDefinition("parser", beanDefinition);
+
+        int threads = 8;
+        int borrowsPerThread = 200_000;
+        Set<Object> instances = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < borrowsPerThread; j++) {
+                        try (PooledBean<PooledScopeTest.Parser> pooled = beanFactory.borrowBean("parser",
+                                PooledScopeTest.Parser.class, 10, TimeUnit.SECONDS)) {
+                            instances.add(pooled.getObject());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long startNanos = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            long elapsed = System.nanoTime() - startNanos;
+            System.out.println(threads + " threads borrowing from a pool of 4: " + elapsed / (threads * borrowsPerThread)
+                    + " ns/borrow, instances created: " + instances.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
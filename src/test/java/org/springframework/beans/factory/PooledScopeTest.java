@@ -0,0 +1,229 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 池化bean的测试
+ */
+public class PooledScopeTest {
+
+    @Test
+    public void testBorrowedInstanceIsReused() {
+        DefaultListableBeanFactory beanFactory = createBeanFactory(2, 0);
+
+        Parser first;
+        try (PooledBean<Parser> pooled = beanFactory.borrowBean("parser", Parser.class)) {
+            first = pooled.getObject();
+            assertThat(first.getInitCalls()).isEqualTo(1);
+            assertThat(first.getBeanFactory()).isSameAs(beanFactory);
+        }
+        try (PooledBean<Parser> pooled = beanFactory.borrowBean("parser", Parser.class)) {
+            assertThat(pooled.getObject()).isSameAs(first);
+            assertThat(first.getInitCalls()).isEqualTo(1);
+        }
+
+        PooledBean<Parser> pooled = beanFactory.borrowBean("parser", Parser.class);
+        pooled.close();
+        pooled.close();
+        assertThatThrownBy(pooled::getObject).isInstanceOf(BeanException.class);
+        assertThatThrownBy(() -> beanFactory.getBean("parser")).isInstanceOf(BeanException.class)
+                .hasMessageContaining("borrowBean");
+    }
+
+    @Test
+    public void testPoolIsBounded() throws Exception {
+        DefaultListableBeanFactory beanFactory = createBeanFactory(2, 0);
+        PooledBean<Parser> first = beanFactory.borrowBean("parser", Parser.class);
+        PooledBean<Parser> second = beanFactory.borrowBean("parser", Parser.class);
+        Parser secondParser = second.getObject();
+        assertThat(first.getObject()).isNotSameAs(secondParser);
+        assertThatThrownBy(() -> beanFactory.borrowBean("parser", Parser.class)).isInstanceOf(BeanException.class)
+                .hasMessageContaining("all 2 instances are in use");
+
+        // 等待其他持有者归还
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> release = executor.submit(() -> {
+                TimeUnit.MILLISECONDS.sleep(50);
+                second.close();
+                return null;
+            });
+            try (PooledBean<Parser> third = beanFactory.borrowBean("parser", Parser.class, 5, TimeUnit.SECONDS)) {
+                assertThat(third.getObject()).isSameAs(secondParser);
+            }
+            release.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        first.close();
+    }
+
+    @Test
+    public void testConcurrentBorrowers() throws Exception {
+        DefaultListableBeanFactory beanFactory = createBeanFactory(4, 0);
+        int threads = 8;
+        Set<Parser> instances = ConcurrentHashMap.newKeySet();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < 2000; j++) {
+                        try (PooledBean<Parser> pooled = beanFactory.borrowBean("parser", Parser.class, 10,
+                                TimeUnit.SECONDS)) {
+                            Parser parser = pooled.getObject();
+                            instances.add(parser);
+                            if (!parser.inUse.compareAndSet(false, true)) {
+                                overlaps.incrementAndGet();
+                            }
+                            parser.inUse.set(false);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(overlaps.get()).isZero();
+        assertThat(instances.size()).isBetween(1, 4);
+    }
+
+    @Test
+    public void testIdleInstancesAreEvictedAndDestroyed() throws Exception {
+        DefaultListableBeanFactory beanFactory = createBeanFactory(2, 10);
+        Parser parser;
+        try (PooledBean<Parser> pooled = beanFactory.borrowBean("parser", Parser.class)) {
+            parser = pooled.getObject();
+        }
+        assertThat(beanFactory.evictIdlePooledBeans()).isZero();
+        TimeUnit.MILLISECONDS.sleep(30);
+        assertThat(beanFactory.evictIdlePooledBeans()).isEqualTo(1);
+        assertThat(parser.getDestroyCalls()).isEqualTo(1);
+
+        try (PooledBean<Parser> pooled = beanFactory.borrowBean("parser", Parser.class)) {
+            assertThat(pooled.getObject()).isNotSameAs(parser);
+        }
+    }
+
+    @Test
+    public void testDestroySingletonsClosesPools() {
+        DefaultListableBeanFactory beanFactory = createBeanFactory(2, 0);
+        PooledBean<Parser> borrowed = beanFactory.borrowBean("parser", Parser.class);
+        Parser idle;
+        try (PooledBean<Parser> pooled = beanFactory.borrowBean("parser", Parser.class)) {
+            idle = pooled.getObject();
+        }
+
+        beanFactory.destroySingletons();
+        assertThat(idle.getDestroyCalls()).isEqualTo(1);
+        // 借出中的实例在归还时销毁
+        Parser parser = borrowed.getObject();
+        assertThat(parser.getDestroyCalls()).isZero();
+        borrowed.close();
+        assertThat(parser.getDestroyCalls()).isEqualTo(1);
+    }
+
+    @Test
+    public void testXmlPoolSettings() throws IOException {
+        Path file = Files.createTempFile("pooled", ".xml");
+        try {
+            Files.write(file, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><beans>"
+                    + "<bean id=\"parser\" class=\"" + Parser.class.getName() + "\" scope=\"pooled\""
+                    + " pool-size=\"3\" pool-idle-timeout=\"60000\" init-method=\"init\"/>"
+                    + "</beans>").getBytes(StandardCharsets.UTF_8));
+            DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+            new XmlBeanDefinitionReader(beanFactory).loadBeanDefinitions(file.toString());
+
+            BeanDefinition beanDefinition = beanFactory.getBeanDefinition("parser");
+            assertThat(beanDefinition.isPooled()).isTrue();
+            assertThat(beanDefinition.getPoolSize()).isEqualTo(3);
+            assertThat(beanDefinition.getPoolIdleTimeout()).isEqualTo(60000L);
+            // 池化bean不预先实例化
+            beanFactory.preInstantiateSingletons();
+            try (PooledBean<Parser> pooled = beanFactory.borrowBean("parser", Parser.class)) {
+                assertThat(pooled.getObject().getInitCalls()).isEqualTo(1);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private DefaultListableBeanFactory createBeanFactory(int poolSize, long idleTimeout) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        BeanDefinition beanDefinition = new BeanDefinition(Parser.class);
+        beanDefinition.setScope(BeanDefinition.SCOPE_POOLED);
+        beanDefinition.setPoolSize(poolSize);
+        beanDefinition.setPoolIdleTimeout(idleTimeout);
+        beanDefinition.setInitMethodName("init");
+        beanDefinition.setDestroyMethodName("close");
+        beanFactory.registerBeanDefinition("parser", beanDefinition);
+        return beanFactory;
+    }
+
+    public static class Parser implements BeanFactoryAware {
+
+        final AtomicBoolean inUse = new AtomicBoolean();
+
+        private BeanFactory beanFactory;
+
+        private int initCalls;
+
+        private int destroyCalls;
+
+        public void init() {
+            initCalls++;
+        }
+
+        public void close() {
+            destroyCalls++;
+        }
+
+        @Override
+        public void setBeanFactory(BeanFactory beanFactory) throws BeanException {
+            this.beanFactory = beanFactory;
+        }
+
+        public BeanFactory getBeanFactory() {
+            return beanFactory;
+        }
+
+        public int getInitCalls() {
+            return initCalls;
+        }
+
+        public int getDestroyCalls() {
+            return destroyCalls;
+        }
+    }
+}
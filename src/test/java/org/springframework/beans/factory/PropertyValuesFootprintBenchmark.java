@@ -0,0 +1,110 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.PropertyValues;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 原ArrayList布局与紧凑布局属性值的内存占用和添加耗时的基准测试，只输出结果，不随单元测试运行，通过 mvn -Pbenchmark test 运行
+ */
+public class PropertyValuesFootprintBenchmark {
+
+    /**
+     * 原ArrayList布局与紧凑布局的属性值内存占用和添加耗时
+     */
+    @Test
+    public void propertyValuesFootprint() {
+        int definitions = 50_000;
+        int properties = 10;
+        long before = usedMemory();
+        List<LegacyPropertyValues> legacy = new ArrayList<>(definitions);
+        for (int i = 0; i < definitions; i++) {
+            LegacyPropertyValues propertyValues = new LegacyPropertyValues();
+            for (int j = 0; j < properties; j++) {
+                // 模拟每次从配置文件解析出的新字符串
+                propertyValues.addPropertyValue(new LegacyPropertyValue(new String("property" + j),
+                        new String("value" + j)));
+            }
+            legacy.add(propertyValues);
+        }
+        long legacyBytes = usedMemory() - before;
+        assertThat(legacy).hasSize(definitions);
+        legacy = null;
+
+        before = usedMemory();
+        List<PropertyValues> compact = new ArrayList<>(definitions);
+        for (int i = 0; i < definitions; i++) {
+            PropertyValues propertyValues = new PropertyValues();
+            for (int j = 0; j < properties; j++) {
+                propertyValues.addPropertyValue(new PropertyValue(new String("property" + j),
+                        new String("value" + j)));
+            }
+            propertyValues.freeze();
+            compact.add(propertyValues);
+        }
+        long compactBytes = usedMemory() - before;
+        assertThat(compact).hasSize(definitions);
+        System.out.println("PropertyValues footprint for " + definitions + " definitions x " + properties
+                + " properties: legacy " + legacyBytes / definitions + " B/definition, compact "
+                + compactBytes / definitions + " B/definition");
+
+        int many = 20_000;
+        long start = System.nanoTime();
+        LegacyPropertyValues legacyMany = new LegacyPropertyValues();
+        for (int i = 0; i < many; i++) {
+            legacyMany.addPropertyValue(new LegacyPropertyValue("p" + i, "v"));
+        }
+        long legacyNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        PropertyValues compactMany = new PropertyValues();
+        for (int i = 0; i < many; i++) {
+            compactMany.addPropertyValue(new PropertyValue("p" + i, "v"));
+        }
+        long compactNanos = System.nanoTime() - start;
+        System.out.println("adding " + many + " properties: legacy " + legacyNanos / 1_000_000 + " ms, compact "
+                + compactNanos / 1_000_000 + " ms");
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * 原来的属性值布局：ArrayList存储，添加时逐个比较名称
+     */
+    private static class LegacyPropertyValues {
+
+        private final List<LegacyPropertyValue> propertyValueList = new ArrayList<>();
+
+        void addPropertyValue(LegacyPropertyValue pv) {
+            for (int i = 0; i < propertyValueList.size(); i++) {
+                if (propertyValueList.get(i).name.equals(pv.name)) {
+                    propertyValueList.set(i, pv);
+                    return;
+                }
+            }
+            propertyValueList.add(pv);
+        }
+    }
+
+    private static class LegacyPropertyValue {
+
+        private final String name;
+
+        private final Object value;
+
+        LegacyPropertyValue(String name, Object value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+}
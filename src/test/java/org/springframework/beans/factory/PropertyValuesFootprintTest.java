@@ -0,0 +1,62 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.PropertyValues;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 紧凑属性值布局的测试，内存占用的比较见PropertyValuesFootprintBenchmark
+ */
+public class PropertyValuesFootprintTest {
+
+    @Test
+    public void testIndexedLookupAndOverride() {
+        PropertyValues propertyValues = new PropertyValues();
+        for (int i = 0; i < 1000; i++) {
+            propertyValues.addPropertyValue(new PropertyValue("p" + i, String.valueOf(i)));
+        }
+        PropertyValue[] snapshot = propertyValues.getPropertyValues();
+        // 未修改时不再复制数组
+        assertThat(propertyValues.getPropertyValues()).isSameAs(snapshot);
+
+        propertyValues.addPropertyValue(new PropertyValue("p500", "override"));
+        assertThat(propertyValues.size()).isEqualTo(1000);
+        assertThat(propertyValues.getPropertyValue("p500").getValue()).isEqualTo("override");
+        assertThat(propertyValues.getPropertyValue("p999").getValue()).isEqualTo("999");
+        assertThat(propertyValues.getPropertyValue("missing")).isNull();
+        // 已返回的数组不受之后修改的影响
+        assertThat(snapshot[500].getValue()).isEqualTo("500");
+        assertThat(propertyValues.getPropertyValues()[500].getValue()).isEqualTo("override");
+    }
+
+    @Test
+    public void testOnlyNamesAreInterned() {
+        PropertyValue first = new PropertyValue(new String("name"), new String("derek"));
+        PropertyValue second = new PropertyValue(new String("name"), new String("derek"));
+        assertThat(first.getName()).isSameAs(second.getName());
+        // 字面值不进入JVM字符串表
+        assertThat(first.getValue()).isEqualTo(second.getValue()).isNotSameAs(second.getValue());
+    }
+
+    @Test
+    public void testPropertyValuesAreFrozenWithConfiguration() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        BeanDefinition beanDefinition = new BeanDefinition(Car.class);
+        beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("brand", "porsche"));
+        beanFactory.registerBeanDefinition("car", beanDefinition);
+        beanFactory.freezeConfiguration();
+
+        PropertyValues propertyValues = beanDefinition.getPropertyValues();
+        assertThat(propertyValues.isFrozen()).isTrue();
+        assertThat(propertyValues.getPropertyValues()).isSameAs(propertyValues.getPropertyValues());
+        assertThatThrownBy(() -> propertyValues.addPropertyValue(new PropertyValue("brand", "lamborghini")))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(((Car) beanFactory.getBean("car")).getBrand()).isEqualTo("porsche");
+    }
+
+}
@@ -0,0 +1,225 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanException;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.BeanReference;
+import org.springframework.beans.factory.support.BeanCreationRecipe;
+import org.springframework.beans.factory.support.BeanDefinitionCache;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 原型bean及预编译创建配方的测试
+ */
+public class PrototypeScopeTest {
+
+    @Test
+    public void testNewInstanceForEachRequest() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("car", new BeanDefinition(Car.class));
+        BeanDefinition beanDefinition = new BeanDefinition(Counter.class);
+        beanDefinition.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        beanDefinition.setInitMethodName("init");
+        beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("name", "counter"));
+        beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("car", new BeanReference("car")));
+        beanFactory.registerBeanDefinition("counter", beanDefinition);
+
+        Counter first = (Counter) beanFactory.getBean("counter");
+        BeanCreationRecipe recipe = BeanDefinitionCache.forBeanDefinition(beanDefinition).getCreationRecipe();
+        Counter second = (Counter) beanFactory.getBean("counter");
+        assertThat(second).isNotSameAs(first);
+        // 配方只编译一次
+        assertThat(BeanDefinitionCache.forBeanDefinition(beanDefinition).getCreationRecipe()).isSameAs(recipe);
+
+        for (Counter counter : new Counter[] { first, second }) {
+            assertThat(counter.getName()).isEqualTo("counter");
+            assertThat(counter.getCar()).isSameAs(beanFactory.getBean("car"));
+            assertThat(counter.getBeanFactory()).isSameAs(beanFactory);
+            assertThat(counter.getInitCalls()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testRecipeIsRebuiltWhenPostProcessorAdded() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        BeanDefinition beanDefinition = new BeanDefinition(Counter.class);
+        beanDefinition.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        beanFactory.registerBeanDefinition("counter", beanDefinition);
+        beanFactory.getBean("counter");
+        BeanCreationRecipe recipe = BeanDefinitionCache.forBeanDefinition(beanDefinition).getCreationRecipe();
+
+        beanFactory.addBeanPostProcessor(new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeanException {
+                ((Counter) bean).setName("processed");
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeanException {
+                return bean;
+            }
+        });
+        Counter counter = (Counter) beanFactory.getBean("counter");
+        assertThat(counter.getName()).isEqualTo("processed");
+        assertThat(BeanDefinitionCache.forBeanDefinition(beanDefinition).getCreationRecipe()).isNotSameAs(recipe);
+    }
+
+    @Test
+    public void testPrototypeIsNotPreInstantiated() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        BeanDefinition beanDefinition = new BeanDefinition(Counter.class);
+        beanDefinition.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        beanFactory.registerBeanDefinition("counter", beanDefinition);
+        beanFactory.freezeConfiguration();
+        beanFactory.preInstantiateSingletons();
+        assertThat(BeanDefinitionCache.forBeanDefinition(beanDefinition).getCreationRecipe()).isNull();
+
+        BeanHandle<Counter> handle = beanFactory.getBeanHandle("counter", Counter.class);
+        assertThat(handle.getObject()).isNotSameAs(handle.getObject());
+    }
+
+    @Test
+    public void testCircularPrototypesAreRejected() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        registerNode(beanFactory, "x", "y");
+        registerNode(beanFactory, "y", "x");
+        registerNode(beanFactory, "z", null);
+
+        assertThatThrownBy(() -> beanFactory.getBean("x")).isInstanceOf(BeanException.class)
+                .hasStackTraceContaining("circular reference x -> y -> x");
+        // 失败后当前线程的创建标记已清除
+        assertThat(beanFactory.getBean("z")).isInstanceOf(Node.class);
+        assertThatThrownBy(() -> beanFactory.getBean("y")).isInstanceOf(BeanException.class)
+                .hasStackTraceContaining("circular reference y -> x -> y");
+    }
+
+    @Test
+    public void testXmlScopeAttribute() throws IOException {
+        Path file = Files.createTempFile("prototype", ".xml");
+        try {
+            Files.write(file, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><beans>"
+                    + "<bean id=\"counter\" class=\"" + Counter.class.getName() + "\" scope=\"prototype\"/>"
+                    + "<bean id=\"first\" class=\"" + Holder.class.getName() + "\">"
+                    + "<property name=\"counter\" ref=\"counter\"/></bean>"
+                    + "<bean id=\"second\" class=\"" + Holder.class.getName() + "\" scope=\"singleton\">"
+                    + "<property name=\"counter\" ref=\"counter\"/></bean>"
+                    + "</beans>").getBytes(StandardCharsets.UTF_8));
+            DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+            new XmlBeanDefinitionReader(beanFactory).loadBeanDefinitions(file.toString());
+
+            assertThat(beanFactory.getBeanDefinition("counter").isPrototype()).isTrue();
+            assertThat(beanFactory.getBeanDefinition("first").isSingleton()).isTrue();
+            // 每个引用原型bean的单例都得到自己的实例
+            Holder first = (Holder) beanFactory.getBean("first");
+            Holder second = (Holder) beanFactory.getBean("second");
+            assertThat(first.getCounter()).isNotNull().isNotSameAs(second.getCounter());
+            assertThat(beanFactory.getBean("first")).isSameAs(first);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testUnknownScopeIsRejected() throws IOException {
+        Path file = Files.createTempFile("prototype", ".xml");
+        try {
+            Files.write(file, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><beans>"
+                    + "<bean id=\"counter\" class=\"" + Counter.class.getName() + "\" scope=\"session\"/>"
+                    + "</beans>").getBytes(StandardCharsets.UTF_8));
+            DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+            // 自定义作用域可以在解析之后注册，未注册的作用域在获取bean时报告
+            new XmlBeanDefinitionReader(beanFactory).loadBeanDefinitions(file.toString());
+            assertThatThrownBy(() -> beanFactory.getBean("counter")).isInstanceOf(BeanException.class)
+                    .hasMessageContaining("session");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public static class Counter implements BeanFactoryAware {
+
+        private String name;
+
+        private Car car;
+
+        private BeanFactory beanFactory;
+
+        private int initCalls;
+
+        public void init() {
+            initCalls++;
+        }
+
+        @Override
+        public void setBeanFactory(BeanFactory beanFactory) throws BeanException {
+            this.beanFactory = beanFactory;
+        }
+
+        public BeanFactory getBeanFactory() {
+            return beanFactory;
+        }
+
+        public int getInitCalls() {
+            return initCalls;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Car getCar() {
+            return car;
+        }
+
+        public void setCar(Car car) {
+            this.car = car;
+        }
+    }
+
+    private void registerNode(DefaultListableBeanFactory beanFactory, String beanName, String next) {
+        BeanDefinition beanDefinition = new BeanDefinition(Node.class);
+        beanDefinition.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+        if (next != null) {
+            beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("next", new BeanReference(next)));
+        }
+        beanFactory.registerBeanDefinition(beanName, beanDefinition);
+    }
+
+    public static class Node {
+
+        private Node next;
+
+        public void setNext(Node next) {
+            this.next = next;
+        }
+    }
+
+    public static class Holder {
+
+        private Counter counter;
+
+        public Counter getCounter() {
+            return counter;
+        }
+
+        public void setCounter(Counter counter) {
+            this.counter = counter;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.springframework.beans.factory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 多线程并发获取单例bean的压力测试
+ */
+public class SingletonConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    private static final int ROUNDS = 50;
+
+    // 构造函数较慢的bean，放大并发创建的竞争窗口
+    public static class SlowBean {
+        static final AtomicInteger INSTANCES = new AtomicInteger();
+
+        public SlowBean() throws InterruptedException {
+            INSTANCES.incrementAndGet();
+            Thread.sleep(5);
+        }
+    }
+
+    // 构造时阻塞，直到测试放行
+    public static class BlockingBean {
+        static volatile CountDownLatch started;
+        static volatile CountDownLatch release;
+
+        public BlockingBean() throws InterruptedException {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testSingletonCreatedExactlyOnceUnderContention() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                SlowBean.INSTANCES.set(0);
+                DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+                beanFactory.registerBeanDefinition("slowBean", new BeanDefinition(SlowBean.class));
+
+                CountDownLatch startGate = new CountDownLatch(1);
+                List<Future<Object>> futures = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    futures.add(executor.submit(() -> {
+                        startGate.await();
+                        return beanFactory.getBean("slowBean");
+                    }));
+                }
+                startGate.countDown();
+
+                Set<Object> instances = ConcurrentHashMap.newKeySet();
+                for (Future<Object> future : futures) {
+                    instances.add(future.get(10, TimeUnit.SECONDS));
+                }
+                assertThat(SlowBean.INSTANCES.get()).isEqualTo(1);
+                assertThat(instances).hasSize(1);
+                assertThat(beanFactory.getSingletonCount()).isEqualTo(1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDifferentBeansAreCreatedInParallel() throws Exception {
+        BlockingBean.started = new CountDownLatch(1);
+        BlockingBean.release = new CountDownLatch(1);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("blockingBean", new BeanDefinition(BlockingBean.class));
+        beanFactory.registerBeanDefinition("helloService", new BeanDefinition(HelloService.class));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> blocking = executor.submit(() -> beanFactory.getBean("blockingBean"));
+            assertThat(BlockingBean.started.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // blockingBean创建过程中，其他bean的创建不受影响
+            assertThat(beanFactory.getBean("helloService")).isInstanceOf(HelloService.class);
+            assertThat(blocking.isDone()).isFalse();
+
+            BlockingBean.release.countDown();
+            assertThat(blocking.get(10, TimeUnit.SECONDS)).isInstanceOf(BlockingBean.class);
+        } finally {
+            BlockingBean.release.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.springframework.beans.ioc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionCodeGenerator;
+import org.springframework.beans.factory.support.BeanDefinitionRegistrar;
+import org.springframework.beans.factory.support.SimpleBeanDefinitionRegistry;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.beans.ioc.bean.Car;
+import org.springframework.beans.ioc.bean.Person;
+import org.springframework.context.support.RegistrarApplicationContext;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 构建时根据XML生成bean注册代码的测试
+ */
+public class AotCodeGenerationTest {
+
+    private Path dir;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("aot");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testGeneratedRegistrarWiresBeans() throws Exception {
+        String location = writeConfig("<bean id=\"person\" class=\"org.springframework.beans.ioc.bean.Person\""
+                + " init-method=\"customInitMethod\" destroy-method=\"customDestroyMethod\">"
+                + "<property name=\"name\" value=\"d&quot;érek\"/>"
+                + "<property name=\"age\" value=\"42\"/>"
+                + "<property name=\"car\" ref=\"car\"/>"
+                + "</bean>"
+                + "<bean id=\"car\" class=\"org.springframework.beans.ioc.bean.Car\">"
+                + "<property name=\"brand\" value=\"porsche\"/>"
+                + "</bean>"
+                + "<bean id=\"fieldOnly\" class=\"" + FieldOnlyBean.class.getName() + "\">"
+                + "<property name=\"value\" value=\"7\"/>"
+                + "</bean>");
+        String source = generate(location, "aot.GeneratedRegistrar");
+        // 可以直接生成代码的bean不再依赖反射
+        assertThat(source).contains("new org.springframework.beans.ioc.bean.Person()")
+                .contains("bean.setAge(42)")
+                .contains("(org.springframework.beans.ioc.bean.Car) beanFactory.resolveBeanReference(\"car\")")
+                .contains("d\\\"\\u00e9rek")
+                .doesNotContain("new org.springframework.beans.ioc.bean.Car(\"");
+
+        BeanDefinitionRegistrar registrar = compile(source, "aot.GeneratedRegistrar");
+        RegistrarApplicationContext context = new RegistrarApplicationContext(registrar);
+        Person person = context.getBean("person", Person.class);
+        assertThat(person.getName()).isEqualTo("d\"érek");
+        assertThat(person.getAge()).isEqualTo(42);
+        assertThat(person.getCar()).isSameAs(context.getBean("car", Car.class));
+        assertThat(person.getCar().getBrand()).isEqualTo("porsche");
+
+        BeanDefinition personDefinition = context.getBeanFactory().getBeanDefinition("person");
+        assertThat(personDefinition.getInstanceSupplier()).isNotNull();
+        assertThat(personDefinition.getInitMethodInvoker().getClass().getName())
+                .startsWith("aot.GeneratedRegistrar");
+
+        // 只能通过字段注入的bean回退为普通的bean定义
+        BeanDefinition fieldOnlyDefinition = context.getBeanFactory().getBeanDefinition("fieldOnly");
+        assertThat(fieldOnlyDefinition.getInstanceSupplier()).isNull();
+        assertThat(context.getBean("fieldOnly", FieldOnlyBean.class).value).isEqualTo(7);
+        context.close();
+    }
+
+    @Test
+    public void testManyBeansAreSplitIntoChunks() throws Exception {
+        StringBuilder beans = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            beans.append("<bean id=\"bean").append(i).append("\" class=\"org.springframework.beans.ioc.SampleBean\">")
+                    .append("<property name=\"value\" value=\"v").append(i).append("\"/></bean>");
+        }
+        String source = generate(writeConfig(beans.toString()), "aot.ManyBeansRegistrar");
+        assertThat(source).contains("Chunk0.register").contains("Chunk1.register");
+
+        RegistrarApplicationContext context = new RegistrarApplicationContext(
+                compile(source, "aot.ManyBeansRegistrar"));
+        assertThat(context.getBeanDefinitionNames()).hasSize(1000);
+        assertThat(context.getBean("bean999", SampleBean.class).getValue()).isEqualTo("v999");
+        context.close();
+    }
+
+    @Test
+    public void testMissingInitMethodFailsGeneration() throws IOException {
+        String location = writeConfig("<bean id=\"car\" class=\"org.springframework.beans.ioc.bean.Car\""
+                + " init-method=\"noSuchMethod\"/>");
+        assertThatThrownBy(() -> generate(location, "aot.BrokenRegistrar")).isInstanceOf(BeanException.class)
+                .hasMessageContaining("noSuchMethod");
+    }
+
+    private String writeConfig(String beans) throws IOException {
+        Path file = dir.resolve("beans" + System.nanoTime() + ".xml");
+        Files.write(file, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><beans>" + beans + "</beans>")
+                .getBytes(StandardCharsets.UTF_8));
+        return file.toString();
+    }
+
+    private String generate(String location, String className) throws IOException {
+        SimpleBeanDefinitionRegistry registry = new SimpleBeanDefinitionRegistry();
+        new XmlBeanDefinitionReader(registry, new DefaultResourceLoader()).loadBeanDefinitions(location);
+        Path file = new BeanDefinitionCodeGenerator(registry).writeTo(dir.resolve("src"), className);
+        return new String(Files.readAllBytes(file), StandardCharsets.US_ASCII);
+    }
+
+    private BeanDefinitionRegistrar compile(String source, String className) throws Exception {
+        Path sourceFile = dir.resolve("src").resolve(className.replace('.', '/') + ".java");
+        Path classes = Files.createDirectories(dir.resolve("classes"));
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int result = compiler.run(null, null, null, "-classpath", System.getProperty("java.class.path"),
+                "-d", classes.toString(), sourceFile.toString());
+        assertThat(result).isZero();
+        URLClassLoader classLoader = new URLClassLoader(new URL[] { classes.toUri().toURL() },
+                getClass().getClassLoader());
+        return (BeanDefinitionRegistrar) classLoader.loadClass(className).getDeclaredConstructor().newInstance();
+    }
+
+    public static class FieldOnlyBean {
+
+        int value;
+    }
+}
@@ -0,0 +1,151 @@
+package org.springframework.beans.ioc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionSnapshot;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.SimpleBeanDefinitionRegistry;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.context.support.AbstractXmlApplicationContext;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * bean定义快照的测试
+ */
+public class BeanDefinitionSnapshotTest {
+
+    private final Path directory = createDirectory();
+
+    private static Path createDirectory() {
+        try {
+            return Files.createTempDirectory("snapshot");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    static class SnapshotXmlApplicationContext extends AbstractXmlApplicationContext {
+
+        private final String[] configLocations;
+
+        private final Path snapshotPath;
+
+        SnapshotXmlApplicationContext(Path snapshotPath, String... configLocations) {
+            this.snapshotPath = snapshotPath;
+            this.configLocations = configLocations;
+            refresh();
+        }
+
+        @Override
+        protected String[] getConfigLocations() {
+            return configLocations;
+        }
+
+        @Override
+        protected Path getBeanDefinitionSnapshotPath() {
+            return snapshotPath;
+        }
+    }
+
+    @Test
+    public void testOnlyChangedLocationsAreReparsed() throws IOException {
+        Path a = write("a.xml", "<bean id=\"a\" class=\"org.springframework.beans.ioc.SampleBean\""
+                + " init-method=\"toString\"><property name=\"value\" value=\"a1\"/></bean>");
+        Path b = write("b.xml", "<bean id=\"b\" class=\"org.springframework.beans.ioc.SampleBean\">"
+                + "<property name=\"value\" ref=\"a\"/></bean>");
+        Path snapshotPath = directory.resolve("beans.snapshot");
+
+        BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.read(snapshotPath);
+        load(snapshot, a, b);
+        assertThat(snapshot.isModified()).isTrue();
+        snapshot.write(snapshotPath);
+
+        // 从文件读回的快照可以直接还原未变化的配置文件
+        BeanDefinitionSnapshot restored = BeanDefinitionSnapshot.read(snapshotPath);
+        SimpleBeanDefinitionRegistry registry = new SimpleBeanDefinitionRegistry();
+        assertThat(restored.restore(a.toString(), BeanDefinitionSnapshot.hash(Files.readAllBytes(a)), registry,
+                getClass().getClassLoader())).isTrue();
+        BeanDefinition beanDefinition = registry.getBeanDefinition("a");
+        assertThat(beanDefinition.getBeanClass()).isEqualTo(SampleBean.class);
+        assertThat(beanDefinition.getInitMethodName()).isEqualTo("toString");
+        assertThat(beanDefinition.getDestroyMethodName()).isNull();
+        assertThat(beanDefinition.getPropertyValues().getPropertyValue("value").getValue()).isEqualTo("a1");
+
+        // 修改后的配置文件重新解析，快照随之更新
+        write("b.xml", "<bean id=\"b\" class=\"org.springframework.beans.ioc.SampleBean\">"
+                + "<property name=\"value\" value=\"b2\"/></bean>");
+        assertThat(restored.restore(b.toString(), BeanDefinitionSnapshot.hash(Files.readAllBytes(b)),
+                new SimpleBeanDefinitionRegistry(), getClass().getClassLoader())).isFalse();
+        DefaultListableBeanFactory beanFactory = load(restored, a, b);
+        assertThat(((SampleBean) beanFactory.getBean("b")).getValue()).isEqualTo("b2");
+        assertThat(restored.isModified()).isTrue();
+    }
+
+    @Test
+    public void testApplicationContextUsesSnapshot() throws IOException {
+        Path a = write("a.xml", "<bean id=\"a\" class=\"org.springframework.beans.ioc.SampleBean\">"
+                + "<property name=\"value\" value=\"a1\"/></bean>");
+        Path b = write("b.xml", "<bean id=\"b\" class=\"org.springframework.beans.ioc.SampleBean\">"
+                + "<property name=\"value\" value=\"b1\"/></bean>");
+        Path snapshotPath = directory.resolve("cache/beans.snapshot");
+
+        SnapshotXmlApplicationContext first = new SnapshotXmlApplicationContext(snapshotPath, a.toString(),
+                b.toString());
+        assertThat(Files.exists(snapshotPath)).isTrue();
+        long size = Files.size(snapshotPath);
+
+        SnapshotXmlApplicationContext second = new SnapshotXmlApplicationContext(snapshotPath, a.toString(),
+                b.toString());
+        assertThat(((SampleBean) second.getBean("a")).getValue()).isEqualTo("a1");
+        assertThat(((SampleBean) second.getBean("b")).getValue())
+                .isEqualTo(((SampleBean) first.getBean("b")).getValue());
+
+        // 不再使用的配置文件从快照中移除
+        new SnapshotXmlApplicationContext(snapshotPath, a.toString());
+        assertThat(BeanDefinitionSnapshot.read(snapshotPath).containsLocation(b.toString())).isFalse();
+        assertThat(Files.size(snapshotPath)).isLessThan(size);
+    }
+
+    @Test
+    public void testCorruptSnapshotIsIgnored() throws IOException {
+        Path snapshotPath = write("beans.snapshot", "not a snapshot");
+        Path a = write("a.xml", "<bean id=\"a\" class=\"org.springframework.beans.ioc.SampleBean\"/>");
+        BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.read(snapshotPath);
+        assertThat(snapshot.containsLocation(a.toString())).isFalse();
+        assertThat(load(snapshot, a).containsBeanDefinition("a")).isTrue();
+    }
+
+    private DefaultListableBeanFactory load(BeanDefinitionSnapshot snapshot, Path... files) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(beanFactory);
+        reader.setSnapshot(snapshot);
+        String[] locations = Stream.of(files).map(Path::toString).toArray(String[]::new);
+        reader.loadBeanDefinitions(locations);
+        return beanFactory;
+    }
+
+    private Path write(String fileName, String beans) throws IOException {
+        Path file = directory.resolve(fileName);
+        String content = fileName.endsWith(".xml")
+                ? "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<beans>\n" + beans + "\n</beans>\n"
+                : beans;
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,79 @@
+package org.springframework.beans.ioc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 热刷新期间getBean吞吐量的基准测试，只输出结果，不随单元测试运行，通过 mvn -Pbenchmark test 运行
+ */
+public class HotRefreshBenchmark {
+
+    /**
+     * 热刷新期间其他线程的getBean调用量
+     */
+    @Test
+    public void hotRefresh() throws Exception {
+        Path file = Files.createTempFile("hot-refresh", ".xml");
+        try {
+            writeGreeting(file, "v0");
+            ClassPathXmlApplicationContext applicationContext = new ClassPathXmlApplicationContext(file.toString());
+            applicationContext.setRetireGracePeriod(0);
+            AtomicBoolean running = new AtomicBoolean(true);
+            AtomicInteger calls = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<?>> readers = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    readers.add(executor.submit(() -> {
+                        while (running.get()) {
+                            applicationContext.getBean("greeting", HotRefreshTest.Greeting.class);
+                            calls.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+                int refreshes = 20;
+                long start = System.nanoTime();
+                List<CompletableFuture<Void>> retirements = new ArrayList<>();
+                for (int i = 1; i <= refreshes; i++) {
+                    writeGreeting(file, "v" + i);
+                    retirements.add(applicationContext.hotRefresh());
+                }
+                long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                running.set(false);
+                for (Future<?> reader : readers) {
+                    reader.get(10, TimeUnit.SECONDS);
+                }
+                CompletableFuture.allOf(retirements.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+                System.out.println(refreshes + " hot refreshes in " + elapsedMillis + " ms, getBean calls meanwhile: "
+                        + calls.get());
+            } finally {
+                executor.shutdownNow();
+                applicationContext.close();
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void writeGreeting(Path file, String message) throws IOException {
+        Files.write(file, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><beans>"
+                + "<bean id=\"greeting\" class=\"" + HotRefreshTest.Greeting.class.getName() + "\">"
+                + "<property name=\"message\" value=\"" + message + "\"/></bean>"
+                + "</beans>").getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,232 @@
+package org.springframework.beans.ioc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.support.AbstractRefreshableApplicationContext;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 应用上下文热刷新的测试
+ */
+public class HotRefreshTest {
+
+    private static volatile CountDownLatch gate = new CountDownLatch(0);
+
+    private static volatile CountDownLatch entered = new CountDownLatch(0);
+
+    private Path file;
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testRefreshSwapsBeanFactory() throws Exception {
+        ClassPathXmlApplicationContext applicationContext = createContext("v1");
+        Greeting first = applicationContext.getBean("greeting", Greeting.class);
+        DefaultListableBeanFactory oldBeanFactory = applicationContext.getBeanFactory();
+        assertThat(first.getMessage()).isEqualTo("v1");
+
+        writeConfig("v2", Greeting.class.getName());
+        CompletableFuture<Void> retired = applicationContext.hotRefresh();
+        assertThat(applicationContext.getBean("greeting", Greeting.class).getMessage()).isEqualTo("v2");
+        assertThat(applicationContext.getBeanFactory()).isNotSameAs(oldBeanFactory);
+
+        retired.get(5, TimeUnit.SECONDS);
+        assertThat(first.isDestroyed()).isTrue();
+        assertThat(applicationContext.getBean("greeting", Greeting.class).isDestroyed()).isFalse();
+        applicationContext.close();
+    }
+
+    @Test
+    public void testInFlightCallsFinishOnOldBeanFactory() throws Exception {
+        ClassPathXmlApplicationContext applicationContext = createContext("v1");
+        Greeting oldGreeting = applicationContext.getBean("greeting", Greeting.class);
+
+        applicationContext.setRetireGracePeriod(0);
+
+        // 获取原型bean的调用在初始化方法中阻塞，期间完成刷新
+        gate = new CountDownLatch(1);
+        entered = new CountDownLatch(1);
+        CompletableFuture<Object> inFlight = CompletableFuture.supplyAsync(() -> applicationContext.getBean("slow"));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        writeConfig("v2", Greeting.class.getName());
+        CompletableFuture<Void> retired = applicationContext.hotRefresh();
+        assertThat(applicationContext.getBean("greeting", Greeting.class).getMessage()).isEqualTo("v2");
+        // 调用仍在进行，旧bean工厂还没有开始销毁
+        assertThat(retired).isNotDone();
+        assertThat(oldGreeting.isDestroyed()).isFalse();
+
+        gate.countDown();
+        assertThat(((Slow) inFlight.get(5, TimeUnit.SECONDS)).getGreeting()).isSameAs(oldGreeting);
+        retired.get(5, TimeUnit.SECONDS);
+        assertThat(oldGreeting.isDestroyed()).isTrue();
+        applicationContext.close();
+    }
+
+    @Test
+    public void testLeasePinsBeanFactoryUntilClosed() throws Exception {
+        ClassPathXmlApplicationContext applicationContext = createContext("v1");
+        applicationContext.setRetireGracePeriod(0);
+
+        CompletableFuture<Void> retired;
+        Greeting leased;
+        try (AbstractRefreshableApplicationContext.BeanFactoryLease lease = applicationContext.acquireBeanFactory()) {
+            leased = lease.getBean("greeting", Greeting.class);
+            writeConfig("v2", Greeting.class.getName());
+            retired = applicationContext.hotRefresh();
+            assertThat(applicationContext.getBean("greeting", Greeting.class).getMessage()).isEqualTo("v2");
+            // getBean返回之后继续使用bean，租约关闭前旧bean工厂不会销毁
+            assertThat(lease.getBean("greeting")).isSameAs(leased);
+            assertThat(retired).isNotDone();
+            assertThat(leased.isDestroyed()).isFalse();
+        }
+        retired.get(5, TimeUnit.SECONDS);
+        assertThat(leased.isDestroyed()).isTrue();
+        applicationContext.close();
+    }
+
+    @Test
+    public void testRetiredBeanFactoryIsDestroyedAfterGracePeriod() throws Exception {
+        ClassPathXmlApplicationContext applicationContext = createContext("v1");
+        applicationContext.setRetireGracePeriod(TimeUnit.SECONDS.toMillis(2));
+        Greeting oldGreeting = applicationContext.getBean("greeting", Greeting.class);
+
+        writeConfig("v2", Greeting.class.getName());
+        long start = System.nanoTime();
+        CompletableFuture<Void> retired = applicationContext.hotRefresh();
+        // 没有进行中的调用，但getBean已经返回的bean在宽限期内仍可使用
+        assertThat(oldGreeting.isDestroyed()).isFalse();
+        retired.get(5, TimeUnit.SECONDS);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(2000);
+        assertThat(oldGreeting.isDestroyed()).isTrue();
+        applicationContext.close();
+    }
+
+    @Test
+    public void testFailedRefreshKeepsCurrentBeanFactory() throws Exception {
+        ClassPathXmlApplicationContext applicationContext = createContext("v1");
+        Greeting greeting = applicationContext.getBean("greeting", Greeting.class);
+
+        writeConfig("v2", "org.springframework.beans.ioc.NoSuchGreeting");
+        assertThatThrownBy(applicationContext::hotRefresh).isInstanceOf(RuntimeException.class);
+        assertThat(applicationContext.getBean("greeting", Greeting.class)).isSameAs(greeting);
+        assertThat(greeting.isDestroyed()).isFalse();
+        applicationContext.close();
+        assertThat(greeting.isDestroyed()).isTrue();
+    }
+
+    @Test
+    public void testNoErrorsWhileRefreshing() throws Exception {
+        ClassPathXmlApplicationContext applicationContext = createContext("v0");
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger calls = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                readers.add(executor.submit(() -> {
+                    while (running.get()) {
+                        Greeting greeting = applicationContext.getBean("greeting", Greeting.class);
+                        assertThat(greeting.getMessage()).startsWith("v");
+                        calls.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            List<CompletableFuture<Void>> retirements = new ArrayList<>();
+            for (int i = 1; i <= 5; i++) {
+                writeConfig("v" + i, Greeting.class.getName());
+                retirements.add(applicationContext.hotRefresh());
+            }
+            running.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(10, TimeUnit.SECONDS);
+            }
+            CompletableFuture.allOf(retirements.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(calls.get()).isPositive();
+        assertThat(applicationContext.getBean("greeting", Greeting.class).getMessage()).isEqualTo("v5");
+        applicationContext.close();
+    }
+
+    private ClassPathXmlApplicationContext createContext(String message) throws IOException {
+        file = Files.createTempFile("hot-refresh", ".xml");
+        writeConfig(message, Greeting.class.getName());
+        return new ClassPathXmlApplicationContext(file.toString());
+    }
+
+    private void writeConfig(String message, String greetingClass) throws IOException {
+        Files.write(file, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><beans>"
+                + "<bean id=\"greeting\" class=\"" + greetingClass + "\" destroy-method=\"close\">"
+                + "<property name=\"message\" value=\"" + message + "\"/></bean>"
+                + "<bean id=\"slow\" class=\"" + Slow.class.getName() + "\" scope=\"prototype\" init-method=\"init\">"
+                + "<property name=\"greeting\" ref=\"greeting\"/></bean>"
+                + "</beans>").getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static class Greeting {
+
+        private String message;
+
+        private volatile boolean destroyed;
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        public boolean isDestroyed() {
+            return destroyed;
+        }
+
+        public void close() {
+            destroyed = true;
+        }
+    }
+
+    public static class Slow {
+
+        private Greeting greeting;
+
+        public Greeting getGreeting() {
+            return greeting;
+        }
+
+        public void setGreeting(Greeting greeting) {
+            this.greeting = greeting;
+        }
+
+        public void init() throws InterruptedException {
+            entered.countDown();
+            gate.await(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.springframework.beans.ioc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanException;
+import org.springframework.beans.factory.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * bean定义延迟加载bean类的测试
+ */
+public class LazyBeanClassResolutionTest {
+
+    private static volatile boolean countedBeanInitialized;
+
+    private Path file;
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testClassIsResolvedOnFirstUse() throws IOException {
+        DefaultListableBeanFactory beanFactory = load(null,
+                "<bean id=\"counted\" class=\"" + CountedBean.class.getName() + "\">"
+                        + "<property name=\"value\" value=\"a\"/></bean>"
+                        + "<bean class=\"org.springframework.beans.ioc.SampleBean\"/>");
+
+        BeanDefinition beanDefinition = beanFactory.getBeanDefinition("counted");
+        assertThat(beanDefinition.hasBeanClass()).isFalse();
+        assertThat(beanDefinition.getBeanClassName()).isEqualTo(CountedBean.class.getName());
+        // 类名推导的默认bean名称与bean类的简单名称一致
+        assertThat(beanFactory.containsBeanDefinition("sampleBean")).isTrue();
+
+        // 解析过程不执行bean类的静态初始化
+        assertThat(countedBeanInitialized).isFalse();
+        CountedBean bean = (CountedBean) beanFactory.getBean("counted");
+        assertThat(beanDefinition.hasBeanClass()).isTrue();
+        assertThat(bean.getValue()).isEqualTo("a");
+        assertThat(countedBeanInitialized).isTrue();
+    }
+
+    @Test
+    public void testTypeLookupResolvesPendingClasses() throws IOException {
+        DefaultListableBeanFactory beanFactory = load(null,
+                "<bean id=\"first\" class=\"org.springframework.beans.ioc.SampleBean\"/>"
+                        + "<bean id=\"second\" class=\"org.springframework.beans.ioc.SampleBean\"/>");
+        assertThat(beanFactory.getBeanDefinition("first").hasBeanClass()).isFalse();
+
+        assertThat(beanFactory.getBeanNamesForType(SampleBean.class)).containsExactlyInAnyOrder("first", "second");
+        assertThat(beanFactory.getBeansOfType(Object.class)).hasSize(2);
+    }
+
+    @Test
+    public void testTypeLookupDoesNotLoadUnrelatedClasses() throws IOException {
+        DefaultListableBeanFactory beanFactory = load(null,
+                "<bean id=\"sample\" class=\"org.springframework.beans.ioc.SampleBean\"/>"
+                        + "<bean id=\"counted\" class=\"" + CountedBean.class.getName() + "\"/>");
+
+        assertThat(beanFactory.getBeanNamesForType(BeanFactoryPostProcessor.class)).isEmpty();
+        assertThat(beanFactory.getBeanNamesForType(SampleBean.class)).containsExactly("sample");
+        assertThat(beanFactory.getBeanNamesForType(Object.class)).containsExactlyInAnyOrder("sample", "counted");
+        // 按class文件中的类型名称匹配，不加载bean类
+        assertThat(beanFactory.getBeanDefinition("sample").hasBeanClass()).isFalse();
+        assertThat(beanFactory.getBeanDefinition("counted").hasBeanClass()).isFalse();
+    }
+
+    @Test
+    public void testRefreshDoesNotLoadLazyBeanClasses() throws IOException {
+        ClassPathXmlApplicationContext applicationContext = refresh(
+                "<bean id=\"sample\" class=\"org.springframework.beans.ioc.SampleBean\" lazy-init=\"true\"/>");
+        try {
+            ConfigurableListableBeanFactory beanFactory = applicationContext.getBeanFactory();
+            assertThat(beanFactory.getBeanDefinition("sample").hasBeanClass()).isFalse();
+            assertThat(applicationContext.getBean("sample")).isInstanceOf(SampleBean.class);
+        } finally {
+            applicationContext.close();
+        }
+    }
+
+    @Test
+    public void testMisconfiguredLifecycleMethodsFailOnRefresh() throws IOException {
+        assertThatThrownBy(() -> refresh("<bean id=\"sample\" class=\"org.springframework.beans.ioc.SampleBean\""
+                + " lazy-init=\"true\" init-method=\"noSuchInit\"/>"))
+                .isInstanceOf(BeanException.class)
+                .hasMessageContaining("Could not find an init method named 'noSuchInit'");
+        assertThatThrownBy(() -> refresh("<bean id=\"sample\" class=\"org.springframework.beans.ioc.SampleBean\""
+                + " lazy-init=\"true\" destroy-method=\"noSuchDestroy\"/>"))
+                .isInstanceOf(BeanException.class)
+                .hasMessageContaining("Could not find a destroy method named 'noSuchDestroy'");
+        // 继承的公共无参方法可以作为初始化方法
+        refresh("<bean id=\"sample\" class=\"org.springframework.beans.ioc.SampleBean\""
+                + " lazy-init=\"true\" init-method=\"hashCode\"/>").close();
+    }
+
+    @Test
+    public void testMissingClassFailsOnFirstUse() throws IOException {
+        DefaultListableBeanFactory beanFactory = load(null,
+                "<bean id=\"missing\" class=\"org.springframework.beans.ioc.NoSuchBean\"/>");
+
+        assertThatThrownBy(() -> beanFactory.getBean("missing")).isInstanceOf(BeanException.class)
+                .hasStackTraceContaining("Class not found: org.springframework.beans.ioc.NoSuchBean");
+    }
+
+    @Test
+    public void testPreloadResolvesClassesInBackground() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            StringBuilder beans = new StringBuilder();
+            for (int i = 0; i < 100; i++) {
+                beans.append("<bean id=\"bean").append(i).append("\" class=\"org.springframework.beans.ioc.SampleBean\"/>");
+            }
+            beans.append("<bean id=\"missing\" class=\"org.springframework.beans.ioc.NoSuchBean\"/>");
+            DefaultListableBeanFactory beanFactory = load(executor, beans.toString());
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+            for (int i = 0; i < 100; i++) {
+                assertThat(beanFactory.getBeanDefinition("bean" + i).hasBeanClass()).isTrue();
+            }
+            // 加载失败的类不影响解析，错误在使用时报告
+            assertThat(beanFactory.getBeanDefinition("missing").hasBeanClass()).isFalse();
+            assertThatThrownBy(() -> beanFactory.getBean("missing")).isInstanceOf(BeanException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ClassPathXmlApplicationContext refresh(String beans) throws IOException {
+        write(beans);
+        return new ClassPathXmlApplicationContext(file.toString());
+    }
+
+    private void write(String beans) throws IOException {
+        if (file == null) {
+            file = Files.createTempFile("lazy-class", ".xml");
+        }
+        Files.write(file, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><beans>" + beans + "</beans>")
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    private DefaultListableBeanFactory load(ExecutorService executor, String beans) throws IOException {
+        write(beans);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(beanFactory);
+        reader.setClassPreloadExecutor(executor);
+        reader.loadBeanDefinitions(file.toString());
+        return beanFactory;
+    }
+
+    public static class CountedBean {
+
+        static {
+            countedBeanInitialized = true;
+        }
+
+        private String value;
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+    }
+}
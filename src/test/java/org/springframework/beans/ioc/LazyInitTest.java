@@ -0,0 +1,145 @@
+package org.springframework.beans.ioc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 延迟初始化bean及延迟解析代理的测试
+ */
+public class LazyInitTest {
+
+    private static final AtomicInteger initializedServices = new AtomicInteger();
+
+    private static final AtomicInteger constructedServices = new AtomicInteger();
+
+    private Path file;
+
+    @BeforeEach
+    public void setUp() {
+        initializedServices.set(0);
+        constructedServices.set(0);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testLazyBeanIsCreatedOnFirstCall() throws IOException {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext(writeConfig("",
+                "<bean id=\"service\" class=\"" + ExpensiveService.class.getName() + "\" lazy-init=\"true\""
+                        + " init-method=\"init\"/>"
+                        + "<bean id=\"client\" class=\"" + Client.class.getName() + "\">"
+                        + "<property name=\"service\" ref=\"service\"/></bean>"));
+        assertThat(initializedServices.get()).isZero();
+
+        Client client = context.getBean("client", Client.class);
+        ExpensiveService proxy = client.getService();
+        assertThat(proxy.getClass()).isNotEqualTo(ExpensiveService.class);
+        assertThat(initializedServices.get()).isZero();
+        // 创建代理会执行一次bean类的构造器，但不执行初始化方法
+        assertThat(constructedServices.get()).isEqualTo(1);
+
+        // 第一次方法调用时创建目标bean，之后复用
+        assertThat(proxy.ping()).isEqualTo("pong");
+        assertThat(proxy.ping()).isEqualTo("pong");
+        assertThat(initializedServices.get()).isEqualTo(1);
+        ExpensiveService target = context.getBean("service", ExpensiveService.class);
+        assertThat(target.getClass()).isEqualTo(ExpensiveService.class);
+        assertThat(target.getCalls()).isEqualTo(2);
+        assertThat(constructedServices.get()).isEqualTo(2);
+        context.close();
+    }
+
+    @Test
+    public void testReferenceToCreatedLazyBeanIsNotProxied() throws IOException {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext(writeConfig("",
+                "<bean id=\"service\" class=\"" + ExpensiveService.class.getName() + "\" lazy-init=\"true\"/>"
+                        + "<bean id=\"client\" class=\"" + Client.class.getName() + "\" lazy-init=\"true\">"
+                        + "<property name=\"service\" ref=\"service\"/></bean>"));
+        ExpensiveService service = context.getBean("service", ExpensiveService.class);
+        assertThat(context.getBean("client", Client.class).getService()).isSameAs(service);
+        context.close();
+    }
+
+    @Test
+    public void testDocumentDefaultAndExplicitOverride() throws IOException {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext(writeConfig(
+                " default-lazy-init=\"true\"",
+                "<bean id=\"lazy\" class=\"" + ExpensiveService.class.getName() + "\" init-method=\"init\"/>"
+                        + "<bean id=\"eager\" class=\"" + ExpensiveService.class.getName() + "\" lazy-init=\"false\""
+                        + " init-method=\"init\"/>"));
+        assertThat(initializedServices.get()).isEqualTo(1);
+        assertThat(context.getBeanFactory().getBeanDefinition("lazy").isLazyInit()).isTrue();
+        assertThat(context.getBeanFactory().getBeanDefinition("eager").isLazyInit()).isFalse();
+        context.close();
+    }
+
+    @Test
+    public void testContextWideDefault() throws IOException {
+        String location = writeConfig("",
+                "<bean id=\"lazy\" class=\"" + ExpensiveService.class.getName() + "\" init-method=\"init\"/>"
+                        + "<bean id=\"eager\" class=\"" + ExpensiveService.class.getName() + "\" lazy-init=\"false\""
+                        + " init-method=\"init\"/>");
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext(true, location);
+        assertThat(initializedServices.get()).isEqualTo(1);
+        context.getBean("lazy");
+        assertThat(initializedServices.get()).isEqualTo(2);
+        context.close();
+    }
+
+    private String writeConfig(String beansAttributes, String beans) throws IOException {
+        file = Files.createTempFile("lazy-init", ".xml");
+        Files.write(file, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><beans" + beansAttributes + ">" + beans
+                + "</beans>").getBytes(StandardCharsets.UTF_8));
+        return file.toString();
+    }
+
+    public static class ExpensiveService {
+
+        private int calls;
+
+        public ExpensiveService() {
+            constructedServices.incrementAndGet();
+        }
+
+        public void init() {
+            initializedServices.incrementAndGet();
+        }
+
+        public String ping() {
+            calls++;
+            return "pong";
+        }
+
+        public int getCalls() {
+            return calls;
+        }
+    }
+
+    public static class Client {
+
+        private ExpensiveService service;
+
+        public ExpensiveService getService() {
+            return service;
+        }
+
+        public void setService(ExpensiveService service) {
+            this.service = service;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.springframework.beans.ioc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanException;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 并行解析多个配置文件的测试
+ */
+public class ParallelConfigLocationTest {
+
+    private final List<Path> files = new ArrayList<>();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testParallelLoadingMatchesSequential() throws IOException {
+        String[] locations = new String[12];
+        for (int i = 0; i < locations.length; i++) {
+            locations[i] = writeConfig("file" + i, 200);
+        }
+        DefaultListableBeanFactory sequential = load(locations, null);
+        DefaultListableBeanFactory parallel = load(locations, executor);
+
+        assertThat(parallel.getBeanDefinitionNames()).hasSize(12 * 200)
+                .containsExactlyInAnyOrder(sequential.getBeanDefinitionNames());
+        assertThat(((SampleBean) parallel.getBean("file7bean3")).getValue()).isEqualTo("file7-3");
+    }
+
+    @Test
+    public void testDuplicateDetectionMatchesSequential() throws IOException {
+        String first = writeConfig("a", 10);
+        String second = writeConfig("b", 10);
+        // 第三个文件与第一个文件重名
+        String duplicate = writeConfig("a", 1);
+        String[] locations = { first, second, duplicate };
+
+        assertThatThrownBy(() -> load(locations, null)).isInstanceOf(BeanException.class)
+                .hasMessage("Duplicate bean definition found for bean name: abean0");
+        assertThatThrownBy(() -> load(locations, executor)).isInstanceOf(BeanException.class)
+                .hasMessage("Duplicate bean definition found for bean name: abean0");
+    }
+
+    @Test
+    public void testFirstFailingLocationWins() throws IOException {
+        String good = writeConfig("a", 5);
+        String missing = "/no/such/dir/missing.xml";
+        String duplicate = writeConfig("a", 1);
+        String[] locations = { good, duplicate, missing };
+
+        // 依次解析时先遇到重名，并行解析时也应报告同一个错误
+        assertThatThrownBy(() -> load(locations, executor)).isInstanceOf(BeanException.class)
+                .hasMessageContaining("Duplicate bean definition");
+    }
+
+    private DefaultListableBeanFactory load(String[] locations, ExecutorService executor) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(beanFactory);
+        reader.setParsingExecutor(executor);
+        reader.loadBeanDefinitions(locations);
+        return beanFactory;
+    }
+
+    private String writeConfig(String prefix, int beanCount) throws IOException {
+        Path file = Files.createTempFile(prefix, ".xml");
+        files.add(file);
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<beans>\n");
+        for (int i = 0; i < beanCount; i++) {
+            xml.append("    <bean id=\"").append(prefix).append("bean").append(i)
+                    .append("\" class=\"org.springframework.beans.ioc.SampleBean\">\n")
+                    .append("        <property name=\"value\" value=\"").append(prefix).append('-').append(i)
+                    .append("\"/>\n    </bean>\n");
+        }
+        xml.append("</beans>\n");
+        Files.write(file, xml.toString().getBytes(StandardCharsets.UTF_8));
+        return file.toString();
+    }
+}
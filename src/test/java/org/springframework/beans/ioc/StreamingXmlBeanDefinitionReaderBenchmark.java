@@ -0,0 +1,90 @@
+package org.springframework.beans.ioc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 流式与DOM方式解析XML的耗时和内存基准测试，只输出结果，不随单元测试运行，通过 mvn -Pbenchmark test 运行
+ */
+public class StreamingXmlBeanDefinitionReaderBenchmark {
+
+    /**
+     * 流式与DOM方式解析10万个bean定义的耗时，以及解析过程中占用的堆内存
+     */
+    @Test
+    public void streamingXmlParsing() throws Exception {
+        int beanCount = 100_000;
+        Path file = Files.createTempFile("beans", ".xml");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<beans>\n");
+                for (int i = 0; i < beanCount; i++) {
+                    writer.write("    <bean id=\"sampleBean" + i + "\" class=\"org.springframework.beans.ioc.SampleBean\">\n"
+                            + "        <property name=\"value\" value=\"value" + i + "\"/>\n    </bean>\n");
+                }
+                writer.write("</beans>\n");
+            }
+            for (boolean streaming : new boolean[] { false, true, false, true }) {
+                // 只计数不保存的注册表，解析到一半时的存活堆内存就是解析器自身占用的内存
+                AtomicInteger registered = new AtomicInteger();
+                AtomicLong liveHeap = new AtomicLong();
+                long before = usedMemory();
+                BeanDefinitionRegistry registry = new BeanDefinitionRegistry() {
+                    @Override
+                    public void registerBeanDefinition(String beanName, BeanDefinition beanDefinition) {
+                        if (registered.incrementAndGet() == beanCount / 2) {
+                            liveHeap.set(usedMemory() - before);
+                        }
+                    }
+
+                    @Override
+                    public BeanDefinition getBeanDefinition(String beanName) throws BeanException {
+                        throw new BeanException("No bean named '" + beanName + "' is defined");
+                    }
+
+                    @Override
+                    public boolean containsBeanDefinition(String beanName) {
+                        return false;
+                    }
+
+                    @Override
+                    public String[] getBeanDefinitionNames() {
+                        return new String[0];
+                    }
+                };
+                XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(registry);
+                reader.setStreaming(streaming);
+                long start = System.nanoTime();
+                reader.loadBeanDefinitions(new FileSystemResource(file.toString()));
+                long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+                assertThat(registered.get()).isEqualTo(beanCount);
+                System.out.println("parse " + beanCount + " bean definitions (" + Files.size(file) / 1024 + " KB) "
+                        + (streaming ? "streaming" : "dom") + ": " + elapsedMillis + " ms, live heap while parsing "
+                        + liveHeap.get() / 1024 + " KB");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,94 @@
+package org.springframework.beans.ioc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanReference;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 流式解析XML的测试，与DOM方式的耗时和内存比较见StreamingXmlBeanDefinitionReaderBenchmark
+ */
+public class StreamingXmlBeanDefinitionReaderTest {
+
+    @Test
+    public void testStreamingMatchesDom() throws Exception {
+        Path file = writeConfig(100);
+        try {
+            DefaultListableBeanFactory domFactory = load(file, false);
+            DefaultListableBeanFactory streamingFactory = load(file, true);
+
+            assertThat(streamingFactory.getBeanDefinitionNames()).containsExactlyInAnyOrder(
+                    domFactory.getBeanDefinitionNames());
+            BeanDefinition beanDefinition = streamingFactory.getBeanDefinition("sampleBean42");
+            assertThat(beanDefinition.getBeanClass()).isEqualTo(SampleBean.class);
+            assertThat(beanDefinition.getPropertyValues().getPropertyValues()).hasSize(1);
+            assertThat(((SampleBean) streamingFactory.getBean("sampleBean42")).getValue()).isEqualTo("value42");
+            Object reference = streamingFactory.getBeanDefinition("holder").getPropertyValues().getPropertyValues()[0]
+                    .getValue();
+            assertThat(((BeanReference) reference).getBeanName()).isEqualTo("sampleBean0");
+            // 未指定id和name时使用类名作为bean名称
+            assertThat(streamingFactory.containsBeanDefinition("person")).isTrue();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testLiteralValuesAreSharedWithinReader() throws Exception {
+        Path file = Files.createTempFile("beans", ".xml");
+        try {
+            Files.write(file, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><beans>"
+                    + "<bean id=\"first\" class=\"org.springframework.beans.ioc.SampleBean\">"
+                    + "<property name=\"value\" value=\"shared\"/></bean>"
+                    + "<bean id=\"second\" class=\"org.springframework.beans.ioc.SampleBean\">"
+                    + "<property name=\"value\" value=\"shared\"/></bean>"
+                    + "</beans>").getBytes(StandardCharsets.UTF_8));
+            for (boolean streaming : new boolean[] { false, true }) {
+                DefaultListableBeanFactory beanFactory = load(file, streaming);
+                Object first = beanFactory.getBeanDefinition("first").getPropertyValues().getPropertyValue("value")
+                        .getValue();
+                Object second = beanFactory.getBeanDefinition("second").getPropertyValues().getPropertyValue("value")
+                        .getValue();
+                // 同一个读取器解析出的相同字面值只保留一份，但不驻留到JVM字符串表
+                assertThat(second).isSameAs(first);
+                assertThat(first).isEqualTo("shared").isNotSameAs("shared");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private DefaultListableBeanFactory load(Path file, boolean streaming) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(beanFactory);
+        reader.setStreaming(streaming);
+        reader.loadBeanDefinitions(new FileSystemResource(file.toString()));
+        return beanFactory;
+    }
+
+    private Path writeConfig(int beanCount) throws IOException {
+        Path file = Files.createTempFile("beans", ".xml");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<beans>\n");
+            for (int i = 0; i < beanCount; i++) {
+                writer.write("    <bean id=\"sampleBean" + i + "\" class=\"org.springframework.beans.ioc.SampleBean\">\n"
+                        + "        <property name=\"value\" value=\"value" + i + "\"/>\n    </bean>\n");
+            }
+            writer.write("    <bean id=\"holder\" class=\"org.springframework.beans.ioc.SampleBean\">\n"
+                    + "        <property name=\"value\" ref=\"sampleBean0\"/>\n    </bean>\n");
+            writer.write("    <bean class=\"org.springframework.beans.ioc.Person\"/>\n");
+            writer.write("</beans>\n");
+        }
+        return file;
+    }
+}